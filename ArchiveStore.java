@@ -0,0 +1,75 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * STRATEGY PATTERN: Where closed months go when they leave memory (see archiveMonthsBefore)
+ * TransactionArchive keeps one compressed file per month; JdbcBackend keeps the
+ * rows in its own table, where indexes answer the filtered reads.
+ */
+public interface ArchiveStore {
+
+    /**
+     * Every transaction of one archived month
+     */
+    List<Transaction> readPartition(YearMonth month) throws IOException;
+
+    /**
+     * Store the given rows as the whole of one month (replaces what was there)
+     * Once this returns the rows are safe and may leave memory
+     */
+    void writePartition(YearMonth month, List<Transaction> transactions) throws IOException;
+
+    /**
+     * FILTERED READ: Rows of the given months (in calendar order) that match -
+     * conditions left null are not checked; categories are exact spellings.
+     * The visitor returns false to stop; returns false if it was stopped.
+     * Default: read each month and test every row (a month that cannot be read
+     * is reported and skipped)
+     */
+    default boolean visit(List<YearMonth> months, LocalDate startDate, LocalDate endDate,
+                          Set<String> categories, TransactionType type, Predicate<Transaction> visitor) {
+        Predicate<Transaction> matches = FinanceManager.matcher(startDate, endDate, categories, type);
+        for (YearMonth month : months) {
+            List<Transaction> rows;
+            try {
+                rows = readPartition(month);
+            } catch (IOException e) {
+                System.err.println("Error reading archived month " + month + ": " + e.getMessage());
+                FinanceMetrics.increment("archive.readErrors");
+                continue;
+            }
+            for (Transaction transaction : rows) {
+                if (matches.test(transaction) && !visitor.test(transaction)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One row by ID within a month (null if it is not there)
+     * Default: read the month and look for it
+     */
+    default Transaction find(String transactionID, YearMonth month) throws IOException {
+        for (Transaction transaction : readPartition(month)) {
+            if (transaction.getId().equals(transactionID)) {
+                return transaction;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Does find use an index? Then FinanceManager needs no ID filters for this store
+     */
+    default boolean indexesIds() {
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SERVICE: Saves in the background whenever something changed
+ * DIRTY FLAG: Any change event marks the data as dirty; every interval a single
+ * background thread saves if (and only if) it is dirty. Saving never runs on
+ * the UI thread, so clicks never wait for the disk.
+ * Journal and database backends write only the changes; the file backend writes
+ * a crash-safe full snapshot.
+ *
+ * Interval: -Dfinance.autosave.seconds=30 (0 turns periodic saving off)
+ * After the stored data failed to load only saveNow() writes (see DataPersistenceService)
+ */
+public class AutoSaveService implements FinanceChangeListener {
+    private final DataPersistenceService dataService;
+    private final FinanceManager financeManager;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final ScheduledExecutorService executor;
+
+    public AutoSaveService(DataPersistenceService dataService, FinanceManager financeManager) {
+        this.dataService = dataService;
+        this.financeManager = financeManager;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "finance-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        financeManager.addChangeListener(this);
+    }
+
+    /**
+     * Start periodic saving
+     */
+    public void start() {
+        long seconds = Long.getLong("finance.autosave.seconds", 30);
+        if (seconds > 0) {
+            executor.scheduleWithFixedDelay(() -> saveIfDirty(false), seconds, seconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void onChange(FinanceChangeEvent event) {
+        dirty.set(true);
+    }
+
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    /**
+     * SAVE NOW (e.g. Save button): queued on the background thread
+     * The future completes once the data is on disk (true) or saving failed (false)
+     */
+    public Future<Boolean> saveNow() {
+        dirty.set(true);
+        return executor.submit(() -> saveIfDirty(true));
+    }
+
+    private boolean saveIfDirty(boolean explicit) {
+        if (!explicit && !dataService.isAutoSaveEnabled()) {
+            return !dirty.get();
+        }
+        if (!dirty.getAndSet(false)) {
+            return true;
+        }
+        long start = FinanceMetrics.startTimer();
+        boolean saved = false;
+        try {
+            saved = dataService.saveData(financeManager);
+        } catch (RuntimeException e) {
+            // keep the thread alive and try again next time
+            System.err.println("Auto-save failed: " + e.getMessage());
+        }
+        if (!saved) {
+            dirty.set(true); // try again next time
+        }
+        FinanceMetrics.stopTimer("persistence.autoSave", start);
+        return saved;
+    }
+
+    /**
+     * SHUTDOWN: Final save of anything still unsaved, then stop the thread
+     */
+    public void shutdown() {
+        try {
+            if (!executor.submit(() -> saveIfDirty(false)).get(30, TimeUnit.SECONDS)
+                    && !dataService.isAutoSaveEnabled()) {
+                System.err.println("Unsaved changes were not written (auto-save is off)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Final save failed: " + e.getMessage());
+        }
+        executor.shutdown();
+    }
+}
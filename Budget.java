@@ -6,11 +6,15 @@ import java.time.LocalDate;
 //ENTITY: Represents a monthly budget for a category
 public class Budget implements Serializable {
   private static final long SerialVersionUID = 1L;
+  // pinned to the value of the files saved so far, so adding fields keeps them loadable
+  private static final long serialVersionUID = 6898232240522607408L;
 
   private String category;
   private double allocatedAmount;
   private double spentAmount;
   private LocalDate month;
+  // allocated and spent are both in this currency (null = the ledger's base currency)
+  private String currency;
 
     public Budget(String category,double allocatedAmount, LocalDate month) {
         this.allocatedAmount = allocatedAmount;
@@ -19,6 +23,18 @@ public class Budget implements Serializable {
         this.spentAmount = 0.0;
     }
 
+    public Budget(String category,double allocatedAmount, LocalDate month, String currency) {
+        this(category, allocatedAmount, month);
+        this.currency = currency == null ? null : ExchangeRateTable.normalize(currency);
+    }
+
+    //independent copy, used when saving in the background
+    public Budget copy(){
+        Budget copy = new Budget(category, allocatedAmount, month, currency);
+        copy.spentAmount = spentAmount;
+        return copy;
+    }
+
     public double getRemainingAmount(){
         return allocatedAmount-spentAmount;
     }
@@ -30,6 +46,14 @@ public class Budget implements Serializable {
     this.spentAmount+=amount;
     }
 
+    //undo spending when an expense is deleted or changed
+    public void removeSpending(double amount){
+        if(amount<0){
+            throw new IllegalArgumentException("spending amount connot be negative");
+        }
+        this.spentAmount=Math.max(0, spentAmount-amount);
+    }
+
     public boolean isExceeded(){
         return spentAmount>allocatedAmount;
     }
@@ -55,6 +79,10 @@ public class Budget implements Serializable {
         return spentAmount;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
     public void setAllocatedAmount(double allocatedAmount) {
         if(allocatedAmount>=0)
         this.allocatedAmount = allocatedAmount;
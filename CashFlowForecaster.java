@@ -0,0 +1,222 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * SERVICE: Projects the balance for the coming months
+ * FORECASTING CONCEPT: Exponential smoothing with a month-of-year seasonal term,
+ * fitted per category on the MonthlyRollup - raw transactions are never read
+ *
+ * CACHING: Model parameters are kept between calls and only the months that
+ * closed since the last call are folded in, so forecasting is near instant.
+ * The forecaster listens for changes: a row added, edited or removed in a month
+ * that is already folded in (recurring catch-up, undo, imports, sync) makes the
+ * next call refit from the rollup - still no transaction is read.
+ *
+ * THREAD SAFETY: Callers may forecast from any thread. Change events only record
+ * the earliest changed month (no lock), so they never wait for a forecast.
+ */
+public class CashFlowForecaster implements FinanceChangeListener {
+    // How fast the level follows recent months (0..1)
+    private static final double LEVEL_SMOOTHING = 0.4;
+    // How fast the seasonal (month-of-year) adjustment learns (0..1)
+    private static final double SEASONAL_SMOOTHING = 0.2;
+
+    /**
+     * Fitted parameters for one category and direction (income or expense)
+     */
+    private static class CategoryModel {
+        private double level;
+        private final double[] seasonal = new double[12];
+        private int observations;
+
+        void observe(YearMonth month, double value) {
+            int slot = month.getMonthValue() - 1;
+            if (observations == 0) {
+                level = value;
+            } else {
+                double previousSeasonal = seasonal[slot];
+                level = LEVEL_SMOOTHING * (value - previousSeasonal) + (1 - LEVEL_SMOOTHING) * level;
+                seasonal[slot] = SEASONAL_SMOOTHING * (value - level) + (1 - SEASONAL_SMOOTHING) * previousSeasonal;
+            }
+            observations++;
+        }
+
+        double predict(YearMonth month) {
+            return Math.max(0, level + seasonal[month.getMonthValue() - 1]);
+        }
+    }
+
+    /**
+     * RESULT: Projected figures for one future month
+     */
+    public static class ForecastPoint {
+        private final YearMonth month;
+        private final double income;
+        private final double expenses;
+        private final double balance;
+
+        ForecastPoint(YearMonth month, double income, double expenses, double balance) {
+            this.month = month;
+            this.income = income;
+            this.expenses = expenses;
+            this.balance = balance;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public double getIncome() {
+            return income;
+        }
+
+        public double getExpenses() {
+            return expenses;
+        }
+
+        public double getBalance() {
+            return balance;
+        }
+    }
+
+    private final FinanceManager financeManager;
+    private final Map<String, CategoryModel> incomeModels = new HashMap<>();
+    private final Map<String, CategoryModel> expenseModels = new HashMap<>();
+    // Last month already folded into the models (null = nothing yet)
+    private YearMonth lastClosedMonth;
+    // Earliest month changed since the last update (null = none)
+    private final AtomicReference<YearMonth> earliestChange = new AtomicReference<>();
+
+    public CashFlowForecaster(FinanceManager financeManager) {
+        this.financeManager = financeManager;
+        financeManager.addChangeListener(this);
+    }
+
+    /**
+     * Remember the earliest month a change touched (old and new version of an edit)
+     */
+    @Override
+    public void onChange(FinanceChangeEvent event) {
+        switch (event.getType()) {
+            case TRANSACTIONS_ADDED:
+            case TRANSACTIONS_REMOVED:
+            case TRANSACTIONS_UPDATED:
+                for (Transaction transaction : event.getTransactions()) {
+                    changed(YearMonth.from(transaction.getLocalDate()));
+                }
+                for (Transaction transaction : event.getPreviousTransactions()) {
+                    changed(YearMonth.from(transaction.getLocalDate()));
+                }
+                break;
+            default:
+                // budgets, goals and rules do not feed the forecast; archiving keeps the rollup as is
+        }
+    }
+
+    private void changed(YearMonth month) {
+        earliestChange.accumulateAndGet(month, (current, candidate) ->
+                current == null || candidate.isBefore(current) ? candidate : current);
+    }
+
+    /**
+     * INCREMENTAL UPDATE: Fold in every month that closed since the last call
+     * A month is closed once the calendar has moved past it; if an already folded
+     * month changed since, the models are fitted again from the first month
+     */
+    public synchronized void update(YearMonth currentMonth) {
+        // taken before the rollup is read: a change after this point is seen next time
+        YearMonth changed = earliestChange.getAndSet(null);
+        MonthlyRollup rollup = financeManager.getMonthlyRollup();
+        if (changed != null && lastClosedMonth != null && !changed.isAfter(lastClosedMonth)) {
+            reset();
+        }
+        if (rollup.getMonths().isEmpty()) {
+            return;
+        }
+        YearMonth month = lastClosedMonth == null ? rollup.getMonths().first() : lastClosedMonth.plusMonths(1);
+
+        while (month.isBefore(currentMonth)) {
+            Map<String, MonthlyRollup.CategoryTotals> totals = rollup.getCategoryTotals(month);
+
+            // New categories start their model in the month they first appear
+            for (Map.Entry<String, MonthlyRollup.CategoryTotals> entry : totals.entrySet()) {
+                if (entry.getValue().getIncomeCount() > 0) {
+                    incomeModels.computeIfAbsent(entry.getKey(), c -> new CategoryModel());
+                }
+                if (entry.getValue().getExpenseCount() > 0) {
+                    expenseModels.computeIfAbsent(entry.getKey(), c -> new CategoryModel());
+                }
+            }
+            // Known categories with nothing this month observe a zero
+            for (Map.Entry<String, CategoryModel> model : incomeModels.entrySet()) {
+                MonthlyRollup.CategoryTotals t = totals.get(model.getKey());
+                model.getValue().observe(month, t == null ? 0 : t.getIncome());
+            }
+            for (Map.Entry<String, CategoryModel> model : expenseModels.entrySet()) {
+                MonthlyRollup.CategoryTotals t = totals.get(model.getKey());
+                model.getValue().observe(month, t == null ? 0 : t.getExpense());
+            }
+
+            lastClosedMonth = month;
+            month = month.plusMonths(1);
+        }
+    }
+
+    /**
+     * Throw away the cached parameters (the next call fits them again)
+     * Changes to closed months do this by themselves
+     */
+    public synchronized void reset() {
+        incomeModels.clear();
+        expenseModels.clear();
+        lastClosedMonth = null;
+    }
+
+    /**
+     * FORECAST: Projected income, expenses and balance for the next N months
+     * The current month counts only what is still expected beyond what already happened
+     */
+    public synchronized List<ForecastPoint> forecast(int months) {
+        YearMonth currentMonth = YearMonth.from(LocalDate.now());
+        update(currentMonth);
+
+        MonthlyRollup rollup = financeManager.getMonthlyRollup();
+        double balance = financeManager.calculateCurrentBalance();
+        balance += Math.max(0, predictTotal(incomeModels, currentMonth) - rollup.getTotalIncome(currentMonth));
+        balance -= Math.max(0, predictTotal(expenseModels, currentMonth) - rollup.getTotalExpense(currentMonth));
+
+        List<ForecastPoint> points = new ArrayList<>();
+        for (int i = 1; i <= months; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            double income = predictTotal(incomeModels, month);
+            double expenses = predictTotal(expenseModels, month);
+            balance += income - expenses;
+            points.add(new ForecastPoint(month, income, expenses, balance));
+        }
+        return points;
+    }
+
+    /**
+     * FORECAST: Expected expense per category for one month
+     */
+    public synchronized Map<String, Double> forecastExpensesByCategory(YearMonth month) {
+        update(YearMonth.from(LocalDate.now()));
+        Map<String, Double> result = new HashMap<>();
+        for (Map.Entry<String, CategoryModel> model : expenseModels.entrySet()) {
+            result.put(model.getKey(), model.getValue().predict(month));
+        }
+        return result;
+    }
+
+    private double predictTotal(Map<String, CategoryModel> models, YearMonth month) {
+        double total = 0;
+        for (CategoryModel model : models.values()) {
+            total += model.predict(month);
+        }
+        return total;
+    }
+}
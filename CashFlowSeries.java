@@ -0,0 +1,283 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * CHART DATA: Balance over time and monthly spend per category, kept ready to draw
+ * Charts never walk the transactions - ten years of history is 3,650 numbers here.
+ *
+ * CONCEPT:
+ * - One slot per calendar day holds that day's income and expenses in cents (base
+ *   currency), so adding and taking away the same amount always cancels exactly
+ * - The running balance (prefix sum) is worked out on read, and only from the first
+ *   day that changed; a new row today recomputes one slot, not the whole history
+ * - Monthly balances are read off the daily ones at each month end
+ * - Spend per category per month is kept in a small map next to it
+ * - Totals in another currency convert each day's slot at that day's rate - one
+ *   multiply per day of history, no allocation, however many rows there are
+ *
+ * INCREMENTAL: Built once from the whole ledger (archived months included), then
+ * follows change events like the other indexes; finished series are cached until
+ * the next change, so repainting a chart costs nothing here.
+ */
+public class CashFlowSeries implements FinanceChangeListener {
+    private final FinanceManager financeManager;
+    private final String baseCurrency;
+    // income and expenses per day, incomeCents[i] belongs to epoch day firstDay + i
+    private long[] incomeCents = new long[0];
+    private long[] expenseCents = new long[0];
+    private long firstDay;
+    private int days;
+    // running balance, valid below balanceValidUpTo
+    private long[] balanceCents = new long[0];
+    private int balanceValidUpTo;
+    // category -> (year * 12 + month - 1) -> expense cents
+    private final Map<String, Map<Integer, Long>> expenseByMonth = new HashMap<>();
+
+    // finished series, dropped on every change
+    private TimeSeries dailyBalance;
+    private TimeSeries monthlyBalance;
+    private List<TimeSeries> categorySpend;
+    private int categorySpendLimit;
+
+    public CashFlowSeries(FinanceManager financeManager) {
+        this.financeManager = financeManager;
+        this.baseCurrency = financeManager.getBaseCurrency();
+        // under the ledger's lock, so no change slips in between the scan and the listener
+        synchronized (financeManager) {
+            long start = FinanceMetrics.startTimer();
+            for (Transaction transaction : financeManager.getSnapshot()) {
+                apply(transaction, 1);
+            }
+            financeManager.visitArchive(financeManager.getArchivedMonths(), transaction -> true,
+                    transaction -> apply(transaction, 1));
+            financeManager.addChangeListener(this);
+            FinanceMetrics.stopTimer("series.build", start);
+        }
+    }
+
+    // ========== SERIES ==========
+
+    /**
+     * Balance at the end of every day from the first transaction to the last
+     */
+    public synchronized TimeSeries getDailyBalance() {
+        if (dailyBalance == null) {
+            updateBalances();
+            double[] x = new double[days];
+            double[] y = new double[days];
+            for (int i = 0; i < days; i++) {
+                x[i] = firstDay + i;
+                y[i] = balanceCents[i] / 100.0;
+            }
+            dailyBalance = new TimeSeries("Balance", x, y);
+        }
+        return dailyBalance;
+    }
+
+    /**
+     * Balance at the end of every month (x = first day of the month)
+     */
+    public synchronized TimeSeries getMonthlyBalance() {
+        if (monthlyBalance == null) {
+            updateBalances();
+            List<YearMonth> months = months();
+            double[] x = new double[months.size()];
+            double[] y = new double[months.size()];
+            for (int i = 0; i < months.size(); i++) {
+                YearMonth month = months.get(i);
+                long lastDay = Math.min(month.atEndOfMonth().toEpochDay(), firstDay + days - 1);
+                x[i] = month.atDay(1).toEpochDay();
+                y[i] = balanceCents[(int) (lastDay - firstDay)] / 100.0;
+            }
+            monthlyBalance = new TimeSeries("Balance", x, y);
+        }
+        return monthlyBalance;
+    }
+
+    /**
+     * Monthly spend of the categories with the most spending overall, biggest first
+     * (one series per category, every month of the history, 0 where nothing was spent)
+     */
+    public synchronized List<TimeSeries> getMonthlyExpenseByCategory(int maxCategories) {
+        if (categorySpend == null || categorySpendLimit != maxCategories) {
+            List<Map.Entry<String, Long>> totals = new ArrayList<>();
+            for (Map.Entry<String, Map<Integer, Long>> category : expenseByMonth.entrySet()) {
+                long total = 0;
+                for (long cents : category.getValue().values()) {
+                    total += cents;
+                }
+                totals.add(new AbstractMap.SimpleEntry<>(category.getKey(), total));
+            }
+            totals.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+
+            List<YearMonth> months = months();
+            List<TimeSeries> result = new ArrayList<>();
+            for (Map.Entry<String, Long> category : totals.subList(0, Math.min(maxCategories, totals.size()))) {
+                Map<Integer, Long> spend = expenseByMonth.get(category.getKey());
+                double[] x = new double[months.size()];
+                double[] y = new double[months.size()];
+                for (int i = 0; i < months.size(); i++) {
+                    YearMonth month = months.get(i);
+                    x[i] = month.atDay(1).toEpochDay();
+                    y[i] = spend.getOrDefault(monthKey(month), 0L) / 100.0;
+                }
+                result.add(new TimeSeries(category.getKey(), x, y));
+            }
+            categorySpend = Collections.unmodifiableList(result);
+            categorySpendLimit = maxCategories;
+        }
+        return categorySpend;
+    }
+
+    // ========== TOTALS ==========
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * All income in another currency, each day converted at that day's rate
+     */
+    public synchronized double getTotalIncome(String currency) {
+        return total(incomeCents, currency);
+    }
+
+    public synchronized double getTotalExpenses(String currency) {
+        return total(expenseCents, currency);
+    }
+
+    private double total(long[] cents, String currency) {
+        ExchangeRateTable rates = financeManager.getExchangeRates();
+        double total = 0;
+        for (int i = 0; i < days; i++) {
+            if (cents[i] != 0) {
+                total += rates.convert(cents[i] / 100.0, baseCurrency, currency, firstDay + i);
+            }
+        }
+        return total;
+    }
+
+    // ========== UPDATES ==========
+
+    @Override
+    public void onChange(FinanceChangeEvent event) {
+        switch (event.getType()) {
+            case TRANSACTIONS_ADDED:
+                applyAll(event.getTransactions(), 1);
+                break;
+            case TRANSACTIONS_REMOVED:
+                applyAll(event.getTransactions(), -1);
+                break;
+            case TRANSACTIONS_UPDATED:
+                applyAll(event.getPreviousTransactions(), -1);
+                applyAll(event.getTransactions(), 1);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private synchronized void applyAll(List<Transaction> transactions, int sign) {
+        for (Transaction transaction : transactions) {
+            apply(transaction, sign);
+        }
+    }
+
+    private void apply(Transaction transaction, int sign) {
+        LocalDate date = transaction.getLocalDate();
+        long cents = sign * Math.round(transaction.getBaseAmount() * 100);
+        boolean income = transaction.getType() == TransactionType.INCOME;
+
+        int index = slotOf(date.toEpochDay());
+        if (income) {
+            incomeCents[index] += cents;
+        } else {
+            expenseCents[index] += cents;
+        }
+        balanceValidUpTo = Math.min(balanceValidUpTo, index);
+
+        if (!income) {
+            Map<Integer, Long> spend = expenseByMonth.computeIfAbsent(transaction.getCategory(), c -> new HashMap<>());
+            int month = monthKey(YearMonth.from(date));
+            long total = spend.getOrDefault(month, 0L) + cents;
+            if (total == 0) {
+                spend.remove(month);
+                if (spend.isEmpty()) {
+                    expenseByMonth.remove(transaction.getCategory());
+                }
+            } else {
+                spend.put(month, total);
+            }
+        }
+        dailyBalance = null;
+        monthlyBalance = null;
+        categorySpend = null;
+    }
+
+    /**
+     * Index of a day's slot, growing the arrays at either end if needed
+     */
+    private int slotOf(long epochDay) {
+        if (days == 0) {
+            firstDay = epochDay;
+        }
+        if (epochDay < firstDay) {
+            // an older date than any so far - rare (imports of old statements), so copy exactly
+            int shift = (int) (firstDay - epochDay);
+            incomeCents = shifted(incomeCents, shift);
+            expenseCents = shifted(expenseCents, shift);
+            balanceCents = new long[incomeCents.length];
+            balanceValidUpTo = 0;
+            firstDay = epochDay;
+            days += shift;
+        } else if (epochDay >= firstDay + days) {
+            int needed = (int) (epochDay - firstDay) + 1;
+            if (needed > incomeCents.length) {
+                // new days are mostly today - grow with room to spare
+                int capacity = Math.max(needed, incomeCents.length * 3 / 2 + 32);
+                incomeCents = Arrays.copyOf(incomeCents, capacity);
+                expenseCents = Arrays.copyOf(expenseCents, capacity);
+                balanceCents = Arrays.copyOf(balanceCents, capacity);
+            }
+            days = needed;
+        }
+        return (int) (epochDay - firstDay);
+    }
+
+    private long[] shifted(long[] slots, int shift) {
+        long[] grown = new long[days + shift];
+        System.arraycopy(slots, 0, grown, shift, days);
+        return grown;
+    }
+
+    /**
+     * Recompute the running balance from the first day that changed
+     */
+    private void updateBalances() {
+        long balance = balanceValidUpTo > 0 ? balanceCents[balanceValidUpTo - 1] : 0;
+        for (int i = balanceValidUpTo; i < days; i++) {
+            balance += incomeCents[i] - expenseCents[i];
+            balanceCents[i] = balance;
+        }
+        balanceValidUpTo = days;
+    }
+
+    private List<YearMonth> months() {
+        List<YearMonth> months = new ArrayList<>();
+        if (days == 0) {
+            return months;
+        }
+        YearMonth last = YearMonth.from(LocalDate.ofEpochDay(firstDay + days - 1));
+        for (YearMonth month = YearMonth.from(LocalDate.ofEpochDay(firstDay)); !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    private static int monthKey(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+}
@@ -1,62 +1,244 @@
 package com.laiba.BeginnerProjects.PersonalFileTracker;
 import java.io.*;
-import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 /**
  * FILE I/O CONCEPT: Saving and loading objects to/from files
- * SERIALIZATION: Converting objects to byte stream for storage
+ * STRATEGY PATTERN: The actual storage is a StorageBackend, picked with
+ *   -Dfinance.storage=file     serialized file (default)
+ *   -Dfinance.storage=journal  snapshot + append-only journal
+ *   -Dfinance.storage=jdbc     embedded SQLite/H2 database (-Dfinance.jdbc.url=...)
  */
 public class DataPersistenceService {
     //file where we'll store oour data
-    private static final String DATA_FILE = "finance_data.ser";
+    private static final String DEFAULT_DATA_FILE = "finance_data.ser";
+    private static final String DEFAULT_JDBC_URL = "jdbc:sqlite:finance_data.db";
+    // closed months are moved here (-Dfinance.archive.dir=...)
+    private static final String DEFAULT_ARCHIVE_DIR = "finance_archive";
+    // small totals file written with every save, so the header can show them before the data is loaded
+    private static final String DEFAULT_SUMMARY_FILE = "finance_data.summary";
+    static final String ACCOUNT_SUMMARY_FILE = "summary.ser";
+    private final StorageBackend backend;
+    private final String archiveDirectory;
+    private final Path summaryFile;
+    // set when stored data failed to load (see loadData)
+    private volatile boolean autoSaveEnabled = true;
+    private volatile boolean savingBlocked;
+
+    public DataPersistenceService() {
+        this(createBackend(System.getProperty("finance.storage", "file")),
+                System.getProperty("finance.archive.dir", DEFAULT_ARCHIVE_DIR),
+                Paths.get(DEFAULT_SUMMARY_FILE));
+    }
+
+    /**
+     * Use a different file, e.g. for benchmarks that must not touch real data
+     */
+    public DataPersistenceService(String dataFile) {
+        this(new SerializedFileBackend(dataFile), dataFile + ".archive", Paths.get(dataFile + ".summary"));
+    }
+
+    public DataPersistenceService(StorageBackend backend) {
+        this(backend, DEFAULT_ARCHIVE_DIR);
+    }
+
+    public DataPersistenceService(StorageBackend backend, String archiveDirectory) {
+        this(backend, archiveDirectory, null);
+    }
+
+    /**
+     * summaryFile = where the cached totals go (null = no cache)
+     */
+    public DataPersistenceService(StorageBackend backend, String archiveDirectory, Path summaryFile) {
+        this.backend = backend;
+        this.archiveDirectory = archiveDirectory;
+        this.summaryFile = summaryFile;
+    }
+
+    /**
+     * SHARDING: Storage for one account, isolated in its own folder
+     *   <root>/<accountId>/finance_data.ser (+ .journal), finance_archive/
+     * With -Dfinance.storage=jdbc, "{account}" in -Dfinance.jdbc.url is replaced by
+     * the account ID; without it each account gets its own SQLite file.
+     */
+    public static DataPersistenceService forAccount(String rootDirectory, String accountId) {
+        Path folder = accountFolder(rootDirectory, accountId);
+        folder.toFile().mkdirs();
+        String storage = System.getProperty("finance.storage", "file");
+        String jdbcUrl = System.getProperty("finance.jdbc.url");
+        jdbcUrl = jdbcUrl != null && jdbcUrl.contains("{account}")
+                ? jdbcUrl.replace("{account}", accountId)
+                : "jdbc:sqlite:" + folder.resolve("finance_data.db");
+        return new DataPersistenceService(
+                createBackend(storage, folder.resolve(DEFAULT_DATA_FILE).toString(), jdbcUrl),
+                folder.resolve(DEFAULT_ARCHIVE_DIR).toString(),
+                folder.resolve(ACCOUNT_SUMMARY_FILE));
+    }
+
+    /**
+     * Folder of one account - IDs are restricted so they can never leave the root folder
+     */
+    static Path accountFolder(String rootDirectory, String accountId) {
+        if (!isValidAccountId(accountId)) {
+            throw new IllegalArgumentException("Invalid account ID: " + accountId);
+        }
+        return Paths.get(rootDirectory, accountId);
+    }
+
+    static boolean isValidAccountId(String accountId) {
+        return accountId != null && accountId.matches("[A-Za-z0-9_-]{1,64}");
+    }
+
+    /**
+     * FACTORY METHOD: Build the backend named on the command line
+     */
+    static StorageBackend createBackend(String storage) {
+        return createBackend(storage, DEFAULT_DATA_FILE, System.getProperty("finance.jdbc.url", DEFAULT_JDBC_URL));
+    }
+
+    static StorageBackend createBackend(String storage, String dataFile, String jdbcUrl) {
+        switch (storage) {
+            case "journal":
+                return new JournalBackend(dataFile);
+            case "jdbc":
+                return new JdbcBackend(jdbcUrl);
+            case "file":
+                return new SerializedFileBackend(dataFile);
+            default:
+                throw new IllegalArgumentException("Unknown storage: " + storage);
+        }
+    }
+
+    public StorageBackend getBackend() {
+        return backend;
+    }
+
     /**
-     * SAVE DATA: Write FinanceManager object to file
-     * TRY-WITH-RESOURCES: Automatically closes resources, prevents memory leaks
+     * SAVE DATA: Write FinanceManager through the backend
+     * TRY-WITH-RESOURCES inside the backends: resources are always closed
+     * Returns false if saving failed (the error is already reported)
      */
-    public void saveData(FinanceManager financeManager){
-        // Try-with-resources: FileOutputStream and ObjectOutputStream will be automatically closed
-        try(FileOutputStream fileOut= new FileOutputStream(DATA_FILE);
-        ObjectOutputStream out = new ObjectOutputStream(fileOut)){
-            out.writeObject(financeManager);
-            System.out.println("Finanace Data saved successfully to"+ DATA_FILE);
+    public boolean saveData(FinanceManager financeManager){
+        if (savingBlocked) {
+            System.err.println("Not saving: the data in " + backend.describe()
+                    + " failed to load and could not be moved aside");
+            return false;
+        }
+        long start = FinanceMetrics.startTimer();
+        boolean saved = false;
+        try {
+            backend.save(financeManager);
+            System.out.println("Finanace Data saved successfully to"+ backend.describe());
+            FinanceMetrics.increment("persistence.saves");
+            saved = true;
+            writeCachedSummary(financeManager);
         }
         catch (IOException e){
             //exception handling: inform user about error
             System.err.println("Error saving finance data: " +
                     e.getMessage());
             e.printStackTrace();
+            FinanceMetrics.increment("persistence.saveErrors");
         }
+        FinanceMetrics.stopTimer("persistence.saveData", start);
+        return saved;
     }
-    //load data: read finance mananger object from file
+    //load data: read finance mananger object from storage
     //handle cases where no data exists
     public FinanceManager loadData(){
-        File file = new File(DATA_FILE);
-        if(!file.exists()){
+        if(!backend.exists()){
             System.out.println("No existing Dta found");
-            return new FinanceManager();
+            return prepare(new FinanceManager());
         }
-        //try-with0resourses fore input stream
-        try(FileInputStream fileIn = new FileInputStream(DATA_FILE);
-         ObjectInputStream in = new ObjectInputStream(fileIn)){
-            FinanceManager financeManager =(FinanceManager) in.readObject();
-            System.out.println("Finance dtaa loaded successfully from "+DATA_FILE);
-            return financeManager;
+        long start = FinanceMetrics.startTimer();
+        try {
+            FinanceManager financeManager = backend.load();
+            System.out.println("Finance dtaa loaded successfully from "+backend.describe());
+            FinanceMetrics.stopTimer("persistence.loadData", start);
+            return prepare(financeManager);
         }
-        catch (IOException | ClassNotFoundException e){
+        catch (IOException e){
             System.err.println("error loading finance data "+ e.getMessage());
             e.printStackTrace();
-            return new FinanceManager();
+            FinanceMetrics.increment("persistence.loadErrors");
+            protectDamagedData();
+            return prepare(new FinanceManager());
+        }
+    }
+    /**
+     * DAMAGED DATA: The session goes on with an empty ledger, which must never
+     * be saved over the file that failed to load. The backend moves it aside
+     * (finance_data.ser.corrupt) and auto-save stays off for this session -
+     * only an explicit Save writes. If nothing could be moved, no save is allowed.
+     */
+    private void protectDamagedData(){
+        autoSaveEnabled = false;
+        try {
+            String moved = backend.quarantine();
+            if (moved != null) {
+                System.err.println("Damaged data moved to " + moved + " - auto-save is off until restart");
+                return;
+            }
+        } catch (IOException e) {
+            System.err.println("Could not move damaged data aside: " + e.getMessage());
+        }
+        savingBlocked = true;
+        System.err.println("Saving is off until restart so " + backend.describe() + " is not overwritten");
+    }
+    /**
+     * False after stored data failed to load - background saves must not run
+     */
+    public boolean isAutoSaveEnabled(){
+        return autoSaveEnabled;
+    }
+    /**
+     * HELPER METHOD: Hook a loaded manager up to the backend and the archive
+     * A manager that already archived months keeps its own archive folder;
+     * a backend with its own archive store (the database) archives into that
+     */
+    private FinanceManager prepare(FinanceManager financeManager){
+        ArchiveStore ownArchive = backend.getArchiveStore();
+        if(ownArchive!=null){
+            financeManager.useArchiveStore(ownArchive);
+        } else if(backend.supportsArchive() && financeManager.getArchiveDirectory()==null){
+            financeManager.enableArchive(archiveDirectory);
+        }
+        // replaying a journal or reading a database adds rows - not something to undo
+        financeManager.clearHistory();
+        backend.attach(financeManager);
+        return financeManager;
+    }
+    /**
+     * CACHED SUMMARY: Totals as of the last save, or null if there are none yet
+     * Reads one small file - used to show the header while the data is still loading
+     */
+    public LedgerSummary readCachedSummary(){
+        return summaryFile == null ? null : LedgerSummary.read(summaryFile);
+    }
+    /**
+     * Write the cached summary now (saveData already does this after every save)
+     */
+    public void writeCachedSummary(FinanceManager financeManager){
+        if (summaryFile == null) {
+            return;
+        }
+        try {
+            LedgerSummary.of(financeManager).write(summaryFile);
+        } catch (IOException e) {
+            // only a cache - the next start just shows the header a little later
+            System.err.println("Error writing summary " + summaryFile + ": " + e.getMessage());
         }
     }
     //check if saved data exists
     public boolean dataexists(){
-        return new File(DATA_FILE).exists();
+        return backend.exists();
     }
     //delete saved data
     public boolean deleteData(){
-        File file = new File(DATA_FILE);
-        if(file.exists()){
-            return file.delete();
+        new TransactionArchive(archiveDirectory).deleteAll();
+        if (summaryFile != null) {
+            summaryFile.toFile().delete();
         }
-        return false;
+        return backend.delete();
     }
 }
@@ -0,0 +1,368 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * DUPLICATE DETECTION: Finds the rows of an imported batch that are already in the ledger
+ * Re-importing a bank statement that overlaps the last one would count the
+ * overlap twice. The same payment may also come back a day or two off (booking
+ * vs. value date) or spelled a little differently, so two rows match when they have:
+ * - the same type and amount (to the cent)
+ * - the same normalized description ("POS  Tesco-Stores 0412" -> "pos tesco stores")
+ * - dates at most windowDays apart (-Dfinance.dedup.windowDays, default 3)
+ *
+ * CONCEPT: Two-stage lookup
+ * 1. BLOOM FILTER: A bit array holding a 64-bit fingerprint of every ledger row,
+ *    archived months included (about 10 bits per row). "Not in the filter" is
+ *    certain, so most new rows are cleared without touching the ledger at all.
+ * 2. EXACT INDEX: Only the days the filter flagged are read back (active window
+ *    plus just those archived months) into a hash index, and every candidate is
+ *    compared field by field - a false positive of the filter never counts.
+ * Each ledger row can be matched once, so two identical coffees on the same day
+ * are only skipped if the ledger already has two of them.
+ *
+ * The filter is built on first use and then kept up to date from change events.
+ * Deleted rows stay in it (a Bloom filter cannot remove bits) - they only cost a
+ * little stage-2 work, and the filter is rebuilt once it is over capacity.
+ */
+public class DuplicateDetector implements FinanceChangeListener {
+    public static final int DEFAULT_WINDOW_DAYS = Integer.getInteger("finance.dedup.windowDays", 3);
+    private static final int BITS_PER_ROW = 10;
+    private static final int HASHES = 7;
+    private static final int MIN_CAPACITY = 4096;
+
+    /**
+     * One incoming row and the ledger row it duplicates
+     */
+    public static final class Match {
+        private final Transaction incoming;
+        private final Transaction existing;
+
+        Match(Transaction incoming, Transaction existing) {
+            this.incoming = incoming;
+            this.existing = existing;
+        }
+
+        public Transaction getIncoming() {
+            return incoming;
+        }
+
+        public Transaction getExisting() {
+            return existing;
+        }
+
+        /**
+         * How many days apart the two dates are (0 = same day)
+         */
+        public long getDayDifference() {
+            return Math.abs(incoming.getLocalDate().toEpochDay() - existing.getLocalDate().toEpochDay());
+        }
+    }
+
+    private final FinanceManager financeManager;
+    private final int windowDays;
+    // Bloom filter bits, and how many rows it was sized for
+    private long[] bits;
+    private long bitCount;
+    private long capacity;
+    private long inserted;
+
+    public DuplicateDetector(FinanceManager financeManager) {
+        this(financeManager, DEFAULT_WINDOW_DAYS);
+    }
+
+    public DuplicateDetector(FinanceManager financeManager, int windowDays) {
+        if (windowDays < 0) {
+            throw new IllegalArgumentException("windowDays cannot be negative");
+        }
+        this.financeManager = financeManager;
+        this.windowDays = windowDays;
+        // under the ledger's lock, so no change slips in between the build and the listener
+        synchronized (financeManager) {
+            rebuild();
+            financeManager.addChangeListener(this);
+        }
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    /**
+     * Approximate memory used by the filter
+     */
+    public synchronized long getFilterBytes() {
+        return bits.length * 8L;
+    }
+
+    // ========== CHECKING A BATCH ==========
+
+    /**
+     * Duplicates in a batch, in batch order (rows not in the result are new)
+     * Does not change the ledger - see FinanceManager.addTransactionsSkippingDuplicates
+     */
+    public List<Match> findDuplicates(Collection<Transaction> batch) {
+        long start = FinanceMetrics.startTimer();
+        synchronized (financeManager) {
+            synchronized (this) {
+                if (inserted > capacity) {
+                    rebuild();
+                }
+            }
+        }
+
+        // STAGE 1: Bloom filter - which rows might have a twin, and on which days
+        List<Transaction> candidates = new ArrayList<>();
+        List<Long> candidateKeys = new ArrayList<>();
+        Set<Long> candidateDays = new HashSet<>();
+        synchronized (this) {
+            for (Transaction transaction : batch) {
+                long key = keyHash(transaction);
+                long day = transaction.getLocalDate().toEpochDay();
+                boolean candidate = false;
+                for (long d = day - windowDays; d <= day + windowDays; d++) {
+                    if (mightContain(fingerprint(key, d))) {
+                        candidateDays.add(d);
+                        candidate = true;
+                    }
+                }
+                if (candidate) {
+                    candidates.add(transaction);
+                    candidateKeys.add(key);
+                }
+            }
+        }
+        FinanceMetrics.add("dedup.checked", batch.size());
+        FinanceMetrics.add("dedup.candidates", candidates.size());
+        if (candidates.isEmpty()) {
+            FinanceMetrics.stopTimer("dedup.findDuplicates", start);
+            return new ArrayList<>();
+        }
+
+        // STAGE 2: exact index over the ledger rows on the flagged days only
+        Map<Long, List<Transaction>> index = new HashMap<>();
+        for (Transaction existing : financeManager.getSnapshot()) {
+            indexIfOnDay(index, existing, candidateDays);
+        }
+        Set<YearMonth> months = new HashSet<>();
+        for (long day : candidateDays) {
+            months.add(YearMonth.from(LocalDate.ofEpochDay(day)));
+        }
+        List<YearMonth> archivedMonths = new ArrayList<>(financeManager.getArchivedMonths());
+        archivedMonths.retainAll(months);
+        financeManager.visitArchive(archivedMonths, existing -> true,
+                existing -> indexIfOnDay(index, existing, candidateDays));
+
+        // Nearest date first; a matched ledger row is used up
+        List<Match> duplicates = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            Transaction incoming = candidates.get(i);
+            long key = candidateKeys.get(i);
+            long day = incoming.getLocalDate().toEpochDay();
+            Transaction twin = null;
+            for (int offset = 0; offset <= windowDays && twin == null; offset++) {
+                twin = takeMatch(index, incoming, key, day - offset);
+                if (twin == null && offset > 0) {
+                    twin = takeMatch(index, incoming, key, day + offset);
+                }
+            }
+            if (twin != null) {
+                duplicates.add(new Match(incoming, twin));
+            }
+        }
+        FinanceMetrics.add("dedup.duplicates", duplicates.size());
+        FinanceMetrics.stopTimer("dedup.findDuplicates", start);
+        return duplicates;
+    }
+
+    /**
+     * Rows of a batch that are not duplicates, in batch order
+     */
+    public List<Transaction> filterNew(Collection<Transaction> batch) {
+        return withoutDuplicates(batch, findDuplicates(batch));
+    }
+
+    static List<Transaction> withoutDuplicates(Collection<Transaction> batch, List<Match> matches) {
+        Set<Transaction> duplicates = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Match match : matches) {
+            duplicates.add(match.getIncoming());
+        }
+        List<Transaction> fresh = new ArrayList<>(batch.size());
+        for (Transaction transaction : batch) {
+            if (!duplicates.contains(transaction)) {
+                fresh.add(transaction);
+            }
+        }
+        return fresh;
+    }
+
+    private static void indexIfOnDay(Map<Long, List<Transaction>> index, Transaction existing, Set<Long> days) {
+        long day = existing.getLocalDate().toEpochDay();
+        if (days.contains(day)) {
+            index.computeIfAbsent(fingerprint(keyHash(existing), day), f -> new ArrayList<>(1)).add(existing);
+        }
+    }
+
+    /**
+     * Remove and return a ledger row on this day that really matches (not just its hash)
+     */
+    private static Transaction takeMatch(Map<Long, List<Transaction>> index, Transaction incoming, long key, long day) {
+        List<Transaction> sameFingerprint = index.get(fingerprint(key, day));
+        if (sameFingerprint == null) {
+            return null;
+        }
+        for (Iterator<Transaction> it = sameFingerprint.iterator(); it.hasNext(); ) {
+            Transaction existing = it.next();
+            if (existing.getType() == incoming.getType()
+                    && cents(existing) == cents(incoming)
+                    && Objects.equals(existing.getCurrency(), incoming.getCurrency())
+                    && normalize(existing.getDescription()).equals(normalize(incoming.getDescription()))) {
+                it.remove();
+                return existing;
+            }
+        }
+        return null;
+    }
+
+    // ========== KEEPING THE FILTER UP TO DATE ==========
+
+    /**
+     * New and edited rows go into the filter; removed ones are left in (see class comment)
+     */
+    @Override
+    public void onChange(FinanceChangeEvent event) {
+        if (event.getType() == FinanceChangeEvent.Type.TRANSACTIONS_ADDED
+                || event.getType() == FinanceChangeEvent.Type.TRANSACTIONS_UPDATED) {
+            synchronized (this) {
+                for (Transaction transaction : event.getTransactions()) {
+                    put(fingerprint(keyHash(transaction), transaction.getLocalDate().toEpochDay()));
+                }
+            }
+        }
+    }
+
+    /**
+     * FULL BUILD: One pass over every row, sized with room for 50% growth
+     * The fingerprints are collected first because the archived row count is
+     * only known after reading the partitions
+     */
+    private synchronized void rebuild() {
+        long start = FinanceMetrics.startTimer();
+        long[][] collected = {new long[1024]};
+        int[] count = {0};
+        Consumer<Transaction> collect = transaction -> {
+            if (count[0] == collected[0].length) {
+                collected[0] = Arrays.copyOf(collected[0], count[0] * 2);
+            }
+            collected[0][count[0]++] = fingerprint(keyHash(transaction), transaction.getLocalDate().toEpochDay());
+        };
+        for (Transaction transaction : financeManager.getSnapshot()) {
+            collect.accept(transaction);
+        }
+        financeManager.visitArchive(financeManager.getArchivedMonths(), transaction -> true, collect);
+
+        capacity = Math.max(MIN_CAPACITY, count[0] + count[0] / 2L);
+        // a multiple of 64, and below 2^32 so fastRange can map a 32-bit hash onto it
+        bitCount = Math.min((capacity * BITS_PER_ROW + 63) & ~63L, 1L << 32);
+        bits = new long[(int) (bitCount >>> 6)];
+        inserted = 0;
+        for (int i = 0; i < count[0]; i++) {
+            put(collected[0][i]);
+        }
+        FinanceMetrics.stopTimer("dedup.rebuild", start);
+    }
+
+    // ========== BLOOM FILTER ==========
+
+    /**
+     * DOUBLE HASHING: The k bit positions are h1 + i*h2, both taken from the fingerprint
+     */
+    private void put(long fingerprint) {
+        long h2 = Long.rotateLeft(fingerprint, 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = fastRange(fingerprint + i * h2);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        inserted++;
+    }
+
+    private boolean mightContain(long fingerprint) {
+        long h2 = Long.rotateLeft(fingerprint, 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = fastRange(fingerprint + i * h2);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Map the top 32 bits of a hash onto [0, bitCount) with a multiply instead of a modulo
+     */
+    private long fastRange(long hash) {
+        return ((hash >>> 32) * bitCount) >>> 32;
+    }
+
+    // ========== FINGERPRINTS ==========
+
+    /**
+     * Hash of everything that must match exactly: type, amount in cents, currency,
+     * normalized description
+     */
+    private static long keyHash(Transaction transaction) {
+        long hash = 0xcbf29ce484222325L; // FNV-1a
+        String description = normalize(transaction.getDescription());
+        for (int i = 0; i < description.length(); i++) {
+            hash ^= description.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        long currency = transaction.getCurrency() == null ? 0 : transaction.getCurrency().hashCode();
+        return mix(hash ^ ((cents(transaction) * 31 + currency) * 31 + transaction.getType().ordinal()));
+    }
+
+    private static long fingerprint(long keyHash, long epochDay) {
+        return mix(keyHash + epochDay * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * SplitMix64 finalizer - spreads every input bit over the whole result
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long cents(Transaction transaction) {
+        return Math.round(transaction.getAmount() * 100);
+    }
+
+    /**
+     * Lower case letters only, one space between words
+     * Reference numbers and punctuation differ between exports of the same payment
+     */
+    static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(description.length());
+        boolean space = false;
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (Character.isLetter(c)) {
+                if (space && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return sb.toString();
+    }
+}
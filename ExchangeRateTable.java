@@ -0,0 +1,250 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * EXCHANGE RATES: Date-effective conversion rates, loaded from a local file
+ * (-Dfinance.rates.file=exchange_rates.csv, no network access)
+ *
+ * FILE FORMAT: One rate per line, valid from its date until the next line for
+ * the same currency. Every rate is against one pivot currency (default USD):
+ *   base,USD
+ *   2024-01-01,EUR,1.09      (1 EUR = 1.09 USD from 1 Jan 2024)
+ *   2024-02-01,EUR,1.08
+ * Any two currencies convert through the pivot (EUR -> GBP = EUR -> USD -> GBP).
+ *
+ * DENSE CACHE CONCEPT: Looking a date up in a sorted map per conversion is a tree
+ * walk; converting millions of rows that way adds up. On first use the table is
+ * expanded into one array per currency with a slot for every day in the table's
+ * range, so a conversion is two array reads and a multiply - no allocation, no
+ * search. Days before the first rate use the first rate, days after the last use
+ * the last one. Ten years of 30 currencies is about 900 KB.
+ */
+public class ExchangeRateTable {
+    private static final String DEFAULT_FILE = "exchange_rates.csv";
+    private static volatile ExchangeRateTable defaultTable;
+
+    private final String pivot;
+    // currency -> first day the rate applies -> rate in pivot units
+    private final Map<String, TreeMap<Long, Double>> rates = new HashMap<>();
+    // built on first lookup, dropped when a rate is added
+    private volatile Dense dense;
+
+    /**
+     * The expanded table: rateByDay[currency][day - firstDay]
+     */
+    private static final class Dense {
+        final Map<String, Integer> index = new HashMap<>();
+        final double[][] rateByDay;
+        final long firstDay;
+        final int days;
+
+        Dense(Map<String, TreeMap<Long, Double>> rates) {
+            long first = Long.MAX_VALUE;
+            long last = Long.MIN_VALUE;
+            for (TreeMap<Long, Double> history : rates.values()) {
+                first = Math.min(first, history.firstKey());
+                last = Math.max(last, history.lastKey());
+            }
+            firstDay = rates.isEmpty() ? 0 : first;
+            days = rates.isEmpty() ? 0 : (int) (last - first) + 1;
+            rateByDay = new double[rates.size()][];
+            for (Map.Entry<String, TreeMap<Long, Double>> currency : rates.entrySet()) {
+                double[] byDay = new double[days];
+                TreeMap<Long, Double> history = currency.getValue();
+                // walk the changes once, filling the days in between
+                double rate = history.firstEntry().getValue();
+                for (int day = 0; day < days; day++) {
+                    Double change = history.get(firstDay + day);
+                    if (change != null) {
+                        rate = change;
+                    }
+                    byDay[day] = rate;
+                }
+                index.put(currency.getKey(), index.size());
+                rateByDay[index.get(currency.getKey())] = byDay;
+            }
+        }
+    }
+
+    public ExchangeRateTable(String pivot) {
+        this.pivot = normalize(pivot);
+    }
+
+    /**
+     * The table from -Dfinance.rates.file (loaded once; empty if the file does not exist)
+     */
+    public static ExchangeRateTable getDefault() {
+        ExchangeRateTable table = defaultTable;
+        if (table == null) {
+            synchronized (ExchangeRateTable.class) {
+                table = defaultTable;
+                if (table == null) {
+                    Path file = Paths.get(System.getProperty("finance.rates.file", DEFAULT_FILE));
+                    table = new ExchangeRateTable(System.getProperty("finance.currency", "USD"));
+                    if (Files.exists(file)) {
+                        try {
+                            table = load(file);
+                            System.out.println("Exchange rates loaded from " + file);
+                        } catch (IOException e) {
+                            System.err.println("Error loading exchange rates " + file + ": " + e.getMessage());
+                        }
+                    }
+                    defaultTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    public static ExchangeRateTable load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Read the file format above (# starts a comment)
+     */
+    public static ExchangeRateTable parse(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        ExchangeRateTable table = null;
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            try {
+                if (fields.length == 2 && fields[0].trim().equalsIgnoreCase("base")) {
+                    if (table != null) {
+                        throw new IllegalArgumentException("base must come before the rates");
+                    }
+                    table = new ExchangeRateTable(fields[1]);
+                } else if (fields.length == 3) {
+                    if (table == null) {
+                        table = new ExchangeRateTable("USD");
+                    }
+                    table.addRate(fields[1], LocalDate.parse(fields[0].trim()), Double.parseDouble(fields[2].trim()));
+                } else {
+                    throw new IllegalArgumentException("expected date,currency,rate");
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Line " + number + ": " + e.getMessage(), e);
+            }
+        }
+        return table != null ? table : new ExchangeRateTable("USD");
+    }
+
+    /**
+     * 1 unit of currency = rate units of the pivot currency, from this date on
+     */
+    public synchronized void addRate(String currency, LocalDate from, double rate) {
+        String code = normalize(currency);
+        if (!(rate > 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Rate must be positive: " + rate);
+        }
+        if (code.equals(pivot)) {
+            throw new IllegalArgumentException(pivot + " is the base of the table (always 1)");
+        }
+        rates.computeIfAbsent(code, c -> new TreeMap<>()).put(from.toEpochDay(), rate);
+        dense = null;
+    }
+
+    // ========== LOOKUPS ==========
+
+    public String getPivot() {
+        return pivot;
+    }
+
+    /**
+     * Every currency the table can convert, pivot first
+     */
+    public synchronized List<String> getCurrencies() {
+        List<String> currencies = new ArrayList<>();
+        currencies.add(pivot);
+        currencies.addAll(new TreeSet<>(rates.keySet()));
+        return currencies;
+    }
+
+    public boolean supports(String currency) {
+        return currency != null && (currency.equals(pivot) || getDense().index.containsKey(currency));
+    }
+
+    /**
+     * Value of 1 unit of currency in pivot units on that day
+     */
+    public double rate(String currency, long epochDay) {
+        if (currency.equals(pivot)) {
+            return 1.0;
+        }
+        Dense table = getDense();
+        Integer index = table.index.get(currency);
+        if (index == null) {
+            throw new IllegalArgumentException("No exchange rate for " + currency);
+        }
+        long day = Math.min(Math.max(epochDay, table.firstDay), table.firstDay + table.days - 1);
+        return table.rateByDay[index][(int) (day - table.firstDay)];
+    }
+
+    /**
+     * CONVERT: amount in one currency -> the other, at that day's rates
+     */
+    public double convert(double amount, String from, String to, long epochDay) {
+        if (from.equals(to)) {
+            return amount;
+        }
+        return amount * rate(from, epochDay) / rate(to, epochDay);
+    }
+
+    /**
+     * Convert every point of a series at the rate of its own day (x = epoch day)
+     */
+    public TimeSeries convert(TimeSeries series, String from, String to) {
+        if (from.equals(to)) {
+            return series;
+        }
+        double[] x = new double[series.size()];
+        double[] y = new double[series.size()];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = series.getX(i);
+            y[i] = convert(series.getY(i), from, to, (long) x[i]);
+        }
+        return new TimeSeries(series.getName(), x, y);
+    }
+
+    private Dense getDense() {
+        Dense table = dense;
+        if (table == null) {
+            synchronized (this) {
+                table = dense;
+                if (table == null) {
+                    table = new Dense(rates);
+                    dense = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Currency codes are stored upper case ("eur" -> "EUR")
+     */
+    public static String normalize(String currency) {
+        if (currency == null || !currency.trim().matches("[A-Za-z]{3}")) {
+            throw new IllegalArgumentException("Currency must be a 3-letter code: " + currency);
+        }
+        return currency.trim().toUpperCase(Locale.ROOT);
+    }
+}
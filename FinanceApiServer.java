@@ -0,0 +1,608 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SERVER MODE: Local HTTP/JSON API without the Swing window
+ * Built on the JDK's own HttpServer, one ledger per account (LedgerRegistry).
+ * Each request runs on a virtual thread when the JDK has them (21+), otherwise
+ * on a fixed thread pool.
+ *
+ * Start:  java FinanceTrackerApp --server     (-Dfinance.server.port=8080)
+ * Listens on 127.0.0.1 only - it has no authentication.
+ * Transactions take an optional "currency" (ISO code, default: the ledger's base
+ * currency); amounts in summaries are in the base currency.
+ *
+ * ENDPOINTS (all JSON):
+ *   GET    /api/health
+ *   GET    /api/accounts                              account IDs
+ *   GET    /api/summary                               totals of all accounts together
+ *   GET    /api/accounts/{id}/summary                 totals and monthly totals
+ *   GET    /api/accounts/{id}/transactions            ?from=&to=&category=&type=&offset=&limit=
+ *   POST   /api/accounts/{id}/transactions            one transaction or an array (all or nothing),
+ *                                                     rows without a category are auto-categorized
+ *                                                     ?duplicates=skip leaves out rows already in the ledger
+ *   PATCH  /api/accounts/{id}/transactions/{txId}     only the fields to change
+ *   DELETE /api/accounts/{id}/transactions/{txId}
+ *   POST   /api/accounts/{id}/recategorize            {"from":"Misc","to":"Shopping"}
+ *   GET    /api/accounts/{id}/rules                   categorization rules, keyword -> category
+ *   PUT    /api/accounts/{id}/rules                   {"keyword":"uber eats","category":"Food"}
+ *   GET    /api/accounts/{id}/budgets
+ *   PUT    /api/accounts/{id}/budgets                 {"category","amount","month":"2024-05"[,"currency":"EUR"]}
+ *   GET    /api/accounts/{id}/monthly?month=2024-05   expenses by category
+ *   GET    /api/accounts/{id}/forecast?months=6
+ */
+public class FinanceApiServer {
+    // refuse request bodies above this size (a batch of ~100k transactions)
+    private static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * Writes the JSON body of a response
+     */
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(Json.JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Turns into an error response with the given HTTP status
+     */
+    private static class ApiException extends Exception {
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private final LedgerRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public FinanceApiServer(LedgerRegistry registry, int port) throws IOException {
+        this.registry = registry;
+        // TCP_NODELAY: the JDK server writes headers and body separately; without this
+        // every small response waits ~40ms for a delayed ACK (must be set before create)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        this.executor = createExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api", this::handle);
+    }
+
+    /**
+     * VIRTUAL THREADS where available - looked up by reflection so the code
+     * still compiles and runs on Java 8
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors() * 4));
+        }
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Finance API listening on http://127.0.0.1:" + getPort() + "/api");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stop accepting requests, finish running ones, save every ledger
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        registry.shutdown();
+    }
+
+    public static void main(String[] args) throws IOException {
+        FinanceApiServer apiServer = new FinanceApiServer(new LedgerRegistry(),
+                Integer.getInteger("finance.server.port", 8080));
+        Runtime.getRuntime().addShutdownHook(new Thread(apiServer::stop, "finance-api-shutdown"));
+        apiServer.start();
+    }
+
+    // ========== ROUTING ==========
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = FinanceMetrics.startTimer();
+        try {
+            route(exchange);
+        } catch (ApiException e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (InvalidTrasactionException | IllegalArgumentException | DateTimeParseException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (Exception e) {
+            System.err.println("API error on " + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+            FinanceMetrics.increment("api.requests");
+            FinanceMetrics.stopTimer("api.request", start);
+        }
+    }
+
+    private void route(HttpExchange exchange) throws Exception {
+        String method = exchange.getRequestMethod();
+        // "/api/accounts/a1/transactions" -> [accounts, a1, transactions]
+        List<String> path = new ArrayList<>();
+        for (String part : exchange.getRequestURI().getPath().substring("/api".length()).split("/")) {
+            if (!part.isEmpty()) {
+                path.add(URLDecoder.decode(part, "UTF-8"));
+            }
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        if (path.size() == 1 && path.get(0).equals("health")) {
+            requireMethod(method, "GET");
+            sendJson(exchange, 200, json -> json.beginObject().field("status", "ok").endObject());
+        } else if (path.size() == 1 && path.get(0).equals("accounts")) {
+            requireMethod(method, "GET");
+            List<String> accounts = registry.listAccounts();
+            sendJson(exchange, 200, json -> {
+                json.beginArray();
+                for (String account : accounts) {
+                    json.value(account);
+                }
+                json.endArray();
+            });
+        } else if (path.size() == 1 && path.get(0).equals("summary")) {
+            requireMethod(method, "GET");
+            LedgerSummary summary = registry.getCombinedSummary();
+            sendJson(exchange, 200, json -> writeSummary(json, summary));
+        } else if (path.size() >= 3 && path.get(0).equals("accounts")) {
+            routeAccount(exchange, method, path.get(1), path.subList(2, path.size()), query);
+        } else {
+            throw new ApiException(404, "Not found");
+        }
+    }
+
+    private void routeAccount(HttpExchange exchange, String method, String account,
+                              List<String> path, Map<String, String> query) throws Exception {
+        String resource = path.get(0);
+        if (path.size() == 2 && resource.equals("transactions")) {
+            String transactionId = path.get(1);
+            if (method.equals("PATCH")) {
+                TransactionPatch patch = parsePatch(readBody(exchange));
+                boolean updated = registry.withLedger(account, ledger -> ledger.updateTransaction(transactionId, patch));
+                if (!updated) {
+                    throw new ApiException(404, "No transaction " + transactionId);
+                }
+                sendJson(exchange, 200, json -> json.beginObject().name("updated").value(true).endObject());
+                return;
+            }
+            requireMethod(method, "DELETE");
+            boolean deleted = registry.withLedger(account, ledger -> ledger.deleteTransaction(transactionId));
+            if (!deleted) {
+                throw new ApiException(404, "No transaction " + transactionId);
+            }
+            sendJson(exchange, 200, json -> json.beginObject().name("deleted").value(true).endObject());
+            return;
+        }
+        if (path.size() != 1) {
+            throw new ApiException(404, "Not found");
+        }
+        switch (resource) {
+            case "summary": {
+                requireMethod(method, "GET");
+                LedgerSummary summary = registry.getSummary(account);
+                sendJson(exchange, 200, json -> writeSummary(json, summary));
+                break;
+            }
+            case "transactions":
+                if (method.equals("POST") && "skip".equals(query.get("duplicates"))) {
+                    // statement import: rows already in the ledger are left out
+                    List<Transaction> transactions = parseTransactions(readBody(exchange));
+                    fillMissingCategories(account, transactions);
+                    int skipped = registry.withLedger(account,
+                            ledger -> ledger.addTransactionsSkippingDuplicates(transactions).size());
+                    sendJson(exchange, 201, json -> json.beginObject()
+                            .field("added", transactions.size() - skipped)
+                            .field("duplicates", skipped)
+                            .endObject());
+                } else if (method.equals("POST")) {
+                    List<Transaction> transactions = parseTransactions(readBody(exchange));
+                    fillMissingCategories(account, transactions);
+                    registry.withLedger(account, ledger -> {
+                        ledger.addTransactions(transactions);
+                        return null;
+                    });
+                    sendJson(exchange, 201, json -> json.beginObject().field("added", transactions.size()).endObject());
+                } else {
+                    requireMethod(method, "GET");
+                    listTransactions(exchange, account, query);
+                }
+                break;
+            case "budgets":
+                if (method.equals("PUT")) {
+                    Map<String, Object> body = asObject(Json.parse(readBody(exchange)));
+                    String category = requireString(body, "category");
+                    double amount = requireNumber(body, "amount");
+                    LocalDate month = YearMonth.parse(requireString(body, "month")).atDay(1);
+                    String currency = body.containsKey("currency") ? requireString(body, "currency") : null;
+                    registry.withLedger(account, ledger -> {
+                        ledger.setBudget(category, amount, month, currency);
+                        return null;
+                    });
+                    sendJson(exchange, 200, json -> json.beginObject().field("category", category).endObject());
+                } else {
+                    requireMethod(method, "GET");
+                    // spending changes with every expense - copy the figures under the ledger's lock
+                    List<Budget> budgets = new ArrayList<>();
+                    String baseCurrency = registry.withLedger(account, ledger -> {
+                        synchronized (ledger) {
+                            for (Budget budget : ledger.getAllBudgets()) {
+                                budgets.add(budget.copy());
+                            }
+                            return ledger.getBaseCurrency();
+                        }
+                    });
+                    sendJson(exchange, 200, json -> {
+                        json.beginArray();
+                        for (Budget budget : budgets) {
+                            json.beginObject()
+                                    .field("category", budget.getCategory())
+                                    .field("month", YearMonth.from(budget.getMonth()).toString())
+                                    .field("currency", budget.getCurrency() != null ? budget.getCurrency() : baseCurrency)
+                                    .field("allocated", budget.getAllocatedAmount())
+                                    .field("spent", budget.getSpentAmount())
+                                    .field("remaining", budget.getRemainingAmount())
+                                    .endObject();
+                        }
+                        json.endArray();
+                    });
+                }
+                break;
+            case "rules":
+                if (method.equals("PUT")) {
+                    Map<String, Object> body = asObject(Json.parse(readBody(exchange)));
+                    String keyword = requireString(body, "keyword");
+                    String category = requireString(body, "category");
+                    registry.withLedger(account, ledger -> {
+                        ledger.setCategoryRule(keyword, category);
+                        return null;
+                    });
+                    sendJson(exchange, 200, json -> json.beginObject().field("keyword", keyword).endObject());
+                } else {
+                    requireMethod(method, "GET");
+                    Map<String, String> rules = registry.withLedger(account, FinanceManager::getCategoryRules);
+                    sendJson(exchange, 200, json -> {
+                        json.beginObject();
+                        for (Map.Entry<String, String> rule : rules.entrySet()) {
+                            json.field(rule.getKey(), rule.getValue());
+                        }
+                        json.endObject();
+                    });
+                }
+                break;
+            case "recategorize": {
+                requireMethod(method, "POST");
+                Map<String, Object> body = asObject(Json.parse(readBody(exchange)));
+                String from = requireString(body, "from");
+                String to = requireString(body, "to");
+                int changed = registry.withLedger(account, ledger -> ledger.recategorize(from, to));
+                sendJson(exchange, 200, json -> json.beginObject().field("updated", changed).endObject());
+                break;
+            }
+            case "monthly": {
+                requireMethod(method, "GET");
+                LocalDate month = query.containsKey("month")
+                        ? YearMonth.parse(query.get("month")).atDay(1) : LocalDate.now();
+                // the rollup is not thread safe - read it under the ledger's lock
+                Map<String, Double> expenses = registry.withLedger(account, ledger -> {
+                    synchronized (ledger) {
+                        return ledger.getMonthlyExpenseByCategory(month);
+                    }
+                });
+                sendJson(exchange, 200, json -> {
+                    json.beginObject();
+                    for (Map.Entry<String, Double> entry : new TreeMap<>(expenses).entrySet()) {
+                        json.field(entry.getKey(), entry.getValue());
+                    }
+                    json.endObject();
+                });
+                break;
+            }
+            case "forecast": {
+                requireMethod(method, "GET");
+                int months = query.containsKey("months") ? Integer.parseInt(query.get("months")) : 6;
+                if (months < 1 || months > 60) {
+                    throw new ApiException(400, "months must be between 1 and 60");
+                }
+                // one forecaster per ledger - it folds in only the months closed since the last request
+                List<CashFlowForecaster.ForecastPoint> points = registry.withLedger(account,
+                        ledger -> ledger.getCashFlowForecaster().forecast(months));
+                sendJson(exchange, 200, json -> {
+                    json.beginArray();
+                    for (CashFlowForecaster.ForecastPoint point : points) {
+                        json.beginObject()
+                                .field("month", point.getMonth().toString())
+                                .field("income", point.getIncome())
+                                .field("expenses", point.getExpenses())
+                                .field("balance", point.getBalance())
+                                .endObject();
+                    }
+                    json.endArray();
+                });
+                break;
+            }
+            default:
+                throw new ApiException(404, "Not found");
+        }
+    }
+
+    // ========== TRANSACTIONS ==========
+
+    /**
+     * STREAMING: Rows go straight from the ledger to the client with chunked
+     * encoding - no result list is built, and the ledger's lock is not held while
+     * archived months are read or the client is slow to receive (visitTransactions)
+     * Reading stops as soon as the limit is reached
+     */
+    private void listTransactions(HttpExchange exchange, String account, Map<String, String> query) throws Exception {
+        String category = query.get("category");
+        TransactionType type = query.containsKey("type")
+                ? TransactionType.valueOf(query.get("type").toUpperCase()) : null;
+        boolean hasRange = query.containsKey("from") || query.containsKey("to");
+        LocalDate from = query.containsKey("from") ? LocalDate.parse(query.get("from")) : LocalDate.of(1, 1, 1);
+        LocalDate to = query.containsKey("to") ? LocalDate.parse(query.get("to")) : LocalDate.of(9999, 12, 31);
+        int offset = query.containsKey("offset") ? Integer.parseInt(query.get("offset")) : 0;
+        int limit = query.containsKey("limit") ? Integer.parseInt(query.get("limit")) : Integer.MAX_VALUE;
+
+        String baseCurrency = registry.withLedger(account, FinanceManager::getBaseCurrency);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0); // 0 = chunked
+        Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 64 * 1024);
+        Json.JsonWriter json = new Json.JsonWriter(out);
+        json.beginArray();
+        int[] skipped = {0};
+        int[] written = {0};
+        if (limit > 0) {
+            registry.withLedger(account, ledger -> {
+                try {
+                    ledger.visitTransactions(hasRange ? from : null, hasRange ? to : null, category, type, transaction -> {
+                        if (skipped[0] < offset) {
+                            skipped[0]++;
+                            return true;
+                        }
+                        try {
+                            writeTransaction(json, transaction, baseCurrency);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e); // client went away - stop reading
+                        }
+                        return ++written[0] < limit;
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                return null;
+            });
+        }
+        json.endArray();
+        out.flush();
+        FinanceMetrics.add("api.rowsStreamed", written[0]);
+    }
+
+    private static void writeTransaction(Json.JsonWriter json, Transaction transaction, String baseCurrency)
+            throws IOException {
+        json.beginObject()
+                .field("id", transaction.getId())
+                .field("amount", transaction.getAmount())
+                .field("currency", transaction.getCurrency() != null ? transaction.getCurrency() : baseCurrency)
+                .field("baseAmount", transaction.getBaseAmount())
+                .field("category", transaction.getCategory())
+                .field("date", transaction.getLocalDate().toString())
+                .field("description", transaction.getDescription())
+                .field("type", transaction.getType().name())
+                .endObject();
+    }
+
+    /**
+     * BATCH INGESTION: A single object or an array of them
+     */
+    private static List<Transaction> parseTransactions(String body) throws ApiException {
+        Object parsed = Json.parse(body);
+        List<Object> items = parsed instanceof List ? asList(parsed) : Collections.singletonList(parsed);
+        List<Transaction> transactions = new ArrayList<>(items.size());
+        for (Object item : items) {
+            Map<String, Object> object = asObject(item);
+            String id = object.get("id") instanceof String
+                    ? (String) object.get("id") : "API_" + UUID.randomUUID();
+            LocalDate date = object.get("date") instanceof String
+                    ? LocalDate.parse((String) object.get("date")) : LocalDate.now();
+            String description = object.get("description") instanceof String ? (String) object.get("description") : "";
+            // no category: filled in by the ledger's categorizer
+            String category = object.containsKey("category") ? requireString(object, "category") : null;
+            // no currency: the ledger's base currency
+            String currency = object.containsKey("currency") ? requireString(object, "currency") : null;
+            transactions.add(new Transaction(
+                    id,
+                    requireNumber(object, "amount"),
+                    currency,
+                    category,
+                    java.sql.Date.valueOf(date),
+                    description,
+                    TransactionType.valueOf(requireString(object, "type").toUpperCase())
+            ));
+        }
+        return transactions;
+    }
+
+    /**
+     * AUTO-CATEGORIZE: Rows sent without a category get the suggested one ("Other" if there is none)
+     */
+    private void fillMissingCategories(String account, List<Transaction> transactions)
+            throws InvalidTrasactionException, IOException {
+        for (Transaction transaction : transactions) {
+            if (transaction.getCategory() == null) {
+                registry.withLedger(account, ledger -> ledger.getCategorizer().categorize(transactions, "Other"));
+                return;
+            }
+        }
+    }
+
+    /**
+     * PARTIAL UPDATE: Only the fields present in the body are changed
+     */
+    private static TransactionPatch parsePatch(String body) throws ApiException {
+        Map<String, Object> object = asObject(Json.parse(body));
+        TransactionPatch patch = new TransactionPatch();
+        if (object.containsKey("amount")) {
+            patch.amount(requireNumber(object, "amount"));
+        }
+        if (object.containsKey("category")) {
+            patch.category(requireString(object, "category"));
+        }
+        if (object.containsKey("date")) {
+            patch.date(LocalDate.parse(requireString(object, "date")));
+        }
+        if (object.containsKey("description")) {
+            patch.description(requireString(object, "description"));
+        }
+        if (object.containsKey("type")) {
+            patch.type(TransactionType.valueOf(requireString(object, "type").toUpperCase()));
+        }
+        if (object.containsKey("currency")) {
+            patch.currency(requireString(object, "currency"));
+        }
+        if (patch.isEmpty()) {
+            throw new ApiException(400, "Nothing to update");
+        }
+        return patch;
+    }
+
+    private static void writeSummary(Json.JsonWriter json, LedgerSummary summary) throws IOException {
+        json.beginObject()
+                .field("currency", summary.getCurrency())
+                .field("transactions", summary.getTransactionCount())
+                .field("income", summary.getTotalIncome())
+                .field("expenses", summary.getTotalExpenses())
+                .field("balance", summary.getBalance());
+        json.name("months").beginArray();
+        for (YearMonth month : summary.getMonths()) {
+            json.beginObject()
+                    .field("month", month.toString())
+                    .field("income", summary.getMonthlyIncome(month))
+                    .field("expenses", summary.getMonthlyExpenses(month))
+                    .endObject();
+        }
+        json.endArray();
+        json.name("expensesByCategory").beginObject();
+        for (Map.Entry<String, Double> entry : new TreeMap<>(summary.getExpensesByCategory()).entrySet()) {
+            json.field(entry.getKey(), entry.getValue());
+        }
+        json.endObject();
+        json.endObject();
+    }
+
+    // ========== HTTP HELPERS ==========
+
+    private static void sendJson(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        StringWriter buffer = new StringWriter();
+        body.write(new Json.JsonWriter(buffer));
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            sendJson(exchange, status, json -> json.beginObject().field("error", message).endObject());
+        } catch (IOException e) {
+            // client went away or headers were already sent - nothing more to do
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException, ApiException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[16 * 1024];
+        InputStream in = exchange.getRequestBody();
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            body.write(buffer, 0, read);
+            if (body.size() > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body too large");
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, equals), "UTF-8"),
+                        URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+            }
+        }
+        return query;
+    }
+
+    private static void requireMethod(String method, String expected) throws ApiException {
+        if (!method.equals(expected)) {
+            throw new ApiException(405, "Method " + method + " not allowed");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asObject(Object value) throws ApiException {
+        if (!(value instanceof Map)) {
+            throw new ApiException(400, "Expected a JSON object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> asList(Object value) {
+        return (List<Object>) value;
+    }
+
+    private static String requireString(Map<String, Object> object, String name) throws ApiException {
+        Object value = object.get(name);
+        if (!(value instanceof String)) {
+            throw new ApiException(400, "Missing text field '" + name + "'");
+        }
+        return (String) value;
+    }
+
+    private static double requireNumber(Map<String, Object> object, String name) throws ApiException {
+        Object value = object.get(name);
+        if (!(value instanceof Double)) {
+            throw new ApiException(400, "Missing number field '" + name + "'");
+        }
+        return (Double) value;
+    }
+}
@@ -0,0 +1,125 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * EVENT: Describes one change to FinanceManager's data (a "delta")
+ * Listeners such as UI panels apply just this change instead of reloading everything
+ */
+public class FinanceChangeEvent {
+
+    public enum Type {
+        TRANSACTIONS_ADDED,
+        TRANSACTIONS_REMOVED,
+        TRANSACTIONS_UPDATED,
+        BUDGET_CHANGED,
+        GOAL_CHANGED,
+        RECURRING_CHANGED,
+        PARTITIONS_ARCHIVED,
+        CATEGORY_RULES_CHANGED
+    }
+
+    private final Type type;
+    private final List<Transaction> transactions;
+    // for updates: the versions before the change, same order as transactions
+    private final List<Transaction> previousTransactions;
+    private final Budget budget;
+
+    private FinanceChangeEvent(Type type, List<Transaction> transactions, Budget budget) {
+        this(type, transactions, Collections.emptyList(), budget);
+    }
+
+    private FinanceChangeEvent(Type type, List<Transaction> transactions, List<Transaction> previousTransactions,
+                               Budget budget) {
+        this.type = type;
+        this.transactions = transactions;
+        this.previousTransactions = previousTransactions;
+        this.budget = budget;
+    }
+
+    // ========== FACTORY METHODS ==========
+
+    public static FinanceChangeEvent transactionsAdded(List<Transaction> transactions) {
+        return new FinanceChangeEvent(Type.TRANSACTIONS_ADDED, Collections.unmodifiableList(transactions), null);
+    }
+
+    public static FinanceChangeEvent transactionsRemoved(List<Transaction> transactions) {
+        return new FinanceChangeEvent(Type.TRANSACTIONS_REMOVED, Collections.unmodifiableList(transactions), null);
+    }
+
+    /**
+     * Transactions replaced by new versions (same IDs) - before.get(i) became after.get(i)
+     */
+    public static FinanceChangeEvent transactionsUpdated(List<Transaction> before, List<Transaction> after) {
+        return new FinanceChangeEvent(Type.TRANSACTIONS_UPDATED, Collections.unmodifiableList(after),
+                Collections.unmodifiableList(before), null);
+    }
+
+    public static FinanceChangeEvent budgetChanged(Budget budget) {
+        return new FinanceChangeEvent(Type.BUDGET_CHANGED, Collections.emptyList(), budget);
+    }
+
+    public static FinanceChangeEvent goalChanged() {
+        return new FinanceChangeEvent(Type.GOAL_CHANGED, Collections.emptyList(), null);
+    }
+
+    public static FinanceChangeEvent recurringChanged() {
+        return new FinanceChangeEvent(Type.RECURRING_CHANGED, Collections.emptyList(), null);
+    }
+
+    public static FinanceChangeEvent categoryRulesChanged() {
+        return new FinanceChangeEvent(Type.CATEGORY_RULES_CHANGED, Collections.emptyList(), null);
+    }
+
+    /**
+     * Transactions moved out of memory into the archive - still part of the
+     * ledger and its totals, just no longer in getAllTransactions()
+     */
+    public static FinanceChangeEvent partitionsArchived(List<Transaction> transactions) {
+        return new FinanceChangeEvent(Type.PARTITIONS_ARCHIVED, Collections.unmodifiableList(transactions), null);
+    }
+
+    //getters
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Versions before an update (empty for other events)
+     */
+    public List<Transaction> getPreviousTransactions() {
+        return previousTransactions;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Did this change touch any expense (and therefore possibly a budget)?
+     */
+    public boolean affectsExpenses() {
+        for (Transaction transaction : transactions) {
+            if (transaction.getType() == TransactionType.EXPENSE) {
+                return true;
+            }
+        }
+        for (Transaction transaction : previousTransactions) {
+            if (transaction.getType() == TransactionType.EXPENSE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "FinanceChangeEvent{" + type + ", transactions=" + transactions.size() + "}";
+    }
+}
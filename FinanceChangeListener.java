@@ -0,0 +1,10 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+/**
+ * OBSERVER PATTERN: Gets told about every change FinanceManager makes
+ * Called on the thread that made the change - Swing listeners must hop to the EDT themselves
+ */
+@FunctionalInterface
+public interface FinanceChangeListener {
+    void onChange(FinanceChangeEvent event);
+}
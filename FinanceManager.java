@@ -1,36 +1,128 @@
 package com.laiba.BeginnerProjects.PersonalFileTracker;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.*;
 
 /**
  * CORE BUSINESS LOGIC: Manages all financial data and operations
  * COLLECTIONS CONCEPT: Using different collection types for different needs
+ * THREAD SAFETY: Every change is synchronized, so a background saver can take a
+ * consistent copy (copyForSave) while the UI keeps working
+ * SNAPSHOT ISOLATION: Transactions live in an immutable LedgerSnapshot. A change
+ * builds a new snapshot (sharing almost everything with the old one) and then
+ * swaps it in, so readers never lock and never see a half-done change.
+ * UNDO/REDO: Each change records only the rows it touched (see undo/redo)
  */
-public class FinanceManager  {
+public class FinanceManager implements Serializable {
     private static final long serialVersionUID = 1L;
+    private static final int UNDO_LIMIT = Integer.getInteger("finance.undo.limit", 100);
     /**
      * COLLECTIONS FRAMEWORK:
-     * ArrayList: For transactions - maintains order, allows duplicates
+     * LedgerSnapshot: For transactions - keeps the added order, allows duplicates,
+     *   finds a transaction by ID in O(log n)
      * HashMap: For budgets - fast lookup by category+month key
      * ArrayList: For goals - maintains order
+     * ArrayList: For recurring templates - only the templates, never every future row
+     * MonthlyRollup: Running month/category totals, kept in step with transactions
+     * TreeSet: For archived months - sorted, so a date range maps to a sub-set
+     * LinkedHashMap: For category rules - lookup by keyword, keeps the order they were set
+     *
+     * ACTIVE WINDOW: Only recent transactions live in the list. Closed months can
+     * be moved to an ArchiveStore (archiveMonthsBefore) - compressed files, or the
+     * database table with JdbcBackend; their totals stay in the rollup, and their
+     * rows are read back only when a query needs them.
      */
+     // serialized form of the snapshot only - filled while writing, emptied after
      private List<Transaction> transactions;
+     private transient volatile LedgerSnapshot snapshot;
      private Map<String, Budget> budgets;
      private List<FinancialGoal> financialGoals;
+     private List<RecurringTransaction> recurringTransactions;
+     private MonthlyRollup monthlyRollup;
+     // running totals so the header never rescans the history
+     private double totalIncome;
+     private double totalExpenses;
+     // archive folder (null = everything stays in memory, unless the storage backend
+     // brings its own archive store) and the months frozen there
+     private String archiveDirectory;
+     private TreeSet<YearMonth> archivedMonths;
+     // categorization rules, keyword -> category, in the order they were set
+     private Map<String, String> categoryRules;
+     // archived rows deleted later on - partitions are never rewritten for a delete
+     private Set<String> deletedArchivedIds;
+     // BLOOM FILTER of the IDs in each archived month, so a lookup by ID skips the
+     // months that cannot hold it (months archived before the filters get one when first read)
+     private Map<YearMonth, IdBloomFilter> archivedIdFilters;
+     // CURRENCY: every total, budget default and report is in this currency;
+     // rows in other currencies count with the rate booked when they were added
+     private String baseCurrency;
+     private transient volatile ExchangeRateTable exchangeRates;
+     private transient ArchiveStore archive;
+     // OBSERVER PATTERN: listeners are UI/runtime only, never saved
+     private transient List<FinanceChangeListener> listeners;
+     // built on first use by their getters (not saved)
+     private transient DuplicateDetector duplicateDetector;
+     private transient TransactionCategorizer categorizer;
+     private transient CashFlowSeries cashFlowSeries;
+     private transient CashFlowForecaster cashFlowForecaster;
+     // UNDO/REDO: newest change first, bounded by -Dfinance.undo.limit (not saved)
+     private transient Deque<Change> undoHistory;
+     private transient Deque<Change> redoHistory;
+
+    /**
+     * One undoable change: the rows it added and removed, with their positions
+     * Costs memory only for the touched rows - the ledger itself is never copied
+     */
+    private static final class Change {
+        final String description;
+        final List<Transaction> added;
+        final long[] addedSequences;
+        final List<Transaction> removed;
+        final long[] removedSequences;
+
+        Change(String description, List<Transaction> added, long[] addedSequences,
+               List<Transaction> removed, long[] removedSequences) {
+            this.description = description;
+            this.added = added;
+            this.addedSequences = addedSequences;
+            this.removed = removed;
+            this.removedSequences = removedSequences;
+        }
+
+        Change inverse() {
+            return new Change(description, removed, removedSequences, added, addedSequences);
+        }
+    }
 
     /**
      * CONSTRUCTOR: Initialize all collections
      */
     public FinanceManager() {
-        this.transactions = new ArrayList<>();
+        this(System.getProperty("finance.currency", "USD"));
+    }
+    /**
+     * CONSTRUCTOR: Ledger kept in another base currency ("EUR", "GBP", ...)
+     */
+    public FinanceManager(String baseCurrency) {
+        this.baseCurrency = ExchangeRateTable.normalize(baseCurrency);
+        this.snapshot = LedgerSnapshot.EMPTY;
         this.budgets = new HashMap<>();
         this.financialGoals = new ArrayList<>();
+        this.recurringTransactions = new ArrayList<>();
+        this.monthlyRollup = new MonthlyRollup();
+        this.archivedMonths = new TreeSet<>();
+        this.deletedArchivedIds = new HashSet<>();
+        this.archivedIdFilters = new HashMap<>();
+        this.categoryRules = new LinkedHashMap<>();
     }
 
     // ========== TRANSACTION MANAGEMENT ==========
@@ -39,109 +131,755 @@ public class FinanceManager  {
      * CREATE OPERATION: Add new transaction
      * EXCEPTION HANDLING: Validate input and throw custom exception
      */
-   public void addTransaction(Transaction transaction) throws InvalidTrasactionException {
-       if (transaction == null){
-           throw  new InvalidTrasactionException("Transaction cannot be null");
-
-       }
-       if(transaction.getAmount()<=0){
-           throw new InvalidTrasactionException("Amount must be positive");
-       }
-       if(transaction.getCategory()==null || transaction.getCategory().trim().isEmpty()){
-           throw new InvalidTrasactionException("Category cannot be empty");
-       }
-       transactions.add(transaction);
-       if(transaction.getType()==TransactionType.EXPENSE){
-           updateBudget(transaction.getCategory(), transaction.getAmount());
-       }
-       if(transaction.getType()==TransactionType.INCOME){
-
-       }
+   public synchronized void addTransaction(Transaction transaction) throws InvalidTrasactionException {
+       long start = FinanceMetrics.startTimer();
+       validateTransaction(transaction);
+       long sequence = snapshot.getNextSequence();
+       snapshot = snapshot.add(transaction);
+       applyContribution(transaction, 1);
+       recordChange(new Change("Add " + transaction.getCategory(), Collections.singletonList(transaction),
+               new long[]{sequence}, Collections.emptyList(), new long[0]));
+       fireChange(FinanceChangeEvent.transactionsAdded(Collections.singletonList(transaction)));
+       FinanceMetrics.stopTimer("finance.addTransaction", start);
    }
     /**
-     * READ OPERATION: Get all transactions
+     * BULK CREATE OPERATION: Add many transactions in one go
+     * ALL OR NOTHING: Every transaction is validated before any of them is added
+     */
+    public void addTransactions(Collection<Transaction> newTransactions) throws InvalidTrasactionException {
+        addTransactions(newTransactions, true);
+    }
+    /**
+     * Same, but the scheduler's automatic batches are not undoable
+     * (undoing them would only make the scheduler add them again)
+     */
+    synchronized void addTransactions(Collection<Transaction> newTransactions, boolean undoable) throws InvalidTrasactionException {
+        long start = FinanceMetrics.startTimer();
+        for (Transaction transaction : newTransactions) {
+            validateTransaction(transaction);
+        }
+        long firstSequence = snapshot.getNextSequence();
+        snapshot = snapshot.addAll(newTransactions);
+        for (Transaction transaction : newTransactions) {
+            applyContribution(transaction, 1);
+        }
+        if (undoable) {
+            long[] sequences = new long[newTransactions.size()];
+            for (int i = 0; i < sequences.length; i++) {
+                sequences[i] = firstSequence + i;
+            }
+            recordChange(new Change("Add " + newTransactions.size() + " transactions",
+                    new ArrayList<>(newTransactions), sequences, Collections.emptyList(), new long[0]));
+        }
+        // one event for the whole batch, so listeners repaint once
+        fireChange(FinanceChangeEvent.transactionsAdded(new ArrayList<>(newTransactions)));
+        FinanceMetrics.add("finance.addTransactions.rows", newTransactions.size());
+        FinanceMetrics.stopTimer("finance.addTransactions", start);
+    }
+    /**
+     * HELPER METHOD: Shared validation for single and bulk adds
+     */
+    private void validateTransaction(Transaction transaction) throws InvalidTrasactionException {
+        if (transaction == null){
+            throw  new InvalidTrasactionException("Transaction cannot be null");
+        }
+        if(transaction.getAmount()<=0){
+            throw new InvalidTrasactionException("Amount must be positive");
+        }
+        if(transaction.getCategory()==null || transaction.getCategory().trim().isEmpty()){
+            throw new InvalidTrasactionException("Category cannot be empty");
+        }
+        // CURRENCY: book the rate of the transaction's day - rows loaded from
+        // storage already carry theirs, so a later rate file does not change history
+        String currency = transaction.getCurrency();
+        if (currency != null && currency.equals(baseCurrency)) {
+            // stored as null, so base rows compare equal however they were entered
+            transaction.setCurrency(null);
+            currency = null;
+        }
+        if (currency != null && transaction.getExchangeRate() == 0) {
+            ExchangeRateTable rates = getExchangeRates();
+            if (!rates.supports(currency) || !rates.supports(baseCurrency)) {
+                throw new InvalidTrasactionException("No exchange rate for " + currency + " to " + baseCurrency);
+            }
+            transaction.setExchangeRate(rates.convert(1.0, currency, baseCurrency,
+                    transaction.getLocalDate().toEpochDay()));
+        }
+    }
+    /**
+     * READ OPERATION: Get all transactions of the active window
      * Why return a copy? To prevent external code from modifying our internal list
+     * Archived months are not included - use getTransactionsByDateRange for those
      */
     public List<Transaction> getAllTransactions() {
-        return new ArrayList<>(transactions);
+        return snapshot.toList();
+    }
+    /**
+     * READ OPERATION: The current version itself - nothing is copied, and it never
+     * changes, so long reports can iterate it while edits continue
+     */
+    public LedgerSnapshot getSnapshot() {
+        return snapshot;
+    }
+    /**
+     * READ OPERATION: Number of transactions without copying the list
+     */
+    public int getTransactionCount() {
+        return snapshot.size();
     }
     /**
      * READ OPERATION: Get transactions by type
      * STREAMS CONCEPT: Functional-style operations on collections
      */
     public List<Transaction> getTransactionsByType(TransactionType Type){
-        return transactions.stream()
+        long start = FinanceMetrics.startTimer();
+        List<Transaction> result = snapshot.stream()
                 .filter(transaction -> transaction.getType()==Type)
                 .collect(Collectors.toList());
+        // only archived months whose rollup says they contain this type
+        result.addAll(scanArchive(null, null, null, Type));
+        FinanceMetrics.stopTimer("finance.query.byType", start);
+        return result;
     }
 /**
  * READ OPERATION: Get transactions by category
  */
     public List<Transaction> getTransactionsByCategory(String category) {
-        return transactions.stream()
+        long start = FinanceMetrics.startTimer();
+        List<Transaction> result = snapshot.stream()
                 .filter(transaction -> transaction.getCategory().equalsIgnoreCase
                         (category)).collect(Collectors.toList());
+        result.addAll(scanArchive(null, null, category, null));
+        FinanceMetrics.stopTimer("finance.query.byCategory", start);
+        return result;
     }
     /**
      * READ OPERATION: Get transactions by date range
      * DATE HANDLING: Using Java 8 Date API
+     * Only the archived months inside the range are read from disk
      */
     public List<Transaction> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return transactions.stream()
-                .filter(transaction -> {
-                    LocalDate transactionDate = ((java.sql.Date) transaction.getDate()).toLocalDate();
-                    return !transactionDate.isBefore(startDate) && !transactionDate.isAfter(endDate);
-                })
-                .collect(Collectors.toList());
+        long start = FinanceMetrics.startTimer();
+        Predicate<Transaction> inRange = transaction -> {
+            LocalDate transactionDate = transaction.getLocalDate();
+            return !transactionDate.isBefore(startDate) && !transactionDate.isAfter(endDate);
+        };
+        List<Transaction> result = endDate.isBefore(startDate) ? new ArrayList<>()
+                : scanArchive(startDate, endDate, null, null);
+        result.addAll(snapshot.stream().filter(inRange).collect(Collectors.toList()));
+        FinanceMetrics.stopTimer("finance.query.byDateRange", start);
+        return result;
     }
+
     /**
-     * UPDATE OPERATION: We'll implement in UI
+     * STREAMING READ: Hand each matching transaction to the visitor without
+     * building a result list - archived months first, then the active window.
+     * Conditions left null are not checked; with no condition at all only the
+     * active window is visited (like getAllTransactions).
+     * The lock is held only to take the current snapshot and pick the months;
+     * partitions are read and the visitor runs without it, so a slow reader never
+     * holds up edits. The visitor returns false to stop early.
      */
-    // This would be implemented in the next version
-
+    public void visitTransactions(LocalDate startDate, LocalDate endDate, String category, TransactionType type,
+                                  Predicate<Transaction> visitor){
+        long start = FinanceMetrics.startTimer();
+        Predicate<Transaction> matches = transaction ->
+                (startDate == null || !transaction.getLocalDate().isBefore(startDate))
+                        && (endDate == null || !transaction.getLocalDate().isAfter(endDate))
+                        && (category == null || transaction.getCategory().equalsIgnoreCase(category))
+                        && (type == null || transaction.getType() == type);
+        try {
+            boolean anyCondition = startDate != null || endDate != null || category != null || type != null;
+            readArchive(anyCondition ? null : Collections.<YearMonth>emptyList(),
+                    startDate, endDate, category, type, matches, visitor);
+        } finally {
+            FinanceMetrics.stopTimer("finance.query.visit", start);
+        }
+    }
     /**
-     * DELETE OPERATION: Remove transaction by ID
-     * ITERATOR CONCEPT: Safe way to remove while iterating
-     */
-    public boolean deleteTransaction(String transactionID){
-        Iterator<Transaction> iterator = transactions.iterator();
-        while(iterator.hasNext()){
-            Transaction transaction = iterator.next();
-            if(transaction.getId().equals(transactionID)) {
-                iterator.remove();;
+     * Could this archived month hold a row of the category and type, according to the rollup?
+     */
+    private boolean monthMightHold(YearMonth month, String category, TransactionType type){
+        if (category == null && type == null) {
+            return true;
+        }
+        for (Map.Entry<String, MonthlyRollup.CategoryTotals> entry : monthlyRollup.getCategoryTotals(month).entrySet()) {
+            MonthlyRollup.CategoryTotals totals = entry.getValue();
+            if ((category == null || entry.getKey().equalsIgnoreCase(category))
+                    && (type == null || (type == TransactionType.INCOME
+                            ? totals.getIncomeCount() > 0 : totals.getExpenseCount() > 0))) {
                 return true;
             }
         }
         return false;
     }
+
+    /**
+     * UPDATE OPERATION: Change some fields of one transaction
+     * ATOMIC: The new values are validated first - if they are invalid nothing changes
+     * INCREMENTAL: The old version's share of the totals, budgets and monthly
+     * rollup is subtracted and the new version's share added, nothing is rescanned
+     * Returns false if there is no transaction with this ID
+     */
+    public synchronized boolean updateTransaction(String transactionID, TransactionPatch patch) throws InvalidTrasactionException {
+        long start = FinanceMetrics.startTimer();
+        long sequence = snapshot.sequenceOf(transactionID);
+        Transaction old = sequence >= 0 ? snapshot.get(sequence) : findArchivedTransaction(transactionID);
+        if (old == null) {
+            FinanceMetrics.stopTimer("finance.updateTransaction", start);
+            return false;
+        }
+        Transaction updated = patch.applyTo(old);
+        validateTransaction(updated);
+        long newSequence = replaceRow(old, updated, sequence);
+        recordChange(new Change("Edit " + old.getCategory(), Collections.singletonList(updated),
+                new long[]{newSequence}, Collections.singletonList(old), new long[]{sequence}));
+        fireChange(FinanceChangeEvent.transactionsUpdated(
+                Collections.singletonList(old), Collections.singletonList(updated)));
+        FinanceMetrics.stopTimer("finance.updateTransaction", start);
+        return true;
+    }
+    /**
+     * BULK UPDATE: Rename a category in every transaction, e.g. "Misc" -> "Shopping"
+     * One pass over the ledger (archived months only if their rollup has the
+     * category), one undo step and one change event for the whole batch.
+     * Budgets stay with their category name - set one for the new name if needed.
+     * Returns how many transactions were changed
+     */
+    public synchronized int recategorize(String fromCategory, String toCategory) throws InvalidTrasactionException {
+        long start = FinanceMetrics.startTimer();
+        if (toCategory == null || toCategory.trim().isEmpty()) {
+            throw new InvalidTrasactionException("Category cannot be empty");
+        }
+        TransactionPatch patch = new TransactionPatch().category(toCategory);
+        List<Transaction> before = new ArrayList<>();
+        List<Long> positions = new ArrayList<>();
+        for (Map.Entry<Long, Transaction> entry : snapshot.entries()) {
+            if (entry.getValue().getCategory().equalsIgnoreCase(fromCategory)) {
+                before.add(entry.getValue());
+                positions.add(entry.getKey());
+            }
+        }
+        for (Transaction archived : scanArchive(null, null, fromCategory, null)) {
+            before.add(archived);
+            positions.add(-1L);
+        }
+        if (before.isEmpty()) {
+            FinanceMetrics.stopTimer("finance.recategorize", start);
+            return 0;
+        }
+
+        List<Transaction> after = new ArrayList<>(before.size());
+        long[] oldSequences = new long[before.size()];
+        long[] newSequences = new long[before.size()];
+        for (int i = 0; i < before.size(); i++) {
+            Transaction updated = patch.applyTo(before.get(i));
+            oldSequences[i] = positions.get(i);
+            newSequences[i] = replaceRow(before.get(i), updated, oldSequences[i]);
+            after.add(updated);
+        }
+        recordChange(new Change("Rename " + fromCategory + " to " + toCategory,
+                after, newSequences, before, oldSequences));
+        fireChange(FinanceChangeEvent.transactionsUpdated(before, after));
+        FinanceMetrics.add("finance.recategorize.rows", before.size());
+        FinanceMetrics.stopTimer("finance.recategorize", start);
+        return before.size();
+    }
+    /**
+     * HELPER METHOD: Swap one transaction for its new version, moving its share
+     * of the totals from the old values to the new ones
+     * An archived transaction is hidden in its frozen month and the new version
+     * joins the active window (the next archiving run puts it back in place).
+     * Returns the new version's position
+     */
+    private long replaceRow(Transaction old, Transaction updated, long sequence){
+        applyContribution(old, -1);
+        if (sequence >= 0) {
+            snapshot = snapshot.replace(sequence, updated);
+        } else {
+            deletedArchivedIds.add(old.getId());
+            sequence = snapshot.getNextSequence();
+            snapshot = snapshot.add(updated);
+        }
+        applyContribution(updated, 1);
+        return sequence;
+    }
+
+    /**
+     * DELETE OPERATION: Remove transaction by ID
+     * INDEX LOOKUP: The snapshot finds the ID in O(log n) instead of scanning the list
+     */
+    public synchronized boolean deleteTransaction(String transactionID){
+        long start = FinanceMetrics.startTimer();
+        long sequence = snapshot.sequenceOf(transactionID);
+        Transaction removed = removeRow(transactionID, sequence);
+        if (removed != null) {
+            recordChange(new Change("Delete " + removed.getCategory(), Collections.emptyList(), new long[0],
+                    Collections.singletonList(removed), new long[]{sequence}));
+            fireChange(FinanceChangeEvent.transactionsRemoved(Collections.singletonList(removed)));
+        }
+        FinanceMetrics.stopTimer("finance.deleteTransaction", start);
+        return removed != null;
+    }
+    /**
+     * HELPER METHOD: Take one row out of the ledger and out of the totals
+     * sequence = its position in the snapshot, -1 = not in the active window,
+     * in which case it may still be in an archived month
+     */
+    private Transaction removeRow(String transactionID, long sequence){
+        Transaction transaction;
+        if (sequence >= 0) {
+            transaction = snapshot.get(sequence);
+            snapshot = snapshot.remove(sequence);
+        } else {
+            transaction = findArchivedTransaction(transactionID);
+            if (transaction == null) {
+                return null;
+            }
+            deletedArchivedIds.add(transactionID);
+        }
+        applyContribution(transaction, -1);
+        return transaction;
+    }
+    // ========== UNDO / REDO ==========
+
+    public synchronized boolean canUndo(){
+        return undoHistory != null && !undoHistory.isEmpty();
+    }
+    public synchronized boolean canRedo(){
+        return redoHistory != null && !redoHistory.isEmpty();
+    }
+    /**
+     * What undo would revert, e.g. "Delete Food" (null if there is nothing to undo)
+     */
+    public synchronized String getUndoDescription(){
+        return canUndo() ? undoHistory.peek().description : null;
+    }
+    public synchronized String getRedoDescription(){
+        return canRedo() ? redoHistory.peek().description : null;
+    }
+    /**
+     * UNDO: Revert the newest change - rows it added are taken out, rows it
+     * removed are put back at their old position. Totals and budgets follow
+     * through the same subtract/add as any other change, and listeners get the
+     * usual events, so the UI and the storage backends need nothing special.
+     */
+    public synchronized boolean undo(){
+        if (!canUndo()) {
+            return false;
+        }
+        Change applied = replay(undoHistory.pop().inverse());
+        redoHistory.push(applied.inverse());
+        return true;
+    }
+    public synchronized boolean redo(){
+        if (!canRedo()) {
+            return false;
+        }
+        undoHistory.push(replay(redoHistory.pop()));
+        return true;
+    }
+    /**
+     * Forget the history, e.g. after loading (loading is not something to undo)
+     */
+    public synchronized void clearHistory(){
+        undoHistory = null;
+        redoHistory = null;
+    }
+    private void recordChange(Change change){
+        if (undoHistory == null) {
+            undoHistory = new ArrayDeque<>();
+            redoHistory = new ArrayDeque<>();
+        }
+        undoHistory.push(change);
+        while (undoHistory.size() > UNDO_LIMIT) {
+            undoHistory.removeLast();
+        }
+        redoHistory.clear();
+    }
+    /**
+     * Apply a recorded change again and return it with the positions actually used
+     * (a row may have moved to the archive in the meantime)
+     */
+    private Change replay(Change change){
+        List<Transaction> removed = new ArrayList<>();
+        long[] removedSequences = new long[change.removed.size()];
+        for (int i = 0; i < change.removed.size(); i++) {
+            String id = change.removed.get(i).getId();
+            long sequence = change.removedSequences[i];
+            Transaction atPosition = sequence >= 0 ? snapshot.get(sequence) : null;
+            if (atPosition == null || !atPosition.getId().equals(id)) {
+                sequence = snapshot.sequenceOf(id);
+            }
+            Transaction transaction = removeRow(id, sequence);
+            if (transaction != null) {
+                removedSequences[removed.size()] = sequence;
+                removed.add(transaction);
+            }
+        }
+        long[] addedSequences = new long[change.added.size()];
+        for (int i = 0; i < change.added.size(); i++) {
+            Transaction transaction = change.added.get(i);
+            long sequence = change.addedSequences[i];
+            if (sequence < 0 || snapshot.get(sequence) != null) {
+                sequence = snapshot.getNextSequence();
+            }
+            snapshot = snapshot.insert(sequence, transaction);
+            applyContribution(transaction, 1);
+            addedSequences[i] = sequence;
+        }
+        if (isEdit(removed, change.added)) {
+            // undoing an edit puts the old version back in the same row
+            fireChange(FinanceChangeEvent.transactionsUpdated(removed, new ArrayList<>(change.added)));
+        } else {
+            if (!removed.isEmpty()) {
+                fireChange(FinanceChangeEvent.transactionsRemoved(removed));
+            }
+            if (!change.added.isEmpty()) {
+                fireChange(FinanceChangeEvent.transactionsAdded(new ArrayList<>(change.added)));
+            }
+        }
+        return new Change(change.description, change.added, addedSequences,
+                removed, Arrays.copyOf(removedSequences, removed.size()));
+    }
+    /**
+     * True if every added transaction is a new version of the removed one at the same index
+     */
+    private static boolean isEdit(List<Transaction> removed, List<Transaction> added){
+        if (removed.isEmpty() || removed.size() != added.size()) {
+            return false;
+        }
+        for (int i = 0; i < removed.size(); i++) {
+            if (!removed.get(i).getId().equals(added.get(i).getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+    // ========== ARCHIVE ==========
+
+    /**
+     * Turn on archiving into the given folder (kept when the manager is saved)
+     * The folder cannot change once months have been archived into it
+     */
+    public synchronized void enableArchive(String directory){
+        if (!archivedMonths.isEmpty() && !directory.equals(archiveDirectory)) {
+            throw new IllegalStateException("Months are already archived in " + archiveDirectory);
+        }
+        archiveDirectory = directory;
+        archive = null;
+    }
+    /**
+     * Turn on archiving into a store the storage backend keeps itself (e.g. its
+     * database table) - set again on every load, so it is not saved
+     */
+    public synchronized void useArchiveStore(ArchiveStore store){
+        archiveDirectory = null;
+        archive = store;
+    }
+    public String getArchiveDirectory(){
+        return archiveDirectory;
+    }
+    public synchronized List<YearMonth> getArchivedMonths(){
+        return new ArrayList<>(archivedMonths);
+    }
+    private ArchiveStore getArchive(){
+        // transient field is null after loading from file
+        if (archive == null && archiveDirectory != null) {
+            archive = new TransactionArchive(archiveDirectory);
+        }
+        return archive;
+    }
+    /**
+     * PARTITIONING: Move every transaction dated before the cutoff month to the archive
+     * One frozen partition per month; a month that is already archived (e.g. an old
+     * expense entered late) is merged and rewritten. The partitions are written
+     * before the rows leave memory, so a failed write loses nothing.
+     * Returns how many transactions were moved
+     */
+    public synchronized int archiveMonthsBefore(YearMonth cutoff) throws IOException {
+        ArchiveStore target = getArchive();
+        if (target == null) {
+            return 0;
+        }
+        long start = FinanceMetrics.startTimer();
+        Map<YearMonth, List<Transaction>> closed = new TreeMap<>();
+        for (Transaction transaction : snapshot) {
+            YearMonth month = YearMonth.from(transaction.getLocalDate());
+            if (month.isBefore(cutoff)) {
+                closed.computeIfAbsent(month, m -> new ArrayList<>()).add(transaction);
+            }
+        }
+        if (closed.isEmpty()) {
+            return 0;
+        }
+        List<Transaction> moved = new ArrayList<>();
+        for (Map.Entry<YearMonth, List<Transaction>> entry : closed.entrySet()) {
+            // merge by ID, so running this again after a crash never duplicates rows
+            Map<String, Transaction> rows = new LinkedHashMap<>();
+            if (archivedMonths.contains(entry.getKey())) {
+                for (Transaction transaction : target.readPartition(entry.getKey())) {
+                    if (!deletedArchivedIds.remove(transaction.getId())) {
+                        rows.put(transaction.getId(), transaction);
+                    }
+                }
+            }
+            for (Transaction transaction : entry.getValue()) {
+                rows.put(transaction.getId(), transaction);
+            }
+            target.writePartition(entry.getKey(), new ArrayList<>(rows.values()));
+            archivedMonths.add(entry.getKey());
+            if (!target.indexesIds()) {
+                archivedIdFilters.put(entry.getKey(), new IdBloomFilter(rows.keySet()));
+            }
+            moved.addAll(entry.getValue());
+        }
+        snapshot = snapshot.removeIf(transaction -> closed.containsKey(YearMonth.from(transaction.getLocalDate())));
+        fireChange(FinanceChangeEvent.partitionsArchived(moved));
+        FinanceMetrics.add("archive.rowsArchived", moved.size());
+        FinanceMetrics.stopTimer("finance.archiveMonthsBefore", start);
+        return moved.size();
+    }
+    /**
+     * Put back the totals of an archived month whose rows a storage backend
+     * keeps itself (the database sums them up instead of loading them)
+     */
+    synchronized void restoreArchivedTotals(YearMonth month, String category, TransactionType type,
+                                            double amount, int count){
+        archivedMonths.add(month);
+        monthlyRollup.add(month, category, type, amount, count);
+        if (type == TransactionType.EXPENSE) {
+            totalExpenses += amount;
+        } else {
+            totalIncome += amount;
+        }
+    }
+    /**
+     * The test behind the filtered reads - conditions left null are not checked,
+     * categories are exact spellings
+     */
+    static Predicate<Transaction> matcher(LocalDate startDate, LocalDate endDate, Set<String> categories,
+                                          TransactionType type){
+        return transaction ->
+                (startDate == null || !transaction.getLocalDate().isBefore(startDate))
+                        && (endDate == null || !transaction.getLocalDate().isAfter(endDate))
+                        && (categories == null || categories.contains(transaction.getCategory()))
+                        && (type == null || transaction.getType() == type);
+    }
+    /**
+     * LAZY LOADING: Archived rows that match, collected into a list
+     */
+    private List<Transaction> scanArchive(LocalDate startDate, LocalDate endDate, String category, TransactionType type){
+        List<Transaction> result = new ArrayList<>();
+        readArchive(null, startDate, endDate, category, type, null, result::add);
+        return result;
+    }
+    /**
+     * Every archived row of the given months that passes the filter, handed to the
+     * visitor one at a time - lets a full pass over every archived month run in
+     * constant memory
+     */
+    void visitArchive(List<YearMonth> months, Predicate<Transaction> filter, Consumer<Transaction> visitor){
+        readArchive(months, null, null, null, null, null, transaction -> {
+            if (filter.test(transaction)) {
+                visitor.accept(transaction);
+            }
+            return true;
+        });
+    }
+    /**
+     * HELPER METHOD: Hand the archived rows that match to the visitor
+     * months = null picks the archived months by the conditions: the date range
+     * and the rollup (a month without the category or type is never read). The
+     * category is turned into the exact spellings the rollup has, so the store
+     * can match it with an index. With activeMatches the active window's matching
+     * rows follow, from the same snapshot. The lock is held only to take the
+     * snapshot, pick the months and copy the list of deleted IDs - never while
+     * the store reads or the visitor runs.
+     */
+    private void readArchive(List<YearMonth> months, LocalDate startDate, LocalDate endDate, String category,
+                             TransactionType type, Predicate<Transaction> activeMatches,
+                             Predicate<Transaction> visitor){
+        ArchiveStore source;
+        LedgerSnapshot current;
+        Set<String> deleted;
+        Set<String> spellings = null;
+        synchronized (this) {
+            source = getArchive();
+            current = snapshot;
+            deleted = deletedArchivedIds.isEmpty() ? Collections.emptySet() : new HashSet<>(deletedArchivedIds);
+            if (months == null) {
+                months = new ArrayList<>();
+                for (YearMonth month : archivedMonths) {
+                    if ((startDate == null || !month.isBefore(YearMonth.from(startDate)))
+                            && (endDate == null || !month.isAfter(YearMonth.from(endDate)))
+                            && monthMightHold(month, category, type)) {
+                        months.add(month);
+                    }
+                }
+            }
+            if (category != null) {
+                spellings = new HashSet<>();
+                for (YearMonth month : months) {
+                    for (String name : monthlyRollup.getCategoryTotals(month).keySet()) {
+                        if (name.equalsIgnoreCase(category)) {
+                            spellings.add(name);
+                        }
+                    }
+                }
+            }
+        }
+        if (source != null && !months.isEmpty() && (spellings == null || !spellings.isEmpty())) {
+            // a row archived after the snapshot was taken, or one the database holds for
+            // a closed month while it is still in the active window, counts once
+            boolean finished = source.visit(months, startDate, endDate, spellings, type, transaction ->
+                    deleted.contains(transaction.getId()) || current.find(transaction.getId()) != null
+                            || visitor.test(transaction));
+            if (!finished) {
+                return;
+            }
+        }
+        if (activeMatches != null) {
+            for (Transaction transaction : current) {
+                if (activeMatches.test(transaction) && !visitor.test(transaction)) {
+                    return;
+                }
+            }
+        }
+    }
+    /**
+     * An archived row by ID, newest month first
+     * The ID filters rule out the months that cannot hold it, so an unknown ID
+     * usually reads no partition at all
+     */
+    private Transaction findArchivedTransaction(String transactionID){
+        for (YearMonth month : archivedMonths.descendingSet()) {
+            Transaction found = findArchivedTransaction(transactionID, month);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+    /**
+     * An archived row by ID within one month (null if it is not there)
+     * A store with an ID index is asked directly; otherwise the partition is read
+     * only if the month's ID filter says the row might be in it
+     */
+    synchronized Transaction findArchivedTransaction(String transactionID, YearMonth month){
+        if (!archivedMonths.contains(month) || deletedArchivedIds.contains(transactionID)) {
+            return null;
+        }
+        IdBloomFilter filter = archivedIdFilters.get(month);
+        ArchiveStore source = getArchive();
+        if (source == null || (filter != null && !filter.mightContain(transactionID))) {
+            return null;
+        }
+        try {
+            if (source.indexesIds()) {
+                return source.find(transactionID, month);
+            }
+            List<Transaction> rows = source.readPartition(month);
+            if (filter == null) {
+                // archived before the filters existed - the rows are read now anyway
+                List<String> ids = new ArrayList<>(rows.size());
+                for (Transaction transaction : rows) {
+                    ids.add(transaction.getId());
+                }
+                archivedIdFilters.put(month, new IdBloomFilter(ids));
+            }
+            for (Transaction transaction : rows) {
+                if (transaction.getId().equals(transactionID)) {
+                    return transaction;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading archived month " + month + ": " + e.getMessage());
+            FinanceMetrics.increment("archive.readErrors");
+        }
+        return null;
+    }
     // ========== BUDGET MANAGEMENT ==========
 
     /**
      * BUDGET OPERATION: Set monthly budget for category
      */
-    public void setBudget(String category,double amount, LocalDate month){
+    public synchronized void setBudget(String category,double amount, LocalDate month){
         String key = generateBudgetKey(category, month);
-        budgets.put(key, new Budget(category, amount, month ));
+        Budget budget = new Budget(category, amount, month );
+        budgets.put(key, budget);
+        fireChange(FinanceChangeEvent.budgetChanged(budget));
+    }
+    /**
+     * BUDGET OPERATION: Budget in another currency (expenses are converted into it)
+     */
+    public synchronized void setBudget(String category, double amount, LocalDate month, String currency)
+            throws InvalidTrasactionException {
+        String code = currency == null ? null : ExchangeRateTable.normalize(currency);
+        if (code == null || code.equals(baseCurrency)) {
+            setBudget(category, amount, month);
+            return;
+        }
+        if (!getExchangeRates().supports(code) || !getExchangeRates().supports(baseCurrency)) {
+            throw new InvalidTrasactionException("No exchange rate for " + code + " to " + baseCurrency);
+        }
+        restoreBudget(category, amount, month, code);
+    }
+    /**
+     * Same without the rate check - for storage backends putting saved budgets back
+     * (loading must not depend on what the rate file holds today)
+     */
+    synchronized void restoreBudget(String category, double amount, LocalDate month, String currency){
+        Budget budget = new Budget(category, amount, month, currency);
+        budgets.put(generateBudgetKey(category, month), budget);
+        fireChange(FinanceChangeEvent.budgetChanged(budget));
     }
     /**
      * BUDGET OPERATION: Get budget for category and month
      */
-    public Budget getBudget(String category, LocalDate month){
+    public synchronized Budget getBudget(String category, LocalDate month){
         String key = generateBudgetKey(category, month);
         return budgets.get(key);
     }
     //get a;ll buidgets
-    public List<Budget> getAllBudgets(){
+    public synchronized List<Budget> getAllBudgets(){
         return new ArrayList<>((budgets.values()));
     }
     /**
-     * HELPER METHOD: Update budget when expense is added
+     * HELPER METHOD: Add (sign = 1) or remove (sign = -1) a transaction's
+     * share of the monthly rollup and budgets
      */
-    private void updateBudget(String category, double amount){
-        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
-        Budget budget = getBudget(category, currentMonth);
+    private void applyContribution(Transaction transaction, int sign){
+        monthlyRollup.apply(transaction, sign);
+        if(transaction.getType()==TransactionType.EXPENSE){
+            totalExpenses += sign * transaction.getBaseAmount();
+            updateBudget(transaction, sign);
+        } else {
+            totalIncome += sign * transaction.getBaseAmount();
+        }
+    }
+    /**
+     * HELPER METHOD: Update budget when expense is added or deleted
+     * Uses the month the expense happened in, so catching up old recurring
+     * expenses does not pile them all onto this month's budget
+     */
+    private void updateBudget(Transaction transaction, int sign){
+        LocalDate month = transaction.getLocalDate().withDayOfMonth(1);
+        Budget budget = getBudget(transaction.getCategory(), month);
         if(budget!=null){
-            budget.addspending(amount);
+            double amount;
+            try {
+                amount = amountIn(transaction, budget.getCurrency());
+            } catch (IllegalArgumentException e) {
+                // the rate file no longer has the budget's currency - count the base amount rather than fail
+                System.err.println("Budget " + budget.getCategory() + ": " + e.getMessage());
+                amount = transaction.getBaseAmount();
+            }
+            if(sign>0){
+                budget.addspending(amount);
+            } else {
+                budget.removeSpending(amount);
+            }
         }
     }
     /**
@@ -151,39 +889,306 @@ public class FinanceManager  {
         return category + "-" + month.getMonthValue() + "-"+ month.getYear();
     }
     //financial goal management
-    public void addFinancialGoals(FinancialGoal goal){
+    public synchronized void addFinancialGoals(FinancialGoal goal){
         financialGoals.add(goal);
+        fireChange(FinanceChangeEvent.goalChanged());
     }
     public List<FinancialGoal> getAllFinancialGoals(){
         return new ArrayList<>(financialGoals);
     }
+    // ========== RECURRING TRANSACTIONS ==========
+
+    /**
+     * Register a recurring template
+     * Validated up front so the scheduler's batches can never fail half way
+     */
+    public synchronized void addRecurringTransaction(RecurringTransaction recurring) throws InvalidTrasactionException {
+        validateTransaction(recurring == null ? null : recurring.toTransaction(recurring.getStartDate()));
+        recurringTransactions.add(recurring);
+        fireChange(FinanceChangeEvent.recurringChanged());
+    }
+    public List<RecurringTransaction> getAllRecurringTransactions(){
+        return new ArrayList<>(recurringTransactions);
+    }
+    /**
+     * Called by the scheduler after it moved the templates' cursors forward
+     */
+    synchronized void recurringTransactionsAdvanced(){
+        fireChange(FinanceChangeEvent.recurringChanged());
+    }
+    public synchronized boolean removeRecurringTransaction(String recurringID){
+        boolean removed = recurringTransactions.removeIf(r -> r.getId().equals(recurringID));
+        if (removed) {
+            fireChange(FinanceChangeEvent.recurringChanged());
+        }
+        return removed;
+    }
+    // totals are kept up to date on every change - O(1), no rescan
     public double calculateTotalIncome(){
-        return transactions.stream()
-                .filter(transaction -> transaction.getType() == TransactionType.INCOME)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+        return totalIncome;
     }
     public double calculateTotalExpenses(){
-        return transactions.stream()
-                .filter(t->t.getType()==TransactionType.EXPENSE)
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+        return totalExpenses;
     }
     public double calculateCurrentBalance(){
         return calculateTotalIncome()-calculateTotalExpenses();
     }
-    //monthly summary
-    public Map<String, Double> getMonthlyExpenseByCategory(LocalDate month){
-        return transactions.stream()
-                .filter(t-> t.getType() == TransactionType.EXPENSE)
-                .filter(t->{
-                    LocalDate transactionDate = ((java.sql.Date) t.getDate()).toLocalDate();
-                     return transactionDate.getMonth() == month.getMonth() &&
-                             transactionDate.getYear() == month.getYear();
-                })
-                .collect(Collectors.groupingBy(
-                        Transaction::getCategory,
-                        Collectors.summingDouble(Transaction::getAmount)
-                        ));
+    // ========== CURRENCIES ==========
+
+    public String getBaseCurrency(){
+        return baseCurrency;
+    }
+    /**
+     * Rates used to book new rows and to report in other currencies
+     * (the -Dfinance.rates.file table unless one was set)
+     */
+    public ExchangeRateTable getExchangeRates(){
+        ExchangeRateTable rates = exchangeRates;
+        return rates != null ? rates : ExchangeRateTable.getDefault();
+    }
+    public void setExchangeRates(ExchangeRateTable exchangeRates){
+        this.exchangeRates = exchangeRates;
+    }
+    public String currencyOf(Transaction transaction){
+        return transaction.getCurrency() != null ? transaction.getCurrency() : baseCurrency;
+    }
+    /**
+     * A transaction's amount in another currency (null = base): its own amount if
+     * the currencies match, otherwise its base amount converted at that day's rate
+     */
+    public double amountIn(Transaction transaction, String currency){
+        String target = currency != null ? currency : baseCurrency;
+        if (target.equals(currencyOf(transaction))) {
+            return transaction.getAmount();
+        }
+        if (target.equals(baseCurrency)) {
+            return transaction.getBaseAmount();
+        }
+        return getExchangeRates().convert(transaction.getBaseAmount(), baseCurrency, target,
+                transaction.getLocalDate().toEpochDay());
+    }
+    /**
+     * REPORTING CURRENCY: Totals converted at the rate of each day - reads the
+     * chart series' per-day totals, so the cost depends on the days of history,
+     * not on the number of rows
+     */
+    public double calculateTotalIncome(String currency){
+        return baseCurrency.equals(currency) ? totalIncome : getCashFlowSeries().getTotalIncome(currency);
+    }
+    public double calculateTotalExpenses(String currency){
+        return baseCurrency.equals(currency) ? totalExpenses : getCashFlowSeries().getTotalExpenses(currency);
+    }
+    // ========== SAVING ==========
+
+    /**
+     * SNAPSHOT FOR SAVING: A private copy that a background thread can serialize
+     * The transactions are shared, not copied - the snapshot is immutable - so the
+     * lock is held only while the small budget/goal/recurring lists are copied
+     */
+    public synchronized FinanceManager copyForSave(){
+        FinanceManager copy = new FinanceManager(baseCurrency);
+        copy.snapshot = snapshot;
+        for (Map.Entry<String, Budget> entry : budgets.entrySet()) {
+            copy.budgets.put(entry.getKey(), entry.getValue().copy());
+        }
+        copy.financialGoals = new ArrayList<>(financialGoals);
+        for (RecurringTransaction recurring : recurringTransactions) {
+            copy.recurringTransactions.add(recurring.copy());
+        }
+        copy.monthlyRollup = monthlyRollup.copy();
+        copy.totalIncome = totalIncome;
+        copy.totalExpenses = totalExpenses;
+        copy.archiveDirectory = archiveDirectory;
+        copy.archivedMonths = new TreeSet<>(archivedMonths);
+        copy.deletedArchivedIds = new HashSet<>(deletedArchivedIds);
+        copy.archivedIdFilters = new HashMap<>(archivedIdFilters);
+        copy.categoryRules.putAll(categoryRules);
+        return copy;
+    }
+
+    // ========== DUPLICATE DETECTION ==========
+
+    /**
+     * Duplicate detector for this ledger - built on first use (one pass over
+     * every row, archived months included), then kept up to date by change events
+     */
+    public synchronized DuplicateDetector getDuplicateDetector(){
+        if (duplicateDetector == null) {
+            duplicateDetector = new DuplicateDetector(this);
+        }
+        return duplicateDetector;
+    }
+    /**
+     * IMPORT: Add the rows of a batch that are not already in the ledger
+     * Check and add happen under one lock, so two overlapping imports at the
+     * same time cannot both add the same row. Returns the skipped duplicates.
+     */
+    public synchronized List<DuplicateDetector.Match> addTransactionsSkippingDuplicates(Collection<Transaction> batch) throws InvalidTrasactionException {
+        // ledger rows in the base currency are stored with no currency - an explicit
+        // "USD" on a USD ledger must compare equal to them (validateTransaction does the same)
+        for (Transaction transaction : batch) {
+            if (transaction != null && baseCurrency.equals(transaction.getCurrency())) {
+                transaction.setCurrency(null);
+            }
+        }
+        List<DuplicateDetector.Match> duplicates = getDuplicateDetector().findDuplicates(batch);
+        List<Transaction> fresh = DuplicateDetector.withoutDuplicates(batch, duplicates);
+        if (!fresh.isEmpty()) {
+            addTransactions(fresh);
+        }
+        return duplicates;
+    }
+
+    // ========== CATEGORIZATION ==========
+
+    /**
+     * RULE: Descriptions containing this keyword (whole words, case ignored) get this category
+     * Setting a keyword again replaces its category
+     */
+    public synchronized void setCategoryRule(String keyword, String category) throws InvalidTrasactionException {
+        if (keyword == null || DuplicateDetector.normalize(keyword).isEmpty()) {
+            throw new InvalidTrasactionException("Rule keyword must contain letters");
+        }
+        if (category == null || category.trim().isEmpty()) {
+            throw new InvalidTrasactionException("Category cannot be empty");
+        }
+        categoryRules.put(keyword.trim(), category.trim());
+        fireChange(FinanceChangeEvent.categoryRulesChanged());
+    }
+    public synchronized boolean removeCategoryRule(String keyword){
+        boolean removed = categoryRules.remove(keyword) != null;
+        if (removed) {
+            fireChange(FinanceChangeEvent.categoryRulesChanged());
+        }
+        return removed;
+    }
+    public synchronized Map<String, String> getCategoryRules(){
+        return new LinkedHashMap<>(categoryRules);
+    }
+    /**
+     * Categorizer for this ledger - trained on first use (one pass over every
+     * row, archived months included), then kept up to date by change events
+     */
+    public synchronized TransactionCategorizer getCategorizer(){
+        if (categorizer == null) {
+            categorizer = new TransactionCategorizer(this);
+        }
+        return categorizer;
+    }
+
+    // ========== CHARTS ==========
+
+    /**
+     * Chart series for this ledger - built on first use (one pass over every
+     * row, archived months included), then kept up to date by change events
+     */
+    public synchronized CashFlowSeries getCashFlowSeries(){
+        if (cashFlowSeries == null) {
+            cashFlowSeries = new CashFlowSeries(this);
+        }
+        return cashFlowSeries;
+    }
+    /**
+     * The forecaster for this ledger - shared, so its fitted models are reused
+     * by every caller instead of being fitted again each time
+     */
+    public synchronized CashFlowForecaster getCashFlowForecaster(){
+        if (cashFlowForecaster == null) {
+            cashFlowForecaster = new CashFlowForecaster(this);
+        }
+        return cashFlowForecaster;
+    }
+
+    // ========== CHANGE EVENTS ==========
+
+    public void addChangeListener(FinanceChangeListener listener){
+        getListeners().add(listener);
+    }
+    public void removeChangeListener(FinanceChangeListener listener){
+        getListeners().remove(listener);
+    }
+    private List<FinanceChangeListener> getListeners(){
+        // transient field is null after loading from file
+        if(listeners==null){
+            listeners = new java.util.concurrent.CopyOnWriteArrayList<>();
+        }
+        return listeners;
+    }
+    private void fireChange(FinanceChangeEvent event){
+        if(listeners==null || listeners.isEmpty()){
+            return;
+        }
+        for(FinanceChangeListener listener : listeners){
+            listener.onChange(event);
+        }
+    }
+    /**
+     * SERIALIZATION HOOK: Transactions are saved as a plain list, as before,
+     * so older files still load and the file format does not depend on the tree
+     */
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+        synchronized (this) {
+            transactions = snapshot.toList();
+            try {
+                out.defaultWriteObject();
+            } finally {
+                transactions = null;
+            }
+        }
+    }
+    /**
+     * SERIALIZATION HOOK: Rebuild derived data if the saved file predates it
+     */
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        snapshot = LedgerSnapshot.EMPTY.addAll(transactions);
+        transactions = null;
+        if (archivedMonths == null) {
+            archivedMonths = new TreeSet<>();
+            deletedArchivedIds = new HashSet<>();
+        }
+        if (archivedIdFilters == null) {
+            archivedIdFilters = new HashMap<>();
+        }
+        if (categoryRules == null) {
+            categoryRules = new LinkedHashMap<>();
+        }
+        if (baseCurrency == null) {
+            baseCurrency = ExchangeRateTable.normalize(System.getProperty("finance.currency", "USD"));
+        }
+        if (monthlyRollup == null) {
+            monthlyRollup = new MonthlyRollup();
+            for (Transaction transaction : snapshot) {
+                monthlyRollup.apply(transaction, 1);
+            }
+        }
+        totalIncome = 0;
+        totalExpenses = 0;
+        for (YearMonth month : monthlyRollup.getMonths()) {
+            totalIncome += monthlyRollup.getTotalIncome(month);
+            totalExpenses += monthlyRollup.getTotalExpense(month);
+        }
+    }
+    /**
+     * MONTHLY ROLLUP: Month/category totals, used by reports and the forecaster
+     * instead of rescanning transactions
+     * Returns a copy taken under the lock - the live rollup changes with every
+     * transaction (it has one entry per month and category, so copying is cheap)
+     */
+    public synchronized MonthlyRollup getMonthlyRollup(){
+        return monthlyRollup.copy();
+    }
+    //monthly summary - read straight from the rollup, no scan of the history
+    public synchronized Map<String, Double> getMonthlyExpenseByCategory(LocalDate month){
+        long start = FinanceMetrics.startTimer();
+        Map<String, Double> expenses = new HashMap<>();
+        for (Map.Entry<String, MonthlyRollup.CategoryTotals> entry :
+                monthlyRollup.getCategoryTotals(YearMonth.from(month)).entrySet()) {
+            if (entry.getValue().getExpenseCount() > 0) {
+                expenses.put(entry.getKey(), entry.getValue().getExpense());
+            }
+        }
+        FinanceMetrics.stopTimer("finance.query.monthlyExpenseByCategory", start);
+        return expenses;
     }
 }
@@ -0,0 +1,204 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * METRICS: Counters, latency histograms and gauges for the hot paths
+ *
+ * Turned on with system properties (all off by default):
+ *   -Dfinance.metrics=true                      collect metrics and register the JMX bean
+ *   -Dfinance.metrics.logIntervalSeconds=60     print a dump every N seconds
+ *   -Dfinance.metrics.jfr=true                  also emit Java Flight Recorder events (JDK 11+)
+ *
+ * LOW OVERHEAD: ENABLED is a static final constant, so when metrics are off the
+ * JIT removes the checks and startTimer() does not even read the clock
+ */
+public final class FinanceMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("finance.metrics");
+
+    private static final String JMX_NAME = "com.laiba.financetracker:type=Metrics";
+    private static final String JFR_SINK_CLASS = "com.laiba.BeginnerProjects.PersonalFileTracker.FinanceJfrEvents";
+
+    /**
+     * Receives every timed operation - implemented by the optional JFR bridge
+     */
+    public interface EventSink {
+        void operation(String name, long nanos);
+    }
+
+    private static final Registry REGISTRY = new Registry();
+    private static final EventSink EVENT_SINK = ENABLED ? loadEventSink() : null;
+
+    static {
+        if (ENABLED) {
+            registerMBean();
+            startLogDump(Long.getLong("finance.metrics.logIntervalSeconds", 0));
+        }
+    }
+
+    private FinanceMetrics() {
+    }
+
+    // ========== RECORDING API ==========
+
+    /**
+     * Start timing an operation (returns 0 when metrics are off)
+     */
+    public static long startTimer() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Stop timing and record the latency under the given name
+     */
+    public static void stopTimer(String name, long startNanos) {
+        if (ENABLED) {
+            record(name, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Record a latency measured some other way (e.g. JVM start to first frame)
+     */
+    public static void record(String name, long nanos) {
+        if (!ENABLED) {
+            return;
+        }
+        REGISTRY.histogram(name).record(nanos);
+        if (EVENT_SINK != null) {
+            EVENT_SINK.operation(name, nanos);
+        }
+    }
+
+    public static void increment(String name) {
+        if (ENABLED) {
+            REGISTRY.counter(name).increment();
+        }
+    }
+
+    public static void add(String name, long amount) {
+        if (ENABLED) {
+            REGISTRY.counter(name).add(amount);
+        }
+    }
+
+    /**
+     * Gauges are read only when someone looks (JMX or log dump), never on the hot path
+     */
+    public static void registerGauge(String name, DoubleSupplier gauge) {
+        if (ENABLED) {
+            REGISTRY.gauges.put(name, gauge);
+        }
+    }
+
+    public static FinanceMetricsMXBean getRegistry() {
+        return REGISTRY;
+    }
+
+    // ========== SETUP ==========
+
+    private static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(REGISTRY, new ObjectName(JMX_NAME));
+        } catch (Exception e) {
+            System.err.println("Could not register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    private static void startLogDump(long intervalSeconds) {
+        if (intervalSeconds <= 0) {
+            return;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "finance-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> System.out.println(REGISTRY.dump()),
+                intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * The JFR bridge lives in jfr/ because it needs JDK 11+ - load it only if asked for and present
+     */
+    private static EventSink loadEventSink() {
+        if (!Boolean.getBoolean("finance.metrics.jfr")) {
+            return null;
+        }
+        try {
+            return (EventSink) Class.forName(JFR_SINK_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("JFR events not available: " + e);
+            return null;
+        }
+    }
+
+    // ========== REGISTRY (also the JMX bean) ==========
+
+    private static class Registry implements FinanceMetricsMXBean {
+        private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+        private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+        private final Map<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+
+        LongAdder counter(String name) {
+            LongAdder counter = counters.get(name);
+            return counter != null ? counter : counters.computeIfAbsent(name, n -> new LongAdder());
+        }
+
+        LatencyHistogram histogram(String name) {
+            LatencyHistogram histogram = histograms.get(name);
+            return histogram != null ? histogram : histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+        }
+
+        @Override
+        public Map<String, Long> getCounters() {
+            Map<String, Long> result = new TreeMap<>();
+            counters.forEach((name, counter) -> result.put(name, counter.sum()));
+            return result;
+        }
+
+        @Override
+        public Map<String, Double> getGauges() {
+            Map<String, Double> result = new TreeMap<>();
+            gauges.forEach((name, gauge) -> result.put(name, gauge.getAsDouble()));
+            return result;
+        }
+
+        @Override
+        public Map<String, String> getLatencies() {
+            Map<String, String> result = new TreeMap<>();
+            histograms.forEach((name, histogram) -> result.put(name, histogram.summary()));
+            return result;
+        }
+
+        @Override
+        public long getLatencyPercentileNanos(String name, double percent) {
+            LatencyHistogram histogram = histograms.get(name);
+            return histogram == null ? 0 : histogram.getPercentileNanos(percent);
+        }
+
+        @Override
+        public String dump() {
+            StringBuilder sb = new StringBuilder("=== Finance metrics ===\n");
+            getLatencies().forEach((name, summary) -> sb.append(name).append(": ").append(summary).append('\n'));
+            getCounters().forEach((name, value) -> sb.append(name).append(" = ").append(value).append('\n'));
+            getGauges().forEach((name, value) -> sb.append(name).append(" = ").append(String.format("%.0f", value)).append('\n'));
+            return sb.toString();
+        }
+
+        @Override
+        public void reset() {
+            counters.values().forEach(LongAdder::reset);
+            histograms.values().forEach(LatencyHistogram::reset);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.util.Map;
+
+/**
+ * JMX INTERFACE: What FinanceMetrics shows in JConsole / VisualVM
+ * Registered as com.laiba.financetracker:type=Metrics when metrics are enabled
+ */
+public interface FinanceMetricsMXBean {
+    Map<String, Long> getCounters();
+
+    Map<String, Double> getGauges();
+
+    // one line per operation: count, mean, p50, p99, p99.9, max
+    Map<String, String> getLatencies();
+
+    long getLatencyPercentileNanos(String name, double percent);
+
+    String dump();
+
+    void reset();
+}
@@ -3,11 +3,20 @@ import com.laiba.BeginnerProjects.PersonalFileTracker.DataPersistenceService;
 import com.laiba.BeginnerProjects.PersonalFileTracker.FinanceManager;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * MAIN APPLICATION CLASS
@@ -18,26 +27,59 @@ public class FinanceTrackerApp extends JFrame {
     // Core application components
     private FinanceManager financeManager ;
     private DataPersistenceService dataService ;
+    private RecurringTransactionScheduler recurringScheduler;
+    private CashFlowForecaster forecaster;
+    private AutoSaveService autoSaveService;
+    private SyncService syncService;
+    private CashFlowSeries cashFlowSeries;
 
     // UI Components organized by module
     private JTabbedPane mainTabs;
 
     // Dashboard components
     private JLabel balanceLabel, incomeLabel, expenseLabel;
+    // CURRENCY: header and charts are shown in this one (-Dfinance.reportingCurrency)
+    private JComboBox<String> reportingCurrencyComboBox;
+    private String reportingCurrency = ExchangeRateTable.normalize(System.getProperty("finance.reportingCurrency",
+            System.getProperty("finance.currency", "USD")));
     private JTextArea recentTransactionsArea;
+    private TimeSeriesChart balanceChart, categoryChart;
+    private JComboBox<String> balanceResolutionComboBox;
 
     // Add Transaction components
     private JTextField amountField, descriptionField;
     private JComboBox<TransactionType> typeComboBox;
     private JComboBox<String> categoryComboBox;
+    private JComboBox<Object> repeatComboBox;
+    private JComboBox<String> currencyComboBox;
 
     // Transactions components
     private JTable transactionsTable;
-    private DefaultTableModel transactionsTableModel;
+    private final TransactionTableModel transactionsTableModel = new TransactionTableModel();
 
     // Budgets components
     private JTextArea budgetsDisplayArea;
 
+    // Forecast components
+    private JTextArea forecastArea;
+    private JComboBox<Integer> forecastMonthsComboBox;
+
+    // Incremental refresh: changes wait here until the next frame
+    private final List<FinanceChangeEvent> pendingChanges = new ArrayList<>();
+    private Timer repaintTimer;
+
+    // Startup: the window shows first, the data loads in the background and
+    // each tab is built the first time it is opened
+    private static final String[] TAB_TITLES =
+            {"📊 Dashboard", "➕ Add Transaction", "📋 Transactions", "💰 Budgets", "📈 Forecast"};
+    private final boolean[] tabBuilt = new boolean[TAB_TITLES.length];
+    private final List<Action> dataActions = new ArrayList<>();
+    private JProgressBar loadProgressBar;
+    private boolean dataLoaded;
+    // Budgets / Forecast tabs out of date (redrawn when they are next shown)
+    private boolean budgetsStale;
+    private boolean forecastStale;
+
     // Colors for consistent styling
     private final Color PRIMARY_COLOR = new Color(70, 130, 180);
     private final Color INCOME_COLOR = new Color(34, 139, 34);
@@ -53,11 +95,41 @@ public class FinanceTrackerApp extends JFrame {
     /**
      * MODULE 1: APPLICATION INITIALIZATION
      * Purpose: Set up core application components
+     * Nothing is read from disk here - the window must show first (see loadApplicationData)
      */
     private void initializeApplication() {
         // Initialize data services
-        dataService = new DataPersistenceService();
-        financeManager = dataService.loadData();
+        // -Dfinance.account=<id> opens that account's ledger instead of the single default one
+        String account = System.getProperty("finance.account");
+        dataService = account == null
+                ? new DataPersistenceService()
+                : DataPersistenceService.forAccount(System.getProperty("finance.ledgers.dir", "ledgers"), account);
+
+        // DEBOUNCE: all changes within one frame (~16ms) are painted together
+        repaintTimer = new Timer(16, e -> applyPendingChanges());
+        repaintTimer.setRepeats(false);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // JVM start to first frame - the number to watch when changing startup code
+                // (the management classes are only loaded when metrics are on)
+                if (FinanceMetrics.ENABLED) {
+                    FinanceMetrics.record("ui.firstFrame",
+                            TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime()));
+                }
+            }
+
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (syncService != null && autoSaveService != null) {
+                    syncService.shutdown(); // before the final save, which it may still need
+                }
+                if (autoSaveService != null) { // still loading = nothing changed yet
+                    autoSaveService.shutdown();
+                }
+            }
+        });
 
         // Basic window setup
         setTitle("💰 Personal Finance Tracker");
@@ -104,16 +176,30 @@ public class FinanceTrackerApp extends JFrame {
     }
 
     private JPanel createStatsPanel() {
-        JPanel stats = new JPanel(new GridLayout(1, 3, 20, 0));
+        JPanel stats = new JPanel(new GridLayout(1, 4, 20, 0));
         stats.setBackground(PRIMARY_COLOR);
 
-        balanceLabel = createStatLabel("Balance: $0.00", Color.WHITE);
-        incomeLabel = createStatLabel("Income: $0.00", Color.GREEN);
-        expenseLabel = createStatLabel("Expenses: $0.00", new Color(255, 150, 150));
+        balanceLabel = createStatLabel("Balance: " + Money.format(0, reportingCurrency), Color.WHITE);
+        incomeLabel = createStatLabel("Income: " + Money.format(0, reportingCurrency), Color.GREEN);
+        expenseLabel = createStatLabel("Expenses: " + Money.format(0, reportingCurrency), new Color(255, 150, 150));
+
+        // filled with the currencies the rate table knows once the ledger is loaded
+        reportingCurrencyComboBox = new JComboBox<>(new String[]{reportingCurrency});
+        reportingCurrencyComboBox.setEnabled(false);
+        reportingCurrencyComboBox.setToolTipText("Show totals and charts in this currency");
+        reportingCurrencyComboBox.addActionListener(e -> {
+            String selected = (String) reportingCurrencyComboBox.getSelectedItem();
+            if (dataLoaded && selected != null && !selected.equals(reportingCurrency)) {
+                reportingCurrency = selected;
+                updateHeaderStats();
+                refreshCharts();
+            }
+        });
 
         stats.add(balanceLabel);
         stats.add(incomeLabel);
         stats.add(expenseLabel);
+        stats.add(reportingCurrencyComboBox);
 
         return stats;
     }
@@ -133,16 +219,56 @@ public class FinanceTrackerApp extends JFrame {
         mainTabs = new JTabbedPane();
 
         // Each tab is a separate module
-        mainTabs.addTab("📊 Dashboard", createDashboardTab());
-        mainTabs.addTab("➕ Add Transaction", createAddTransactionTab());
-        mainTabs.addTab("📋 Transactions", createTransactionsTab());
-        mainTabs.addTab("💰 Budgets", createBudgetsTab());
+        // LAZY TABS: only a placeholder for now, the real tab is built when first opened
+        for (String title : TAB_TITLES) {
+            JPanel placeholder = new JPanel(new BorderLayout());
+            placeholder.add(new JLabel("Loading...", JLabel.CENTER), BorderLayout.CENTER);
+            mainTabs.addTab(title, placeholder);
+        }
+        mainTabs.addChangeListener(e -> {
+            ensureTabBuilt(mainTabs.getSelectedIndex());
+            refreshStaleTab();
+        });
 
         JPanel contentPanel = new JPanel(new BorderLayout());
         contentPanel.add(mainTabs, BorderLayout.CENTER);
         return contentPanel;
     }
 
+    /**
+     * LAZY TABS: Build a tab the first time it is shown, then fill it
+     * Until the data is loaded the placeholder stays
+     */
+    private void ensureTabBuilt(int index) {
+        if (!dataLoaded || index < 0 || tabBuilt[index]) {
+            return;
+        }
+        long start = FinanceMetrics.startTimer();
+        tabBuilt[index] = true;
+        switch (index) {
+            case 0:
+                mainTabs.setComponentAt(index, createDashboardTab());
+                refreshRecentTransactions();
+                refreshCharts();
+                break;
+            case 1:
+                mainTabs.setComponentAt(index, createAddTransactionTab());
+                break;
+            case 2:
+                mainTabs.setComponentAt(index, createTransactionsTab());
+                break;
+            case 3:
+                mainTabs.setComponentAt(index, createBudgetsTab());
+                refreshBudgetsDisplay();
+                break;
+            default:
+                mainTabs.setComponentAt(index, createForecastTab());
+                refreshForecastDisplay();
+                break;
+        }
+        FinanceMetrics.stopTimer("ui.buildTab", start);
+    }
+
     /**
      * MODULE 5: FOOTER PANEL
      * Purpose: Global actions like save data
@@ -151,13 +277,67 @@ public class FinanceTrackerApp extends JFrame {
         JPanel footer = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         footer.setBorder(BorderFactory.createEtchedBorder());
 
-        JButton saveButton = new JButton("💾 Save Data");
-        saveButton.addActionListener(e -> saveData());
-
-        footer.add(saveButton);
+        // Shown while the data is loading
+        loadProgressBar = new JProgressBar(0, 100);
+        loadProgressBar.setStringPainted(true);
+        loadProgressBar.setString("Starting...");
+
+        Action undoAction = createDataAction("↶ Undo", this::undoLastChange);
+        Action redoAction = createDataAction("↷ Redo", this::redoLastChange);
+        Action saveAction = createDataAction("💾 Save Data", this::saveData);
+
+        // KEYBOARD SHORTCUTS: Ctrl+Z / Ctrl+Y anywhere in the window
+        InputMap keys = footer.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        int menuKey = menuShortcutKeyMask();
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, menuKey), "undo");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, menuKey), "redo");
+        footer.getActionMap().put("undo", undoAction);
+        footer.getActionMap().put("redo", redoAction);
+
+        footer.add(loadProgressBar);
+        footer.add(new JButton(undoAction));
+        footer.add(new JButton(redoAction));
+        footer.add(new JButton(saveAction));
         return footer;
     }
 
+    /**
+     * A footer action that needs the data - disabled until it is loaded
+     */
+    private Action createDataAction(String name, Runnable action) {
+        Action dataAction = new AbstractAction(name) {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                action.run();
+            }
+        };
+        dataAction.setEnabled(false);
+        dataActions.add(dataAction);
+        return dataAction;
+    }
+
+    /**
+     * ACTION: Undo / redo the last change to the transactions
+     * The panels update themselves from the change events
+     */
+    private void undoLastChange() {
+        String description = financeManager.getUndoDescription();
+        if (!financeManager.undo()) {
+            showMessage("Nothing to undo", "Undo", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            setTitle("💰 Personal Finance Tracker - undone: " + description);
+        }
+    }
+
+    private void redoLastChange() {
+        String description = financeManager.getRedoDescription();
+        if (!financeManager.redo()) {
+            showMessage("Nothing to redo", "Redo", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            setTitle("💰 Personal Finance Tracker - redone: " + description);
+        }
+    }
+
     // ========== FEATURE MODULES ==========
 
     /**
@@ -171,24 +351,51 @@ public class FinanceTrackerApp extends JFrame {
         // Summary cards at top
         dashboard.add(createSummaryCards(), BorderLayout.NORTH);
 
-        // Recent transactions in middle
-        recentTransactionsArea = new JTextArea(15, 50);
+        // Charts in middle
+        dashboard.add(createChartsPanel(), BorderLayout.CENTER);
+
+        // Recent transactions at bottom
+        recentTransactionsArea = new JTextArea(7, 50);
         recentTransactionsArea.setEditable(false);
         recentTransactionsArea.setFont(new Font("Consolas", Font.PLAIN, 12));
         JScrollPane scrollPane = new JScrollPane(recentTransactionsArea);
 
-        dashboard.add(scrollPane, BorderLayout.CENTER);
+        dashboard.add(scrollPane, BorderLayout.SOUTH);
 
         return dashboard;
     }
 
+    /**
+     * Balance over time and monthly spend of the biggest categories
+     */
+    private JPanel createChartsPanel() {
+        JPanel charts = new JPanel(new GridLayout(2, 1, 10, 10));
+
+        balanceChart = new TimeSeriesChart("Balance");
+        categoryChart = new TimeSeriesChart("Monthly Spend - Top Categories");
+        balanceResolutionComboBox = new JComboBox<>(new String[]{"Daily", "Monthly"});
+        balanceResolutionComboBox.addActionListener(e -> refreshCharts());
+
+        JPanel options = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        options.add(new JLabel("Balance per:"));
+        options.add(balanceResolutionComboBox);
+        JPanel balancePanel = new JPanel(new BorderLayout());
+        balancePanel.add(options, BorderLayout.NORTH);
+        balancePanel.add(balanceChart, BorderLayout.CENTER);
+
+        charts.add(balancePanel);
+        charts.add(categoryChart);
+        return charts;
+    }
+
     private JPanel createSummaryCards() {
         JPanel cardsPanel = new JPanel(new GridLayout(1, 4, 15, 15));
 
         // These will be populated with actual data
-        cardsPanel.add(createCard("Current Balance", "$0.00", PRIMARY_COLOR));
-        cardsPanel.add(createCard("Total Income", "$0.00", INCOME_COLOR));
-        cardsPanel.add(createCard("Total Expenses", "$0.00", EXPENSE_COLOR));
+        String zero = Money.format(0, financeManager.getBaseCurrency());
+        cardsPanel.add(createCard("Current Balance", zero, PRIMARY_COLOR));
+        cardsPanel.add(createCard("Total Income", zero, INCOME_COLOR));
+        cardsPanel.add(createCard("Total Expenses", zero, EXPENSE_COLOR));
         cardsPanel.add(createCard("Transactions", "0", Color.ORANGE));
 
         return cardsPanel;
@@ -239,6 +446,16 @@ public class FinanceTrackerApp extends JFrame {
         categoryComboBox = new JComboBox<>(categories);
 
         descriptionField = new JTextField(20);
+
+        // the ledger's own currency first, then every one the rate table can convert
+        currencyComboBox = new JComboBox<>(availableCurrencies().toArray(new String[0]));
+
+        // "Once" or one of the recurrence frequencies
+        repeatComboBox = new JComboBox<>();
+        repeatComboBox.addItem("Once");
+        for (RecurrenceFrequency frequency : RecurrenceFrequency.values()) {
+            repeatComboBox.addItem(frequency);
+        }
         JButton addButton = new JButton("💾 Add Transaction");
 
         // Layout setup
@@ -247,9 +464,12 @@ public class FinanceTrackerApp extends JFrame {
 
         gbc.gridwidth = 1;
         gbc.gridy = 1; gbc.gridx = 0;
-        addTransactionPanel.add(new JLabel("Amount ($):"), gbc);
+        addTransactionPanel.add(new JLabel("Amount:"), gbc);
         gbc.gridx = 1;
-        addTransactionPanel.add(amountField, gbc);
+        JPanel amountPanel = new JPanel(new BorderLayout(5, 0));
+        amountPanel.add(amountField, BorderLayout.CENTER);
+        amountPanel.add(currencyComboBox, BorderLayout.EAST);
+        addTransactionPanel.add(amountPanel, gbc);
 
         gbc.gridy = 2; gbc.gridx = 0;
         addTransactionPanel.add(new JLabel("Type:"), gbc);
@@ -266,16 +486,49 @@ public class FinanceTrackerApp extends JFrame {
         gbc.gridx = 1;
         addTransactionPanel.add(descriptionField, gbc);
 
-        gbc.gridy = 5; gbc.gridx = 0; gbc.gridwidth = 2;
+        gbc.gridy = 5; gbc.gridx = 0;
+        addTransactionPanel.add(new JLabel("Repeat:"), gbc);
+        gbc.gridx = 1;
+        addTransactionPanel.add(repeatComboBox, gbc);
+
+        gbc.gridy = 6; gbc.gridx = 0; gbc.gridwidth = 2;
         gbc.anchor = GridBagConstraints.CENTER;
         addTransactionPanel.add(addButton, gbc);
 
         // Event handling
         addButton.addActionListener(e -> addNewTransaction());
+        descriptionField.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                suggestCategory();
+            }
+        });
 
         return addTransactionPanel;
     }
 
+    /**
+     * AUTO-CATEGORIZE: Pre-select the suggested category once a description is typed
+     * Only categories already in the list are selected; the user can still change it
+     */
+    private void suggestCategory() {
+        String description = descriptionField.getText().trim();
+        if (description.isEmpty()) {
+            return;
+        }
+        TransactionCategorizer.Suggestion suggestion = financeManager.getCategorizer()
+                .suggest(description, (TransactionType) typeComboBox.getSelectedItem());
+        if (suggestion == null) {
+            return;
+        }
+        for (int i = 0; i < categoryComboBox.getItemCount(); i++) {
+            if (categoryComboBox.getItemAt(i).equalsIgnoreCase(suggestion.getCategory())) {
+                categoryComboBox.setSelectedIndex(i);
+                return;
+            }
+        }
+    }
+
     /**
      * ACTION: Add new transaction from form
      */
@@ -286,31 +539,56 @@ public class FinanceTrackerApp extends JFrame {
             TransactionType type = (TransactionType) typeComboBox.getSelectedItem();
             String category = (String) categoryComboBox.getSelectedItem();
             String description = descriptionField.getText();
+            String currency = (String) currencyComboBox.getSelectedItem();
+            boolean inBaseCurrency = currency.equals(financeManager.getBaseCurrency());
 
             // Validate
             if (amount <= 0) {
                 throw new NumberFormatException("Amount must be positive");
             }
 
-            // Create transaction
-            Transaction transaction = new Transaction(
-                    generateTransactionId(),
-                    amount,
-                    category,
-                    new java.sql.Date(System.currentTimeMillis()),
-                    description,
-                    type
-            );
-
-            // Add to manager
-            financeManager.addTransaction(transaction);
+            Object repeat = repeatComboBox.getSelectedItem();
+            if (repeat instanceof RecurrenceFrequency && !inBaseCurrency) {
+                throw new InvalidTrasactionException("Recurring transactions are kept in "
+                        + financeManager.getBaseCurrency());
+            }
+            if (repeat instanceof RecurrenceFrequency) {
+                // Recurring: store the template, the scheduler adds today's occurrence
+                RecurringTransaction recurring = new RecurringTransaction(
+                        generateTransactionId(),
+                        amount,
+                        category,
+                        description,
+                        type,
+                        (RecurrenceFrequency) repeat,
+                        1,
+                        LocalDate.now(),
+                        null
+                );
+                financeManager.addRecurringTransaction(recurring);
+                recurringScheduler.materializeDueTransactions(LocalDate.now());
+            } else {
+                // Create transaction
+                Transaction transaction = new Transaction(
+                        generateTransactionId(),
+                        amount,
+                        inBaseCurrency ? null : currency,
+                        category,
+                        new java.sql.Date(System.currentTimeMillis()),
+                        description,
+                        type
+                );
+
+                // Add to manager
+                financeManager.addTransaction(transaction);
+            }
 
             // Reset form
             amountField.setText("");
             descriptionField.setText("");
+            repeatComboBox.setSelectedIndex(0);
 
-            // Update UI
-            refreshAllDisplays();
+            // UI updates itself from the change event
             showMessage("Transaction added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
 
         } catch (NumberFormatException ex) {
@@ -328,27 +606,28 @@ public class FinanceTrackerApp extends JFrame {
         JPanel transactionsPanel = new JPanel(new BorderLayout(10, 10));
         transactionsPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
 
-        // Table setup
-        String[] columns = {"ID", "Date", "Type", "Category", "Amount", "Description"};
-        transactionsTableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Read-only table
-            }
-        };
-
+        // Table setup (the model is filled as soon as the data is loaded)
         transactionsTable = new JTable(transactionsTableModel);
         JScrollPane tableScroll = new JScrollPane(transactionsTable);
 
         // Control buttons
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         JButton refreshButton = new JButton("🔄 Refresh");
+        JButton editButton = new JButton("✏️ Edit Selected");
+        JButton renameButton = new JButton("🏷️ Rename Category");
+        JButton ruleButton = new JButton("📋 Add Rule");
         JButton deleteButton = new JButton("🗑️ Delete Selected");
 
         refreshButton.addActionListener(e -> refreshTransactionsTable());
+        editButton.addActionListener(e -> editSelectedTransaction());
+        renameButton.addActionListener(e -> renameCategory());
+        ruleButton.addActionListener(e -> addCategoryRule());
         deleteButton.addActionListener(e -> deleteSelectedTransaction());
 
         buttonPanel.add(refreshButton);
+        buttonPanel.add(editButton);
+        buttonPanel.add(renameButton);
+        buttonPanel.add(ruleButton);
         buttonPanel.add(deleteButton);
 
         transactionsPanel.add(new JLabel("All Transactions:"), BorderLayout.NORTH);
@@ -362,18 +641,98 @@ public class FinanceTrackerApp extends JFrame {
      * ACTION: Refresh transactions table
      */
     private void refreshTransactionsTable() {
-        transactionsTableModel.setRowCount(0); // Clear table
+        transactionsTableModel.setTransactions(financeManager.getAllTransactions());
+    }
+
+    /**
+     * ACTION: Edit selected transaction (amount, category, description)
+     */
+    private void editSelectedTransaction() {
+        int selectedRow = transactionsTable.getSelectedRow();
+        if (selectedRow == -1) {
+            showMessage("Please select a transaction to edit", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        Transaction selected = transactionsTableModel.getTransactionAt(selectedRow);
+
+        JTextField amountField = new JTextField(String.format(Locale.ROOT, "%.2f", selected.getAmount()));
+        JTextField categoryField = new JTextField(selected.getCategory());
+        JTextField descriptionField = new JTextField(selected.getDescription());
+        JPanel form = new JPanel(new GridLayout(3, 2, 5, 5));
+        form.add(new JLabel("Amount:"));
+        form.add(amountField);
+        form.add(new JLabel("Category:"));
+        form.add(categoryField);
+        form.add(new JLabel("Description:"));
+        form.add(descriptionField);
+
+        int result = JOptionPane.showConfirmDialog(this, form, "Edit Transaction",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        try {
+            TransactionPatch patch = new TransactionPatch()
+                    .amount(Double.parseDouble(amountField.getText().trim()))
+                    .category(categoryField.getText().trim())
+                    .description(descriptionField.getText().trim());
+            // The table row is swapped by the TRANSACTIONS_UPDATED event
+            financeManager.updateTransaction(selected.getId(), patch);
+        } catch (NumberFormatException ex) {
+            showMessage("Please enter a valid positive amount", "Error", JOptionPane.ERROR_MESSAGE);
+        } catch (InvalidTrasactionException ex) {
+            showMessage(ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
-        for (Transaction transaction : financeManager.getAllTransactions()) {
-            Object[] row = {
-                    transaction.getId(),
-                    transaction.getDate(),
-                    transaction.getType().getDisplayName(),
-                    transaction.getCategory(),
-                    String.format("$%.2f", transaction.getAmount()),
-                    transaction.getDescription()
-            };
-            transactionsTableModel.addRow(row);
+    /**
+     * ACTION: Move every transaction of one category to another (bulk edit)
+     */
+    private void renameCategory() {
+        String from = JOptionPane.showInputDialog(this, "Category to rename:", "Rename Category",
+                JOptionPane.QUESTION_MESSAGE);
+        if (from == null || from.trim().isEmpty()) {
+            return;
+        }
+        String to = JOptionPane.showInputDialog(this, "New name for \"" + from.trim() + "\":",
+                "Rename Category", JOptionPane.QUESTION_MESSAGE);
+        if (to == null) {
+            return;
+        }
+
+        try {
+            int changed = financeManager.recategorize(from.trim(), to.trim());
+            showMessage(changed + " transaction(s) moved to " + to.trim(), "Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (InvalidTrasactionException ex) {
+            showMessage(ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * ACTION: New categorization rule, e.g. every "netflix" description -> Entertainment
+     */
+    private void addCategoryRule() {
+        JTextField keywordField = new JTextField();
+        JTextField categoryField = new JTextField();
+        JPanel form = new JPanel(new GridLayout(2, 2, 5, 5));
+        form.add(new JLabel("Description contains:"));
+        form.add(keywordField);
+        form.add(new JLabel("Category:"));
+        form.add(categoryField);
+
+        int result = JOptionPane.showConfirmDialog(this, form, "Add Category Rule",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        try {
+            financeManager.setCategoryRule(keywordField.getText(), categoryField.getText());
+            showMessage("Rule saved (" + financeManager.getCategoryRules().size() + " rules)", "Success",
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (InvalidTrasactionException ex) {
+            showMessage(ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -395,12 +754,10 @@ public class FinanceTrackerApp extends JFrame {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            String transactionId = (String) transactionsTableModel.getValueAt(selectedRow, 0);
+            String transactionId = transactionsTableModel.getTransactionAt(selectedRow).getId();
             boolean deleted = financeManager.deleteTransaction(transactionId);
 
             if (deleted) {
-                refreshTransactionsTable();
-                refreshAllDisplays();
                 showMessage("Transaction deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             }
         }
@@ -435,12 +792,15 @@ public class FinanceTrackerApp extends JFrame {
         String[] categories = {"Food", "Transport", "Entertainment", "Bills", "Shopping", "Healthcare"};
         JComboBox<String> categoryCombo = new JComboBox<>(categories);
         JTextField amountField = new JTextField();
+        JComboBox<String> currencyCombo = new JComboBox<>(availableCurrencies().toArray(new String[0]));
         JButton setBudgetButton = new JButton("💰 Set Budget");
 
         inputPanel.add(new JLabel("Category:"));
         inputPanel.add(categoryCombo);
-        inputPanel.add(new JLabel("Monthly Budget ($):"));
+        inputPanel.add(new JLabel("Monthly Budget:"));
         inputPanel.add(amountField);
+        inputPanel.add(new JLabel("Currency:"));
+        inputPanel.add(currencyCombo);
         inputPanel.add(new JLabel());
         inputPanel.add(setBudgetButton);
 
@@ -450,13 +810,14 @@ public class FinanceTrackerApp extends JFrame {
                 double amount = Double.parseDouble(amountField.getText());
                 LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
 
-                financeManager.setBudget(category, amount, currentMonth);
+                financeManager.setBudget(category, amount, currentMonth, (String) currencyCombo.getSelectedItem());
                 amountField.setText("");
-                refreshBudgetsDisplay();
                 showMessage("Budget set successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
 
             } catch (NumberFormatException ex) {
                 showMessage("Please enter a valid amount", "Error", JOptionPane.ERROR_MESSAGE);
+            } catch (InvalidTrasactionException ex) {
+                showMessage(ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
         });
 
@@ -467,6 +828,9 @@ public class FinanceTrackerApp extends JFrame {
      * ACTION: Refresh budgets display
      */
     private void refreshBudgetsDisplay() {
+        if (budgetsDisplayArea == null) return;
+        budgetsStale = false;
+
         StringBuilder sb = new StringBuilder();
         sb.append("MONTHLY BUDGETS\n");
         sb.append("===============\n\n");
@@ -477,10 +841,11 @@ public class FinanceTrackerApp extends JFrame {
             sb.append("No budgets set. Use the form above to set monthly budgets.\n");
         } else {
             for (Budget budget : budgets) {
+                String currency = budget.getCurrency() != null ? budget.getCurrency() : financeManager.getBaseCurrency();
                 sb.append(String.format("Category: %s\n", budget.getCategory()));
-                sb.append(String.format("Budget: $%.2f\n", budget.getAllocatedAmount()));
-                sb.append(String.format("Spent: $%.2f\n", budget.getSpentAmount()));
-                sb.append(String.format("Remaining: $%.2f\n", budget.getRemainingAmount()));
+                sb.append(String.format("Budget: %s\n", Money.format(budget.getAllocatedAmount(), currency)));
+                sb.append(String.format("Spent: %s\n", Money.format(budget.getSpentAmount(), currency)));
+                sb.append(String.format("Remaining: %s\n", Money.format(budget.getRemainingAmount(), currency)));
                 sb.append("----------------\n");
             }
         }
@@ -488,36 +853,321 @@ public class FinanceTrackerApp extends JFrame {
         budgetsDisplayArea.setText(sb.toString());
     }
 
+    /**
+     * FEATURE MODULE: FORECAST TAB
+     * Purpose: Projected balance for the coming months
+     */
+    private JPanel createForecastTab() {
+        JPanel forecastPanel = new JPanel(new BorderLayout(10, 10));
+        forecastPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        JPanel inputPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        forecastMonthsComboBox = new JComboBox<>(new Integer[]{3, 6, 12});
+        forecastMonthsComboBox.setSelectedItem(6);
+        forecastMonthsComboBox.addActionListener(e -> refreshForecastDisplay());
+        inputPanel.add(new JLabel("Months ahead:"));
+        inputPanel.add(forecastMonthsComboBox);
+
+        forecastArea = new JTextArea(15, 50);
+        forecastArea.setEditable(false);
+        forecastArea.setFont(new Font("Consolas", Font.PLAIN, 12));
+
+        forecastPanel.add(inputPanel, BorderLayout.NORTH);
+        forecastPanel.add(new JScrollPane(forecastArea), BorderLayout.CENTER);
+
+        return forecastPanel;
+    }
+
+    /**
+     * ACTION: Refresh forecast display
+     */
+    private void refreshForecastDisplay() {
+        if (forecastArea == null) return;
+        forecastStale = false;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("CASH-FLOW FORECAST\n");
+        sb.append("==================\n\n");
+
+        List<CashFlowForecaster.ForecastPoint> points =
+                forecaster.forecast((Integer) forecastMonthsComboBox.getSelectedItem());
+
+        if (financeManager.getMonthlyRollup().getMonths().isEmpty()) {
+            sb.append("Not enough history yet. Add some transactions to see a forecast.\n");
+        } else {
+            sb.append(String.format("%-10s %12s %12s %14s\n", "Month", "Income", "Expenses", "Balance"));
+            String currency = financeManager.getBaseCurrency();
+            for (CashFlowForecaster.ForecastPoint point : points) {
+                sb.append(String.format("%-10s %12s %12s %14s\n",
+                        point.getMonth(),
+                        Money.format(point.getIncome(), currency),
+                        Money.format(point.getExpenses(), currency),
+                        Money.format(point.getBalance(), currency)));
+            }
+        }
+
+        forecastArea.setText(sb.toString());
+    }
+
     // ========== UTILITY METHODS ==========
 
     /**
      * Load initial application data
+     * STAGED STARTUP: the window is already up, nothing here blocks it
+     * 1. Header: the totals cached by the last save - one small file, shown right away
+     * 2. Background thread: load the ledger, add due recurring rows, archive old months
+     * 3. UI thread: connect listeners and auto-save, then build the open tab
      */
     private void loadApplicationData() {
-        refreshAllDisplays();
+        LedgerSummary cached = dataService.readCachedSummary();
+        if (cached != null) {
+            showHeaderStats(cached.getBalance(), cached.getTotalIncome(), cached.getTotalExpenses(), cached.getCurrency());
+        }
+
+        SwingWorker<List<Transaction>, String> loader = new SwingWorker<List<Transaction>, String>() {
+            private int archived;
+
+            @Override
+            protected List<Transaction> doInBackground() {
+                publish("Loading data...");
+                financeManager = dataService.loadData();
+                setProgress(60);
+
+                // before anything changes, so the recurring rows below are sent to other machines too
+                try {
+                    syncService = SyncService.fromSystemProperties(financeManager);
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Sync is off: " + e.getMessage());
+                }
+
+                publish("Adding recurring transactions...");
+                recurringScheduler = new RecurringTransactionScheduler(financeManager);
+                forecaster = financeManager.getCashFlowForecaster();
+                materializeRecurringTransactions();
+                setProgress(75);
+
+                publish("Archiving old months...");
+                archived = archiveClosedMonths();
+                if (cached == null) {
+                    dataService.writeCachedSummary(financeManager); // so the next start has one
+                }
+                setProgress(85);
+
+                publish("Preparing charts...");
+                cashFlowSeries = financeManager.getCashFlowSeries();
+                setProgress(95);
+
+                publish("Preparing views...");
+                return financeManager.getAllTransactions();
+            }
+
+            @Override
+            protected void process(List<String> stages) {
+                loadProgressBar.setString(stages.get(stages.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    onDataLoaded(get(), archived);
+                } catch (InterruptedException | ExecutionException ex) {
+                    loadProgressBar.setString("Loading failed");
+                    showMessage("Could not load data: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        loader.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                loadProgressBar.setValue((Integer) e.getNewValue());
+            }
+        });
+        loader.execute();
     }
 
     /**
-     * Refresh all UI displays
+     * STAGE 3 (UI thread): The data is in - connect everything that needs it
      */
-    private void refreshAllDisplays() {
+    private void onDataLoaded(List<Transaction> transactions, int archived) {
+        long start = FinanceMetrics.startTimer();
+
+        // Gauges are only read when metrics are enabled and someone looks at them
+        FinanceMetrics.registerGauge("ledger.size", () -> financeManager.getTransactionCount());
+        FinanceMetrics.registerGauge("index.memory.bytes",
+                () -> financeManager.getMonthlyRollup().estimateMemoryBytes());
+
+        // Check again every hour so occurrences show up when the date changes
+        new Timer(60 * 60 * 1000, e -> materializeRecurringTransactions()).start();
+        financeManager.addChangeListener(this::onFinanceChange);
+
+        // Background saving - the UI thread never waits for the disk
+        autoSaveService = new AutoSaveService(dataService, financeManager);
+        autoSaveService.start();
+        if (archived > 0) {
+            autoSaveService.saveNow(); // the saved copy should not hold the archived rows any more
+        }
+        if (!dataService.isAutoSaveEnabled()) {
+            // the empty ledger must not be synced or saved over the damaged one by accident
+            syncService = null;
+            SwingUtilities.invokeLater(() -> showMessage(
+                    "The saved data could not be read, so it was kept as it is (see the console).\n"
+                            + "Auto-save is off for this session.",
+                    "Data Damaged", JOptionPane.WARNING_MESSAGE));
+        }
+        if (syncService != null) {
+            try {
+                syncService.start(autoSaveService);
+            } catch (IOException e) {
+                System.err.println("Could not start sync: " + e.getMessage());
+            }
+        }
+
+        transactionsTableModel.setBaseCurrency(financeManager.getBaseCurrency());
+        transactionsTableModel.setTransactions(transactions);
+        List<String> currencies = availableCurrencies();
+        if (!currencies.contains(reportingCurrency)) {
+            reportingCurrency = financeManager.getBaseCurrency();
+        }
+        reportingCurrencyComboBox.setModel(new DefaultComboBoxModel<>(currencies.toArray(new String[0])));
+        reportingCurrencyComboBox.setSelectedItem(reportingCurrency);
+        reportingCurrencyComboBox.setEnabled(currencies.size() > 1);
         updateHeaderStats();
-        refreshTransactionsTable();
-        refreshBudgetsDisplay();
-        refreshRecentTransactions();
+        dataLoaded = true;
+        for (Action action : dataActions) {
+            action.setEnabled(true);
+        }
+        loadProgressBar.setVisible(false);
+        ensureTabBuilt(mainTabs.getSelectedIndex());
+        FinanceMetrics.stopTimer("ui.dataLoaded", start);
+    }
+
+    /**
+     * LISTENER: Queue a change and make sure a repaint is scheduled
+     * Bursts (imports, recurring catch-up) end up in a single repaint
+     */
+    private void onFinanceChange(FinanceChangeEvent event) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> onFinanceChange(event));
+            return;
+        }
+        pendingChanges.add(event);
+        if (!repaintTimer.isRunning()) {
+            repaintTimer.start();
+        }
+    }
+
+    /**
+     * INCREMENTAL REFRESH: Apply only the queued deltas to each panel
+     * Cost depends on the size of the changes, not on the size of the history
+     */
+    private void applyPendingChanges() {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+        long start = FinanceMetrics.startTimer();
+        boolean transactionsChanged = false;
+        boolean budgetsChanged = false;
+
+        for (FinanceChangeEvent event : pendingChanges) {
+            switch (event.getType()) {
+                case TRANSACTIONS_ADDED:
+                    transactionsTableModel.addTransactions(event.getTransactions());
+                    transactionsChanged = true;
+                    budgetsChanged |= touchesBudget(event);
+                    break;
+                case TRANSACTIONS_REMOVED:
+                    for (Transaction transaction : event.getTransactions()) {
+                        transactionsTableModel.removeTransaction(transaction.getId());
+                    }
+                    transactionsChanged = true;
+                    budgetsChanged |= touchesBudget(event);
+                    break;
+                case TRANSACTIONS_UPDATED:
+                    transactionsTableModel.updateTransactions(event.getTransactions());
+                    transactionsChanged = true;
+                    budgetsChanged |= touchesBudget(event);
+                    break;
+                case BUDGET_CHANGED:
+                    budgetsChanged = true;
+                    break;
+                case PARTITIONS_ARCHIVED:
+                    // rows left the active window - rare, so just reload the table
+                    transactionsTableModel.setTransactions(financeManager.getAllTransactions());
+                    transactionsChanged = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+        FinanceMetrics.add("ui.coalescedChanges", pendingChanges.size());
+        pendingChanges.clear();
+
+        if (transactionsChanged) {
+            updateHeaderStats();
+            refreshRecentTransactions();
+            refreshCharts();
+            forecastStale = true;
+        }
+        if (budgetsChanged) {
+            budgetsStale = true;
+        }
+        refreshStaleTab();
+        FinanceMetrics.stopTimer("ui.applyPendingChanges", start);
+    }
+
+    /**
+     * Did this change move the spending of a budget that exists?
+     * (an expense in a category/month without a budget changes nothing on the Budgets tab)
+     */
+    private boolean touchesBudget(FinanceChangeEvent event) {
+        if (!event.affectsExpenses()) {
+            return false;
+        }
+        List<Transaction> touched = new ArrayList<>(event.getTransactions());
+        touched.addAll(event.getPreviousTransactions());
+        for (Transaction transaction : touched) {
+            if (transaction.getType() == TransactionType.EXPENSE
+                    && financeManager.getBudget(transaction.getCategory(), transaction.getLocalDate().withDayOfMonth(1)) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * LAZY REFRESH: Only the tab on screen is redrawn; a hidden Budgets or
+     * Forecast tab just remembers it is stale and catches up when selected
+     */
+    private void refreshStaleTab() {
+        int selected = mainTabs.getSelectedIndex();
+        if (selected == 3 && budgetsStale) {
+            refreshBudgetsDisplay();
+        } else if (selected == 4 && forecastStale) {
+            refreshForecastDisplay();
+        }
     }
 
     /**
      * Update header statistics
+     * In the base currency these are the running totals; in another currency the
+     * chart series' per-day totals are converted (one multiply per day of history)
      */
     private void updateHeaderStats() {
-        double balance = financeManager.calculateCurrentBalance();
-        double income = financeManager.calculateTotalIncome();
-        double expenses = financeManager.calculateTotalExpenses();
+        double income;
+        double expenses;
+        if (reportingCurrency.equals(financeManager.getBaseCurrency())) {
+            income = financeManager.calculateTotalIncome();
+            expenses = financeManager.calculateTotalExpenses();
+        } else {
+            income = cashFlowSeries.getTotalIncome(reportingCurrency);
+            expenses = cashFlowSeries.getTotalExpenses(reportingCurrency);
+        }
+        showHeaderStats(income - expenses, income, expenses, reportingCurrency);
+    }
 
-        balanceLabel.setText(String.format("Balance: $%.2f", balance));
-        incomeLabel.setText(String.format("Income: $%.2f", income));
-        expenseLabel.setText(String.format("Expenses: $%.2f", expenses));
+    private void showHeaderStats(double balance, double income, double expenses, String currency) {
+        balanceLabel.setText("Balance: " + Money.format(balance, currency));
+        incomeLabel.setText("Income: " + Money.format(income, currency));
+        expenseLabel.setText("Expenses: " + Money.format(expenses, currency));
 
         // Color code balance
         balanceLabel.setForeground(balance >= 0 ? INCOME_COLOR : EXPENSE_COLOR);
@@ -533,29 +1183,127 @@ public class FinanceTrackerApp extends JFrame {
         sb.append("Recent Transactions:\n");
         sb.append("====================\n\n");
 
-        List<Transaction> transactions = financeManager.getAllTransactions();
-        int count = Math.min(5, transactions.size());
+        // The table model already holds the transactions in order - just read its last rows
+        int size = transactionsTableModel.getRowCount();
+        int count = Math.min(5, size);
 
-        for (int i = transactions.size() - 1; i >= Math.max(0, transactions.size() - count); i--) {
-            Transaction t = transactions.get(i);
+        for (int i = size - 1; i >= size - count; i--) {
+            Transaction t = transactionsTableModel.getTransactionAt(i);
             String symbol = t.getType() == TransactionType.INCOME ? "⬆️" : "⬇️";
-            sb.append(String.format("%s %s: $%.2f - %s\n",
-                    symbol, t.getCategory(), t.getAmount(), t.getDescription()));
+            String currency = t.getCurrency() != null ? t.getCurrency() : financeManager.getBaseCurrency();
+            sb.append(String.format("%s %s: %s - %s\n",
+                    symbol, t.getCategory(), Money.format(t.getAmount(), currency), t.getDescription()));
         }
 
-        if (transactions.isEmpty()) {
+        if (size == 0) {
             sb.append("No transactions yet. Add some using the 'Add Transaction' tab!");
         }
 
         recentTransactionsArea.setText(sb.toString());
     }
 
+    /**
+     * Refresh dashboard charts
+     * The series are kept up to date by CashFlowSeries - this only hands the current ones over
+     * (converted point by point at each day's rate when another currency is selected)
+     */
+    private void refreshCharts() {
+        if (balanceChart == null) return;
+
+        ExchangeRateTable rates = financeManager.getExchangeRates();
+        String base = financeManager.getBaseCurrency();
+        TimeSeries balance = "Monthly".equals(balanceResolutionComboBox.getSelectedItem())
+                ? cashFlowSeries.getMonthlyBalance() : cashFlowSeries.getDailyBalance();
+        balanceChart.setCurrency(reportingCurrency);
+        balanceChart.setSeries(Collections.singletonList(rates.convert(balance, base, reportingCurrency)));
+
+        List<TimeSeries> categories = new ArrayList<>();
+        for (TimeSeries category : cashFlowSeries.getMonthlyExpenseByCategory(5)) {
+            categories.add(rates.convert(category, base, reportingCurrency));
+        }
+        categoryChart.setCurrency(reportingCurrency);
+        categoryChart.setSeries(categories);
+    }
+
+    /**
+     * The ledger's base currency first, then the others the rate table can convert to
+     */
+    private List<String> availableCurrencies() {
+        String base = financeManager.getBaseCurrency();
+        List<String> currencies = new ArrayList<>();
+        currencies.add(base);
+        ExchangeRateTable rates = financeManager.getExchangeRates();
+        if (rates.supports(base)) {
+            for (String currency : rates.getCurrencies()) {
+                if (!currency.equals(base)) {
+                    currencies.add(currency);
+                }
+            }
+        }
+        return currencies;
+    }
+
+    /**
+     * Add any recurring occurrences that became due since the last check
+     */
+    private int materializeRecurringTransactions() {
+        try {
+            return recurringScheduler.materializeDueTransactions(LocalDate.now());
+        } catch (InvalidTrasactionException ex) {
+            System.err.println("Error adding recurring transactions: " + ex.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Move months older than the active window to the on-disk archive
+     * Window size: -Dfinance.archive.activeMonths=12 (0 keeps everything in memory)
+     */
+    private int archiveClosedMonths() {
+        int activeMonths = Integer.getInteger("finance.archive.activeMonths", 12);
+        if (activeMonths <= 0) {
+            return 0;
+        }
+        try {
+            return financeManager.archiveMonthsBefore(YearMonth.now().minusMonths(activeMonths - 1));
+        } catch (IOException ex) {
+            System.err.println("Error archiving old transactions: " + ex.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Ctrl on Windows/Linux, Cmd on macOS
+     * getMenuShortcutKeyMaskEx (Java 10+) is looked up by reflection so the app
+     * still builds for Java 8; only an older JVM falls back to the deprecated mask
+     */
+    @SuppressWarnings("deprecation")
+    private static int menuShortcutKeyMask() {
+        Toolkit toolkit = Toolkit.getDefaultToolkit();
+        try {
+            return (Integer) Toolkit.class.getMethod("getMenuShortcutKeyMaskEx").invoke(toolkit);
+        } catch (ReflectiveOperationException e) {
+            return toolkit.getMenuShortcutKeyMask();
+        }
+    }
+
     /**
      * Save application data
      */
     private void saveData() {
-        dataService.saveData(financeManager);
-        showMessage("All data saved successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+        Future<Boolean> save = autoSaveService.saveNow();
+        // Wait for the result off the UI thread, then report back on it
+        new Thread(() -> {
+            try {
+                boolean saved = save.get();
+                SwingUtilities.invokeLater(() -> showMessage(saved
+                                ? "All data saved successfully!" : "Saving failed - will retry automatically",
+                        "Save", saved ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE));
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() -> showMessage("Saving failed: " + ex.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE));
+            }
+        }, "finance-save-result").start();
     }
 
     /**
@@ -575,7 +1323,12 @@ public class FinanceTrackerApp extends JFrame {
     /**
      * MAIN METHOD: Application entry point
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        // Headless mode: JSON API instead of the window
+        if (Arrays.asList(args).contains("--server")) {
+            FinanceApiServer.main(args);
+            return;
+        }
         // Swing applications must run on Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
 //            try {
@@ -7,11 +7,15 @@ import java.time.LocalDate;
 
 public class FinancialGoal implements Serializable {
     private static final long SerialVersionUID = 1L;
+    // pinned to the value of the files saved so far, so adding fields keeps them loadable
+    private static final long serialVersionUID = 6878559760353427516L;
 
     private String name;
     private double TargetAmount;
     private double SavedAmount;
     private LocalDate targetDate;
+    // saved and target are both in this currency (null = the ledger's base currency)
+    private String currency;
 
     public FinancialGoal(String name, double savedAmount, double targetAmount, LocalDate targetDate) {
         this.name = name;
@@ -20,6 +24,11 @@ public class FinancialGoal implements Serializable {
         this.targetDate = targetDate;
     }
 
+    public FinancialGoal(String name, double savedAmount, double targetAmount, LocalDate targetDate, String currency) {
+        this(name, savedAmount, targetAmount, targetDate);
+        this.currency = currency == null ? null : ExchangeRateTable.normalize(currency);
+    }
+
     //calculate progress percenatge
     public double getProgressPercentage(){
         if(TargetAmount==0) return 0;
@@ -56,6 +65,10 @@ public class FinancialGoal implements Serializable {
         return targetDate;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
     public void setTargetAmount(double targetAmount) {
         if (TargetAmount>=0)
         this.TargetAmount = targetAmount;
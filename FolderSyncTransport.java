@@ -0,0 +1,100 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * SYNC TRANSPORT: A shared folder (network drive, Dropbox, USB stick, ...)
+ * -Dfinance.sync.folder=/path/to/shared/folder
+ *
+ * Each machine appends its changes to its own file, <node>.sync, and reads the
+ * files of all the others from where it stopped last time. Nobody ever writes
+ * another machine's file, so no locking is needed, and any number of machines
+ * can share one folder. A frame still being copied in by the folder's sync tool
+ * fails its length or CRC check and is picked up on the next round.
+ */
+public class FolderSyncTransport implements SyncTransport {
+    private static final String SUFFIX = ".sync";
+
+    private final Path folder;
+
+    public FolderSyncTransport(String folder) {
+        this.folder = Paths.get(folder);
+    }
+
+    @Override
+    public void sync(SyncLog log) throws IOException {
+        Files.createDirectories(folder);
+        send(log);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String peer = name.substring(0, name.length() - SUFFIX.length());
+                if (!peer.equals(log.getNodeId())) {
+                    receive(log, peer, file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Append our new frames to our file (positions in it = positions in our log)
+     */
+    private void send(SyncLog log) throws IOException {
+        String cursorName = SyncLog.OUT + "folder";
+        long written = log.getCursor(cursorName);
+        byte[] frames = log.readLog(written);
+        Path file = folder.resolve(log.getNodeId() + SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (channel.size() < written) {
+                throw new IOException(file + " is shorter than what was written to it - was it replaced?");
+            }
+            // anything past the cursor is from a write that was not recorded (crash) - it is written again
+            channel.truncate(written);
+            ByteBuffer buffer = ByteBuffer.wrap(frames);
+            channel.position(written);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        log.setCursor(cursorName, written + frames.length);
+        FinanceMetrics.add("sync.bytesSent", frames.length);
+    }
+
+    /**
+     * Read a peer's file from our cursor to its end and apply the complete frames
+     */
+    private void receive(SyncLog log, String peer, Path file) throws IOException {
+        String cursorName = "folder-in:" + peer;
+        long read = log.getCursor(cursorName);
+        byte[] frames;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= read) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - read));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, read + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            frames = buffer.array();
+        }
+        int used = log.apply(peer, frames);
+        log.setCursor(cursorName, read + used);
+        FinanceMetrics.add("sync.bytesReceived", used);
+    }
+
+    @Override
+    public String describe() {
+        return "folder " + folder.toAbsolutePath();
+    }
+}
@@ -0,0 +1,48 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+/**
+ * SYNC CLOCK: Hybrid logical clock - wall-clock time plus a counter, in one long
+ *
+ * CONCEPT: Comparing plain wall-clock times across machines goes wrong when one
+ * clock is behind. A hybrid logical clock never goes backwards and never falls
+ * behind a time it has seen from another machine, so a change made after
+ * receiving a remote change always gets a later stamp - and it still reads as
+ * (roughly) the real time of the change.
+ *
+ * Layout: upper 48 bits = milliseconds since 1970, lower 16 bits = counter for
+ * stamps within the same millisecond.
+ */
+public final class HybridLogicalClock {
+    private static final int COUNTER_BITS = 16;
+
+    private long last;
+
+    /**
+     * Stamp for a local change (always later than every stamp before it)
+     */
+    public synchronized long now() {
+        long physical = System.currentTimeMillis() << COUNTER_BITS;
+        last = physical > last ? physical : last + 1;
+        return last;
+    }
+
+    /**
+     * A stamp received from another machine - later local stamps come after it
+     */
+    public synchronized void observe(long remote) {
+        if (remote > last) {
+            last = remote;
+        }
+    }
+
+    /**
+     * The latest stamp handed out or seen (saved, so a restart never goes back)
+     */
+    public synchronized long last() {
+        return last;
+    }
+
+    public static long toMillis(long stamp) {
+        return stamp >>> COUNTER_BITS;
+    }
+}
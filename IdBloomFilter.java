@@ -0,0 +1,73 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * BLOOM FILTER: Which transaction IDs one archived month holds
+ * About 10 bits per ID and 7 probes give roughly 1% false positives. "Not in
+ * the filter" is certain, so looking up an ID that is not in the month never
+ * reads its partition file - deleting or editing a row that is nowhere costs
+ * one filter check per archived month instead of decoding every partition.
+ *
+ * A partition is only ever rewritten as a whole, so its filter is simply built
+ * again with it; a filter never has to forget an ID.
+ */
+public final class IdBloomFilter implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int BITS_PER_ID = 10;
+    private static final int HASHES = 7;
+
+    private final long[] bits;
+    private final long bitCount;
+
+    public IdBloomFilter(Collection<String> ids) {
+        // a multiple of 64, and below 2^32 so fastRange can map a 32-bit hash onto it
+        bitCount = Math.min(Math.max(64, ((long) ids.size() * BITS_PER_ID + 63) & ~63L), 1L << 32);
+        bits = new long[(int) (bitCount >>> 6)];
+        for (String id : ids) {
+            long hash = hash(id);
+            long h2 = Long.rotateLeft(hash, 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = fastRange(hash + i * h2);
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+    }
+
+    /**
+     * False = the ID is certainly not in the month; true = it probably is
+     */
+    public boolean mightContain(String id) {
+        long hash = hash(id);
+        long h2 = Long.rotateLeft(hash, 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = fastRange(hash + i * h2);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Map the top 32 bits of a hash onto [0, bitCount) with a multiply instead of a modulo
+     */
+    private long fastRange(long hash) {
+        return ((hash >>> 32) * bitCount) >>> 32;
+    }
+
+    /**
+     * FNV-1a over the characters, then the SplitMix64 finalizer to spread the bits
+     */
+    private static long hash(String id) {
+        long z = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            z ^= id.charAt(i);
+            z *= 0x100000001b3L;
+        }
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
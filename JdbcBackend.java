@@ -0,0 +1,692 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.IOException;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * STORAGE BACKEND: Embedded SQL database (SQLite or H2) through plain JDBC
+ * The driver jar just has to be on the classpath, e.g.
+ *   java -cp out:sqlite-jdbc.jar ... -Dfinance.storage=jdbc -Dfinance.jdbc.url=jdbc:sqlite:finance_data.db
+ *   java -cp out:h2.jar ...          -Dfinance.storage=jdbc -Dfinance.jdbc.url=jdbc:h2:./finance_data
+ *
+ * DATABASE CONCEPTS:
+ * - Batched prepared statements: thousands of rows per round trip
+ * - An index on the transaction ID, so a delete or edit does not scan the table
+ * - Indexes on date, category and type: the database is also the archive store.
+ *   Closed months stay in the table but are not loaded (only their totals are,
+ *   summed up by the database), and date range / category / type reads of those
+ *   months run as indexed SQL - the ledger can be bigger than memory
+ * - Migrations: columns added later (currencies) are added to older databases
+ *   with ALTER TABLE on first connect
+ */
+public class JdbcBackend implements StorageBackend, FinanceChangeListener, ArchiveStore {
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS transactions (" +
+                    "seq BIGINT PRIMARY KEY, id VARCHAR(100) NOT NULL, amount DOUBLE NOT NULL, " +
+                    "category VARCHAR(100) NOT NULL, tx_day BIGINT NOT NULL, description VARCHAR(1000), " +
+                    "tx_type VARCHAR(10) NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS idx_transactions_id ON transactions (id)",
+            "CREATE INDEX IF NOT EXISTS idx_transactions_day ON transactions (tx_day)",
+            "CREATE INDEX IF NOT EXISTS idx_transactions_category ON transactions (category, tx_day)",
+            "CREATE INDEX IF NOT EXISTS idx_transactions_type ON transactions (tx_type, tx_day)",
+            "CREATE TABLE IF NOT EXISTS budgets (" +
+                    "category VARCHAR(100) NOT NULL, month_day BIGINT NOT NULL, allocated DOUBLE NOT NULL, " +
+                    "spent DOUBLE NOT NULL, PRIMARY KEY (category, month_day))",
+            "CREATE TABLE IF NOT EXISTS goals (" +
+                    "position INTEGER PRIMARY KEY, name VARCHAR(200), saved DOUBLE, target DOUBLE, target_day BIGINT)",
+            "CREATE TABLE IF NOT EXISTS recurring (" +
+                    "id VARCHAR(100) PRIMARY KEY, amount DOUBLE, category VARCHAR(100), description VARCHAR(1000), " +
+                    "tx_type VARCHAR(10), frequency VARCHAR(10), interval_steps INTEGER, start_day BIGINT, " +
+                    "end_day BIGINT, materialized INTEGER)",
+            "CREATE TABLE IF NOT EXISTS category_rules (" +
+                    "position INTEGER PRIMARY KEY, keyword VARCHAR(200) NOT NULL, category VARCHAR(100) NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS settings (" +
+                    "name VARCHAR(100) PRIMARY KEY, setting_value VARCHAR(1000))"
+    };
+    // fail with "duplicate column" once applied - that is expected and ignored
+    private static final String[] MIGRATIONS = {
+            "ALTER TABLE transactions ADD COLUMN currency VARCHAR(3)",
+            "ALTER TABLE transactions ADD COLUMN fx_rate DOUBLE",
+            "ALTER TABLE budgets ADD COLUMN currency VARCHAR(3)",
+            "ALTER TABLE goals ADD COLUMN currency VARCHAR(3)"
+    };
+
+    // skipped if the row is already there: archiving a month may write a row
+    // before the save that was going to insert it
+    private static final String INSERT_TRANSACTION =
+            "INSERT INTO transactions (seq, id, amount, category, tx_day, description, tx_type, currency, fx_rate) " +
+                    "SELECT ?, ?, ?, ?, ?, ?, ?, ?, ? " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM transactions WHERE id = ? AND tx_day = ?)";
+    // manager deletes the first match, so does the database
+    private static final String DELETE_TRANSACTION =
+            "DELETE FROM transactions WHERE seq = (SELECT MIN(seq) FROM transactions WHERE id = ?)";
+    private static final String UPDATE_TRANSACTION =
+            "UPDATE transactions SET amount = ?, category = ?, tx_day = ?, description = ?, tx_type = ?, " +
+                    "currency = ?, fx_rate = ? " +
+                    "WHERE seq = (SELECT MIN(seq) FROM transactions WHERE id = ?)";
+    private static final String SELECT_TRANSACTIONS =
+            "SELECT id, amount, category, tx_day, description, tx_type, currency, fx_rate FROM transactions";
+
+    private final String url;
+    // one save at a time (manual save and auto-save may overlap)
+    private final Object saveLock = new Object();
+
+    // changes since the last save; goals/recurring/budget spend are rewritten as a whole
+    private final List<FinanceChangeEvent> pending = new ArrayList<>();
+    private boolean fullRewriteNeeded = true;
+    // shared by saves and archiving, which may run at the same time
+    private final AtomicLong nextSeq = new AtomicLong(1);
+    private volatile boolean migrated;
+
+    public JdbcBackend(String url) {
+        this.url = url;
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement statement = connection.createStatement()) {
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+        }
+        if (!migrated) {
+            for (String ddl : MIGRATIONS) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(ddl);
+                } catch (SQLException e) {
+                    // column already there
+                }
+            }
+            migrated = true;
+        }
+        return connection;
+    }
+
+    // ========== LOAD ==========
+
+    @Override
+    public FinanceManager load() throws IOException {
+        FinanceManager financeManager;
+        try (Connection connection = connect()) {
+            String baseCurrency = readSetting(connection, "base_currency");
+            financeManager = baseCurrency != null ? new FinanceManager(baseCurrency) : new FinanceManager();
+            // ACTIVE WINDOW: only the open months are read; archived ones add their totals
+            String archivedThrough = readSetting(connection, "archived_through");
+            if (archivedThrough == null) {
+                financeManager.addTransactions(query(connection, SELECT_TRANSACTIONS + " ORDER BY seq"));
+            } else {
+                YearMonth lastArchived = YearMonth.parse(archivedThrough);
+                financeManager.addTransactions(query(connection, SELECT_TRANSACTIONS + " WHERE tx_day > ? ORDER BY seq",
+                        lastArchived.atEndOfMonth().toEpochDay()));
+                restoreArchivedTotals(connection, financeManager, lastArchived);
+            }
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(seq), 0) + 1 FROM transactions")) {
+                rs.next();
+                nextSeq.set(rs.getLong(1));
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(
+                         "SELECT category, month_day, allocated, spent, currency FROM budgets")) {
+                while (rs.next()) {
+                    LocalDate month = LocalDate.ofEpochDay(rs.getLong(2));
+                    financeManager.restoreBudget(rs.getString(1), rs.getDouble(3), month, rs.getString(5));
+                    financeManager.getBudget(rs.getString(1), month).addspending(rs.getDouble(4));
+                }
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(
+                         "SELECT name, saved, target, target_day, currency FROM goals ORDER BY position")) {
+                while (rs.next()) {
+                    financeManager.addFinancialGoals(new FinancialGoal(rs.getString(1), rs.getDouble(2),
+                            rs.getDouble(3), LocalDate.ofEpochDay(rs.getLong(4)), rs.getString(5)));
+                }
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT id, amount, category, description, tx_type, " +
+                         "frequency, interval_steps, start_day, end_day, materialized FROM recurring")) {
+                while (rs.next()) {
+                    long endDay = rs.getLong(9);
+                    boolean noEnd = rs.wasNull();
+                    RecurringTransaction recurring = new RecurringTransaction(rs.getString(1), rs.getDouble(2),
+                            rs.getString(3), rs.getString(4), TransactionType.valueOf(rs.getString(5)),
+                            RecurrenceFrequency.valueOf(rs.getString(6)), rs.getInt(7),
+                            LocalDate.ofEpochDay(rs.getLong(8)), noEnd ? null : LocalDate.ofEpochDay(endDay));
+                    recurring.markMaterialized(rs.getInt(10));
+                    financeManager.addRecurringTransaction(recurring);
+                }
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(
+                         "SELECT keyword, category FROM category_rules ORDER BY position")) {
+                while (rs.next()) {
+                    financeManager.setCategoryRule(rs.getString(1), rs.getString(2));
+                }
+            }
+        } catch (SQLException | InvalidTrasactionException e) {
+            throw new IOException("Could not load from " + url, e);
+        }
+        fullRewriteNeeded = false;
+        return financeManager;
+    }
+
+    /**
+     * AGGREGATE PUSH-DOWN: Month/category/type totals of the archived months,
+     * summed by the database one month at a time - no archived row is transferred
+     */
+    private static void restoreArchivedTotals(Connection connection, FinanceManager financeManager,
+                                              YearMonth lastArchived) throws SQLException {
+        YearMonth month;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT MIN(tx_day) FROM transactions WHERE tx_day <= ?")) {
+            statement.setLong(1, lastArchived.atEndOfMonth().toEpochDay());
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                long firstDay = rs.getLong(1);
+                if (rs.wasNull()) {
+                    return;
+                }
+                month = YearMonth.from(LocalDate.ofEpochDay(firstDay));
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT category, tx_type, SUM(amount * COALESCE(NULLIF(fx_rate, 0), 1)), COUNT(*) " +
+                        "FROM transactions WHERE tx_day BETWEEN ? AND ? GROUP BY category, tx_type")) {
+            for (; !month.isAfter(lastArchived); month = month.plusMonths(1)) {
+                statement.setLong(1, month.atDay(1).toEpochDay());
+                statement.setLong(2, month.atEndOfMonth().toEpochDay());
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        financeManager.restoreArchivedTotals(month, rs.getString(1),
+                                TransactionType.valueOf(rs.getString(2)), rs.getDouble(3), rs.getInt(4));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void attach(FinanceManager financeManager) {
+        financeManager.addChangeListener(this);
+        FinanceMetrics.registerGauge("journal.lag", this::getPendingChangeCount);
+    }
+
+    @Override
+    public synchronized void onChange(FinanceChangeEvent event) {
+        pending.add(event);
+    }
+
+    /**
+     * Closed months stay in the transactions table - no archive folder is needed
+     */
+    @Override
+    public ArchiveStore getArchiveStore() {
+        return this;
+    }
+
+    public synchronized int getPendingChangeCount() {
+        return pending.size();
+    }
+
+    // ========== SAVE ==========
+
+    /**
+     * SAVE: Apply pending changes as batched statements in one database transaction
+     * The first save into an empty database (or after a reset) writes everything.
+     * Pending changes and the copy are taken under the manager's lock so they match;
+     * the database work runs after that without blocking the UI
+     */
+    @Override
+    public void save(FinanceManager financeManager) throws IOException {
+        synchronized (saveLock) {
+            List<FinanceChangeEvent> batch;
+            FinanceManager copy;
+            boolean fullRewrite;
+            synchronized (financeManager) {
+                synchronized (this) {
+                    batch = new ArrayList<>(pending);
+                    pending.clear();
+                    fullRewrite = fullRewriteNeeded;
+                }
+                copy = financeManager.copyForSave();
+            }
+
+            try (Connection connection = connect()) {
+                connection.setAutoCommit(false);
+                try {
+                    if (fullRewrite) {
+                        writeAllTransactions(connection, copy);
+                    } else {
+                        writePendingTransactions(connection, batch);
+                    }
+                    // small tables: always rewritten (budget spending changes with every expense)
+                    writeBudgets(connection, copy);
+                    writeGoals(connection, copy);
+                    writeRecurring(connection, copy);
+                    writeCategoryRules(connection, copy);
+                    writeSetting(connection, "base_currency", copy.getBaseCurrency());
+                    List<YearMonth> archived = copy.getArchivedMonths();
+                    if (!archived.isEmpty()) {
+                        writeSetting(connection, "archived_through", archived.get(archived.size() - 1).toString());
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                // nothing is lost: keep the changes for the next attempt
+                synchronized (this) {
+                    pending.addAll(0, batch);
+                }
+                throw new IOException("Could not save to " + url, e);
+            }
+            synchronized (this) {
+                fullRewriteNeeded = false;
+            }
+        }
+    }
+
+    /**
+     * Replace the active window's rows - archived months are already in the table
+     * (archiving wrote them) and are not in the copy, so they are kept
+     */
+    private void writeAllTransactions(Connection connection, FinanceManager financeManager) throws SQLException {
+        List<YearMonth> archived = financeManager.getArchivedMonths();
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM transactions WHERE tx_day > ?")) {
+            delete.setLong(1, archived.isEmpty() ? Long.MIN_VALUE
+                    : archived.get(archived.size() - 1).atEndOfMonth().toEpochDay());
+            delete.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(seq), 0) + 1 FROM transactions")) {
+            rs.next();
+            nextSeq.accumulateAndGet(rs.getLong(1), Math::max);
+        }
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_TRANSACTION)) {
+            int batched = 0;
+            for (Transaction transaction : financeManager.getAllTransactions()) {
+                bindTransaction(insert, transaction);
+                insert.addBatch();
+                if (++batched % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void writePendingTransactions(Connection connection, List<FinanceChangeEvent> batch) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_TRANSACTION);
+             PreparedStatement delete = connection.prepareStatement(DELETE_TRANSACTION);
+             PreparedStatement update = connection.prepareStatement(UPDATE_TRANSACTION)) {
+            for (FinanceChangeEvent event : batch) {
+                if (event.getType() == FinanceChangeEvent.Type.TRANSACTIONS_ADDED) {
+                    for (Transaction transaction : event.getTransactions()) {
+                        bindTransaction(insert, transaction);
+                        insert.addBatch();
+                    }
+                    // flush inserts first, a later delete in the same save may target them
+                    insert.executeBatch();
+                } else if (event.getType() == FinanceChangeEvent.Type.TRANSACTIONS_REMOVED) {
+                    for (Transaction transaction : event.getTransactions()) {
+                        delete.setString(1, transaction.getId());
+                        delete.executeUpdate();
+                    }
+                } else if (event.getType() == FinanceChangeEvent.Type.TRANSACTIONS_UPDATED) {
+                    // a bulk re-categorize is one batch of UPDATEs
+                    List<Transaction> rows = event.getTransactions();
+                    for (Transaction transaction : rows) {
+                        update.setDouble(1, transaction.getAmount());
+                        update.setString(2, transaction.getCategory());
+                        update.setLong(3, transaction.getLocalDate().toEpochDay());
+                        update.setString(4, transaction.getDescription());
+                        update.setString(5, transaction.getType().name());
+                        update.setString(6, transaction.getCurrency());
+                        update.setDouble(7, transaction.getExchangeRate());
+                        update.setString(8, transaction.getId());
+                        update.addBatch();
+                    }
+                    int[] counts = update.executeBatch();
+                    // an edited archived row whose month was rewritten before this save
+                    // (the edit moved it out of that month) is inserted instead
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] == 0) {
+                            bindTransaction(insert, rows.get(i));
+                            insert.addBatch();
+                        }
+                    }
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+
+    private void bindTransaction(PreparedStatement insert, Transaction transaction) throws SQLException {
+        insert.setLong(1, nextSeq.getAndIncrement());
+        insert.setString(2, transaction.getId());
+        insert.setDouble(3, transaction.getAmount());
+        insert.setString(4, transaction.getCategory());
+        insert.setLong(5, transaction.getLocalDate().toEpochDay());
+        insert.setString(6, transaction.getDescription());
+        insert.setString(7, transaction.getType().name());
+        insert.setString(8, transaction.getCurrency());
+        insert.setDouble(9, transaction.getExchangeRate());
+        insert.setString(10, transaction.getId());
+        insert.setLong(11, transaction.getLocalDate().toEpochDay());
+    }
+
+    private void writeBudgets(Connection connection, FinanceManager financeManager) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM budgets");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO budgets (category, month_day, allocated, spent, currency) VALUES (?, ?, ?, ?, ?)")) {
+            for (Budget budget : financeManager.getAllBudgets()) {
+                insert.setString(1, budget.getCategory());
+                insert.setLong(2, budget.getMonth().toEpochDay());
+                insert.setDouble(3, budget.getAllocatedAmount());
+                insert.setDouble(4, budget.getSpentAmount());
+                insert.setString(5, budget.getCurrency());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void writeGoals(Connection connection, FinanceManager financeManager) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM goals");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO goals (position, name, saved, target, target_day, currency) VALUES (?, ?, ?, ?, ?, ?)")) {
+            int position = 0;
+            for (FinancialGoal goal : financeManager.getAllFinancialGoals()) {
+                insert.setInt(1, position++);
+                insert.setString(2, goal.getName());
+                insert.setDouble(3, goal.getSavedAmount());
+                insert.setDouble(4, goal.getTargetAmount());
+                insert.setLong(5, goal.getTargetDate().toEpochDay());
+                insert.setString(6, goal.getCurrency());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void writeCategoryRules(Connection connection, FinanceManager financeManager) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM category_rules");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO category_rules (position, keyword, category) VALUES (?, ?, ?)")) {
+            int position = 0;
+            for (Map.Entry<String, String> rule : financeManager.getCategoryRules().entrySet()) {
+                insert.setInt(1, position++);
+                insert.setString(2, rule.getKey());
+                insert.setString(3, rule.getValue());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static String readSetting(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT setting_value FROM settings WHERE name = ?")) {
+            statement.setString(1, name);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void writeSetting(Connection connection, String name, String value) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM settings WHERE name = ?");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO settings (name, setting_value) VALUES (?, ?)")) {
+            delete.setString(1, name);
+            delete.executeUpdate();
+            insert.setString(1, name);
+            insert.setString(2, value);
+            insert.executeUpdate();
+        }
+    }
+
+    private void writeRecurring(Connection connection, FinanceManager financeManager) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM recurring");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO recurring (id, amount, category, description, tx_type, frequency, interval_steps, " +
+                        "start_day, end_day, materialized) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (RecurringTransaction recurring : financeManager.getAllRecurringTransactions()) {
+                insert.setString(1, recurring.getId());
+                insert.setDouble(2, recurring.getAmount());
+                insert.setString(3, recurring.getCategory());
+                insert.setString(4, recurring.getDescription());
+                insert.setString(5, recurring.getType().name());
+                insert.setString(6, recurring.getFrequency().name());
+                insert.setInt(7, recurring.getInterval());
+                insert.setLong(8, recurring.getStartDate().toEpochDay());
+                if (recurring.getEndDate() == null) {
+                    insert.setNull(9, Types.BIGINT);
+                } else {
+                    insert.setLong(9, recurring.getEndDate().toEpochDay());
+                }
+                insert.setInt(10, recurring.getMaterializedCount());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // ========== ARCHIVE STORE ==========
+
+    /**
+     * One archived month - a range read on the date index
+     */
+    @Override
+    public List<Transaction> readPartition(YearMonth month) throws IOException {
+        return queryByDateRange(month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * ARCHIVING: The month's rows are usually in the table already; rewriting them
+     * in one database transaction also covers rows added since the last save
+     * (their pending insert is skipped later) and rows deleted since (gone now)
+     */
+    @Override
+    public void writePartition(YearMonth month, List<Transaction> transactions) throws IOException {
+        long start = FinanceMetrics.startTimer();
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM transactions WHERE tx_day BETWEEN ? AND ?");
+                 PreparedStatement insert = connection.prepareStatement(INSERT_TRANSACTION)) {
+                delete.setLong(1, month.atDay(1).toEpochDay());
+                delete.setLong(2, month.atEndOfMonth().toEpochDay());
+                delete.executeUpdate();
+                int batched = 0;
+                for (Transaction transaction : transactions) {
+                    bindTransaction(insert, transaction);
+                    insert.addBatch();
+                    if (++batched % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not archive " + month + " in " + url, e);
+        }
+        FinanceMetrics.stopTimer("archive.writePartition", start);
+    }
+
+    /**
+     * QUERY PUSH-DOWN: One SQL query for all the months - the date range, category
+     * and type become the WHERE clause, so the matching index does the filtering
+     * and only matching rows leave the database. Rows are handed over as they are read.
+     */
+    @Override
+    public boolean visit(List<YearMonth> months, LocalDate startDate, LocalDate endDate,
+                         Set<String> categories, TransactionType type, Predicate<Transaction> visitor) {
+        long start = FinanceMetrics.startTimer();
+        LocalDate from = months.get(0).atDay(1);
+        LocalDate to = months.get(months.size() - 1).atEndOfMonth();
+        if (startDate != null && startDate.isAfter(from)) {
+            from = startDate;
+        }
+        if (endDate != null && endDate.isBefore(to)) {
+            to = endDate;
+        }
+        StringBuilder sql = new StringBuilder(SELECT_TRANSACTIONS).append(" WHERE tx_day BETWEEN ? AND ?");
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(from.toEpochDay());
+        parameters.add(to.toEpochDay());
+        if (categories != null) {
+            sql.append(" AND category IN (");
+            for (String category : categories) {
+                sql.append(parameters.size() > 2 ? ", ?" : "?");
+                parameters.add(category);
+            }
+            sql.append(")");
+        }
+        if (type != null) {
+            sql.append(" AND tx_type = ?");
+            parameters.add(type.name());
+        }
+        sql.append(" ORDER BY seq");
+        // the months in between that were not asked for (the rollup ruled them out) are skipped
+        Set<YearMonth> wanted = new HashSet<>(months);
+        try (Connection connection = connect();
+             PreparedStatement statement = prepare(connection, sql.toString(), parameters.toArray());
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                Transaction transaction = readTransaction(rs);
+                if (wanted.contains(YearMonth.from(transaction.getLocalDate())) && !visitor.test(transaction)) {
+                    return false;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading archived months from " + url + ": " + e.getMessage());
+            FinanceMetrics.increment("archive.readErrors");
+        } finally {
+            FinanceMetrics.stopTimer("archive.query", start);
+        }
+        return true;
+    }
+
+    @Override
+    public Transaction find(String transactionID, YearMonth month) throws IOException {
+        List<Transaction> found = query(SELECT_TRANSACTIONS + " WHERE id = ? AND tx_day BETWEEN ? AND ? ORDER BY seq",
+                transactionID, month.atDay(1).toEpochDay(), month.atEndOfMonth().toEpochDay());
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public boolean indexesIds() {
+        return true;
+    }
+
+    // ========== READING ROWS ==========
+
+    public List<Transaction> queryByDateRange(LocalDate startDate, LocalDate endDate) throws IOException {
+        return query(SELECT_TRANSACTIONS + " WHERE tx_day BETWEEN ? AND ? ORDER BY seq",
+                startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    private List<Transaction> query(String sql, Object... parameters) throws IOException {
+        try (Connection connection = connect()) {
+            return query(connection, sql, parameters);
+        } catch (SQLException e) {
+            throw new IOException("Query failed on " + url, e);
+        }
+    }
+
+    private List<Transaction> query(Connection connection, String sql, Object... parameters) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>();
+        try (PreparedStatement statement = prepare(connection, sql, parameters);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                transactions.add(readTransaction(rs));
+            }
+        }
+        return transactions;
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, Object... parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        try {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        return statement;
+    }
+
+    // columns in SELECT_TRANSACTIONS order
+    private static Transaction readTransaction(ResultSet rs) throws SQLException {
+        Transaction transaction = new Transaction(
+                rs.getString(1),
+                rs.getDouble(2),
+                rs.getString(7),
+                rs.getString(3),
+                java.sql.Date.valueOf(LocalDate.ofEpochDay(rs.getLong(4))),
+                rs.getString(5),
+                TransactionType.valueOf(rs.getString(6)));
+        transaction.setExchangeRate(rs.getDouble(8));
+        return transaction;
+    }
+
+    // ========== HOUSEKEEPING ==========
+
+    @Override
+    public boolean exists() {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT (SELECT COUNT(*) FROM transactions) + (SELECT COUNT(*) FROM budgets)")) {
+            return rs.next() && rs.getLong(1) > 0;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean delete() {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            for (String table : new String[]{"transactions", "budgets", "goals", "recurring", "category_rules", "settings"}) {
+                statement.executeUpdate("DROP TABLE IF EXISTS " + table);
+            }
+            migrated = false;
+            synchronized (this) {
+                fullRewriteNeeded = true;
+                pending.clear();
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String describe() {
+        return url;
+    }
+}
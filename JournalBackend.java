@@ -0,0 +1,343 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * STORAGE BACKEND: Snapshot file + append-only journal of changes
+ * JOURNALING CONCEPT: Instead of rewriting everything on each save, only the
+ * changes since the last save are appended. Loading = read snapshot, replay journal.
+ * Once the journal gets long it is folded into a fresh snapshot (compaction).
+ *
+ * CRASH SAFETY: Each save appends one frame (length + records + CRC32) and forces it
+ * to disk. The journal header names the checksum of the snapshot it belongs to,
+ * so a journal left over from before a compaction is never replayed twice.
+ * FJN2 records also carry the currency and booked rate of each transaction and
+ * the currency of budgets; an FJN1 journal is still replayed, then compacted.
+ */
+public class JournalBackend implements StorageBackend, FinanceChangeListener {
+    private static final int MAGIC = 0x464A4E32; // "FJN2"
+    private static final int MAGIC_V1 = 0x464A4E31; // "FJN1", no currencies
+
+    // Record types in the journal file
+    private static final byte ADD_TRANSACTION = 1;
+    private static final byte REMOVE_TRANSACTION = 2;
+    private static final byte SET_BUDGET = 3;
+    private static final byte UPDATE_TRANSACTION = 4;
+
+    private static final int COMPACT_AFTER_RECORDS = 10_000;
+
+    private final SerializedFileBackend snapshot;
+    private final Path journalFile;
+    // one save at a time (manual save and auto-save may overlap)
+    private final Object saveLock = new Object();
+
+    // changes made since the last save
+    private final List<FinanceChangeEvent> pending = new ArrayList<>();
+    // goals and recurring templates are not journaled, they force a new snapshot
+    private boolean snapshotNeeded;
+    private int journalRecords;
+
+    public JournalBackend(String snapshotFileName) {
+        this.snapshot = new SerializedFileBackend(snapshotFileName);
+        this.journalFile = Paths.get(snapshotFileName + ".journal");
+    }
+
+    @Override
+    public FinanceManager load() throws IOException {
+        FinanceManager financeManager = snapshot.load();
+        journalRecords = replayJournal(financeManager);
+        return financeManager;
+    }
+
+    @Override
+    public void attach(FinanceManager financeManager) {
+        financeManager.addChangeListener(this);
+        FinanceMetrics.registerGauge("journal.lag", this::getPendingChangeCount);
+    }
+
+    @Override
+    public synchronized void onChange(FinanceChangeEvent event) {
+        if (event.getType() == FinanceChangeEvent.Type.GOAL_CHANGED
+                || event.getType() == FinanceChangeEvent.Type.RECURRING_CHANGED
+                || event.getType() == FinanceChangeEvent.Type.PARTITIONS_ARCHIVED
+                || event.getType() == FinanceChangeEvent.Type.CATEGORY_RULES_CHANGED) {
+            snapshotNeeded = true;
+        } else {
+            pending.add(event);
+        }
+    }
+
+    /**
+     * SAVE: Append pending changes, or write a new snapshot when one is due
+     * Pending changes are taken while the manager is locked, so they match
+     * the snapshot copy exactly; the slow file writing happens after that
+     */
+    @Override
+    public void save(FinanceManager financeManager) throws IOException {
+        synchronized (saveLock) {
+            List<FinanceChangeEvent> batch;
+            FinanceManager copy = null;
+            boolean compact;
+            synchronized (financeManager) {
+                synchronized (this) {
+                    batch = new ArrayList<>(pending);
+                    pending.clear();
+                    compact = snapshotNeeded || !snapshot.exists()
+                            || journalRecords + batch.size() > COMPACT_AFTER_RECORDS;
+                    snapshotNeeded = false;
+                }
+                if (compact) {
+                    copy = financeManager.copyForSave();
+                }
+            }
+
+            try {
+                if (compact) {
+                    compact(copy);
+                } else if (!batch.isEmpty()) {
+                    appendFrame(batch);
+                }
+            } catch (IOException e) {
+                // nothing is lost: put the changes back for the next attempt
+                synchronized (this) {
+                    pending.addAll(0, batch);
+                    snapshotNeeded |= compact;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * COMPACTION: Snapshot everything and start an empty journal tied to that snapshot
+     */
+    private void compact(FinanceManager copy) throws IOException {
+        long checksum = snapshot.writeSnapshot(copy);
+        Path temp = Paths.get(journalFile + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+            out.writeInt(MAGIC);
+            out.writeLong(checksum);
+        }
+        SerializedFileBackend.moveAtomically(temp, journalFile);
+        journalRecords = 0;
+    }
+
+    /**
+     * APPEND: One frame = record bytes + their CRC32, forced to disk
+     */
+    private void appendFrame(List<FinanceChangeEvent> batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(bytes);
+        int count = 0;
+        for (FinanceChangeEvent event : batch) {
+            count += writeEvent(records, event);
+        }
+        records.flush();
+        if (count == 0) {
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray(), 0, bytes.size());
+
+        ByteBuffer frame = ByteBuffer.allocate(4 + bytes.size() + 8);
+        frame.putInt(bytes.size()).put(bytes.toByteArray()).putLong(crc.getValue()).flip();
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            channel.force(false);
+        }
+        journalRecords += count;
+    }
+
+    public synchronized int getPendingChangeCount() {
+        return pending.size();
+    }
+
+    @Override
+    public boolean exists() {
+        return snapshot.exists() || Files.exists(journalFile);
+    }
+
+    @Override
+    public boolean delete() {
+        boolean deleted = snapshot.delete();
+        try {
+            return Files.deleteIfExists(journalFile) | deleted;
+        } catch (IOException e) {
+            return deleted;
+        }
+    }
+
+    /**
+     * Snapshot and journal belong together - both are moved aside
+     */
+    @Override
+    public String quarantine() throws IOException {
+        String moved = snapshot.quarantine();
+        if (Files.exists(journalFile)) {
+            Path target = SerializedFileBackend.quarantinePath(journalFile);
+            SerializedFileBackend.moveAtomically(journalFile, target);
+            moved = moved == null ? target.toString() : moved + " and " + target;
+        }
+        return moved;
+    }
+
+    @Override
+    public String describe() {
+        return snapshot.describe() + " (+ journal)";
+    }
+
+    // ========== JOURNAL FORMAT ==========
+
+    private int writeEvent(DataOutputStream out, FinanceChangeEvent event) throws IOException {
+        switch (event.getType()) {
+            case TRANSACTIONS_ADDED:
+                for (Transaction t : event.getTransactions()) {
+                    out.writeByte(ADD_TRANSACTION);
+                    writeTransaction(out, t);
+                }
+                return event.getTransactions().size();
+            case TRANSACTIONS_REMOVED:
+                for (Transaction t : event.getTransactions()) {
+                    out.writeByte(REMOVE_TRANSACTION);
+                    out.writeUTF(t.getId());
+                }
+                return event.getTransactions().size();
+            case TRANSACTIONS_UPDATED:
+                // the whole new version - replay does not need the old one
+                for (Transaction t : event.getTransactions()) {
+                    out.writeByte(UPDATE_TRANSACTION);
+                    writeTransaction(out, t);
+                }
+                return event.getTransactions().size();
+            case BUDGET_CHANGED:
+                Budget budget = event.getBudget();
+                out.writeByte(SET_BUDGET);
+                out.writeUTF(budget.getCategory());
+                out.writeDouble(budget.getAllocatedAmount());
+                out.writeLong(budget.getMonth().toEpochDay());
+                out.writeUTF(budget.getCurrency() == null ? "" : budget.getCurrency());
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    static void writeTransaction(DataOutputStream out, Transaction t) throws IOException {
+        out.writeUTF(t.getId());
+        out.writeDouble(t.getAmount());
+        out.writeUTF(t.getCategory());
+        out.writeLong(t.getLocalDate().toEpochDay());
+        out.writeUTF(t.getDescription() == null ? "" : t.getDescription());
+        out.writeUTF(t.getType().name());
+        out.writeUTF(t.getCurrency() == null ? "" : t.getCurrency());
+        out.writeDouble(t.getExchangeRate());
+    }
+
+    static Transaction readTransaction(DataInputStream in, boolean withCurrency) throws IOException {
+        String id = in.readUTF();
+        double amount = in.readDouble();
+        String category = in.readUTF();
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        String description = in.readUTF();
+        TransactionType type = TransactionType.valueOf(in.readUTF());
+        Transaction transaction = new Transaction(id, amount, category, java.sql.Date.valueOf(date), description, type);
+        if (withCurrency) {
+            String currency = in.readUTF();
+            transaction.setCurrency(currency.isEmpty() ? null : currency);
+            transaction.setExchangeRate(in.readDouble());
+        }
+        return transaction;
+    }
+
+    /**
+     * REPLAY: Apply every journal frame to the snapshot, in order
+     * Stops at the first torn or damaged frame (crash while appending); the next
+     * save then writes a fresh snapshot instead of appending after the damage
+     */
+    private int replayJournal(FinanceManager financeManager) throws IOException {
+        if (!Files.exists(journalFile)) {
+            return 0;
+        }
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(journalFile)))) {
+            int magic = in.readInt();
+            if ((magic != MAGIC && magic != MAGIC_V1) || in.readLong() != snapshot.getLastChecksum()) {
+                System.err.println("Ignoring journal that does not belong to the snapshot: " + journalFile);
+                snapshotNeeded = true;
+                return 0;
+            }
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break; // clean end of journal
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload, 0, length);
+                if (in.readLong() != crc.getValue()) {
+                    throw new EOFException("checksum mismatch");
+                }
+                records += replayFrame(financeManager, new DataInputStream(new ByteArrayInputStream(payload)),
+                        magic == MAGIC);
+            }
+            if (magic == MAGIC_V1) {
+                // the next save starts an FJN2 journal rather than appending to this one
+                snapshotNeeded = true;
+            }
+        } catch (EOFException e) {
+            System.err.println("Ignoring incomplete last journal frame in " + journalFile);
+            snapshotNeeded = true;
+        } catch (InvalidTrasactionException e) {
+            throw new IOException("Invalid transaction in journal", e);
+        }
+        return records;
+    }
+
+    private int replayFrame(FinanceManager financeManager, DataInputStream in, boolean withCurrency)
+            throws IOException, InvalidTrasactionException {
+        int records = 0;
+        int op;
+        while ((op = in.read()) >= 0) {
+            switch (op) {
+                case ADD_TRANSACTION:
+                    financeManager.addTransaction(readTransaction(in, withCurrency));
+                    break;
+                case REMOVE_TRANSACTION:
+                    financeManager.deleteTransaction(in.readUTF());
+                    break;
+                case SET_BUDGET:
+                    String category = in.readUTF();
+                    double allocated = in.readDouble();
+                    LocalDate month = LocalDate.ofEpochDay(in.readLong());
+                    String currency = withCurrency ? in.readUTF() : "";
+                    financeManager.restoreBudget(category, allocated, month, currency.isEmpty() ? null : currency);
+                    break;
+                case UPDATE_TRANSACTION:
+                    Transaction updated = readTransaction(in, withCurrency);
+                    financeManager.updateTransaction(updated.getId(), TransactionPatch.from(updated));
+                    break;
+                default:
+                    throw new IOException("Corrupt journal record type " + op);
+            }
+            records++;
+        }
+        return records;
+    }
+}
@@ -0,0 +1,368 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * JSON: Minimal reader and streaming writer (no external library needed)
+ * Parsed values are plain Java objects:
+ *   object -> Map<String, Object>, array -> List<Object>, string -> String,
+ *   number -> Double, true/false -> Boolean, null -> null
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    // ========== WRITING ==========
+
+    /**
+     * STREAMING WRITER: Values go straight to the underlying Writer,
+     * so a huge array never has to be built in memory first
+     */
+    public static class JsonWriter {
+        private final Writer out;
+        // one entry per open object/array: has it got an element yet?
+        private final Deque<Boolean> hasElements = new ArrayDeque<>();
+        private boolean afterName;
+
+        public JsonWriter(Writer out) {
+            this.out = out;
+        }
+
+        public JsonWriter beginObject() throws IOException {
+            separator();
+            out.write('{');
+            hasElements.push(false);
+            return this;
+        }
+
+        public JsonWriter endObject() throws IOException {
+            hasElements.pop();
+            out.write('}');
+            return this;
+        }
+
+        public JsonWriter beginArray() throws IOException {
+            separator();
+            out.write('[');
+            hasElements.push(false);
+            return this;
+        }
+
+        public JsonWriter endArray() throws IOException {
+            hasElements.pop();
+            out.write(']');
+            return this;
+        }
+
+        public JsonWriter name(String name) throws IOException {
+            separator();
+            writeString(out, name);
+            out.write(':');
+            afterName = true;
+            return this;
+        }
+
+        public JsonWriter value(String value) throws IOException {
+            separator();
+            if (value == null) {
+                out.write("null");
+            } else {
+                writeString(out, value);
+            }
+            return this;
+        }
+
+        public JsonWriter value(double value) throws IOException {
+            separator();
+            // JSON has no NaN/Infinity
+            out.write(Double.isNaN(value) || Double.isInfinite(value) ? "null" : formatNumber(value));
+            return this;
+        }
+
+        public JsonWriter value(long value) throws IOException {
+            separator();
+            out.write(Long.toString(value));
+            return this;
+        }
+
+        public JsonWriter value(boolean value) throws IOException {
+            separator();
+            out.write(value ? "true" : "false");
+            return this;
+        }
+
+        public JsonWriter field(String name, String value) throws IOException {
+            return name(name).value(value);
+        }
+
+        public JsonWriter field(String name, double value) throws IOException {
+            return name(name).value(value);
+        }
+
+        public JsonWriter field(String name, long value) throws IOException {
+            return name(name).value(value);
+        }
+
+        /**
+         * Comma before every element except the first (and never right after a name)
+         */
+        private void separator() throws IOException {
+            if (afterName) {
+                afterName = false;
+                return;
+            }
+            if (!hasElements.isEmpty()) {
+                if (hasElements.peek()) {
+                    out.write(',');
+                } else {
+                    hasElements.pop();
+                    hasElements.push(true);
+                }
+            }
+        }
+    }
+
+    private static String formatNumber(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    // ========== READING ==========
+
+    /**
+     * Parse one JSON value - IllegalArgumentException if the text is not valid JSON
+     */
+    public static Object parse(String text) {
+        Parser parser = new Parser(text);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw parser.error("Unexpected text after the value");
+        }
+        return value;
+    }
+
+    /**
+     * RECURSIVE DESCENT: One method per kind of JSON value
+     * Nesting is limited, so "[[[[..." cannot overflow the stack (a StackOverflowError
+     * is an Error, not an Exception - no request handler would catch it)
+     */
+    private static class Parser {
+        private static final int MAX_DEPTH = 64;
+        private final String text;
+        private int pos;
+        private int depth;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object readValue() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw error("Unexpected end of input");
+            }
+            char c = text.charAt(pos);
+            switch (c) {
+                case '{':
+                    enter();
+                    Map<String, Object> object = readObject();
+                    depth--;
+                    return object;
+                case '[':
+                    enter();
+                    List<Object> array = readArray();
+                    depth--;
+                    return array;
+                case '"':
+                    return readString();
+                case 't':
+                    return readLiteral("true", Boolean.TRUE);
+                case 'f':
+                    return readLiteral("false", Boolean.FALSE);
+                case 'n':
+                    return readLiteral("null", null);
+                default:
+                    return readNumber();
+            }
+        }
+
+        private void enter() {
+            if (++depth > MAX_DEPTH) {
+                throw error("Nested deeper than " + MAX_DEPTH + " levels");
+            }
+        }
+
+        private Map<String, Object> readObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            pos++; // {
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Expected a field name");
+                }
+                String name = readString();
+                skipWhitespace();
+                expect(':');
+                object.put(name, readValue());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> readArray() {
+            List<Object> array = new ArrayList<>();
+            pos++; // [
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return array;
+            }
+            while (true) {
+                array.add(readValue());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return array;
+                }
+            }
+        }
+
+        private String readString() {
+            pos++; // opening quote
+            StringBuilder sb = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Bad unicode escape");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Bad unicode escape");
+                        }
+                        pos += 4;
+                        break;
+                    default: sb.append(escaped); // " \ /
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private Double readNumber() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("Unexpected character '" + text.charAt(pos) + "'");
+            }
+            Double number;
+            try {
+                number = Double.valueOf(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("Bad number");
+            }
+            // 1e999 parses as Infinity - not a JSON number, and no amount either
+            if (number.isInfinite()) {
+                throw error("Number out of range");
+            }
+            return number;
+        }
+
+        private Object readLiteral(String literal, Object value) {
+            if (!text.startsWith(literal, pos)) {
+                throw error("Unexpected character '" + text.charAt(pos) + "'");
+            }
+            pos += literal.length();
+            return value;
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("Expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at position " + pos + ": " + message);
+        }
+    }
+}
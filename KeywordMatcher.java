@@ -0,0 +1,170 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.util.*;
+
+/**
+ * MULTI-PATTERN MATCHING: Finds which of many keywords occur in a text in one pass
+ * (Aho-Corasick automaton, compiled once into a flat state table)
+ *
+ * Checking 500 keywords one by one with indexOf costs 500 scans per text; here
+ * every character of the text is one table lookup, however many keywords there are.
+ *
+ * CONCEPT:
+ * - TRIE: all keywords share their common prefixes ("uber", "uber eats")
+ * - FAILURE LINK: on a mismatch jump to the longest suffix of what was read that
+ *   is also a keyword prefix, so the text is never read twice
+ * - The failure links are folded into a full transition table (state x character
+ *   class), so matching has no inner loop at all
+ *
+ * Keywords and texts are matched as whole words: both are padded with spaces, so
+ * "bus" matches "city bus ticket" but not "business". Both must be normalized
+ * the same way by the caller (lower case, single spaces).
+ */
+public final class KeywordMatcher<V> {
+    private static final int ROOT = 0;
+
+    // character -> column of the table; characters in no keyword use column 0
+    private final int[] asciiClass = new int[128];
+    private final Map<Character, Integer> otherClass = new HashMap<>();
+    private final int columns;
+    // transitions[state * columns + column] = next state
+    private final int[] transitions;
+    // longest keyword ending in each state (directly or via failure links), -1 = none
+    private final int[] output;
+    private final int[] keywordLength;
+    private final List<V> values;
+
+    /**
+     * Compile keywords into an automaton
+     * If one keyword is contained in another match, the longer one wins
+     * ("uber eats" before "uber"); equal lengths go by map order
+     */
+    public KeywordMatcher(Map<String, V> keywords) {
+        values = new ArrayList<>(keywords.size());
+        keywordLength = new int[keywords.size()];
+
+        // character classes: only characters that occur in a keyword get their own column
+        int nextClass = 1;
+        asciiClass[' '] = nextClass++;
+        for (String keyword : keywords.keySet()) {
+            for (char c : keyword.toCharArray()) {
+                if (classOf(c) == 0) {
+                    if (c < 128) {
+                        asciiClass[c] = nextClass++;
+                    } else {
+                        otherClass.put(c, nextClass++);
+                    }
+                }
+            }
+        }
+        columns = nextClass;
+
+        // TRIE: build with growable per-state maps first
+        List<Map<Integer, Integer>> trie = new ArrayList<>();
+        List<Integer> own = new ArrayList<>();
+        trie.add(new HashMap<>());
+        own.add(-1);
+        int index = 0;
+        for (Map.Entry<String, V> entry : keywords.entrySet()) {
+            String padded = " " + entry.getKey() + " ";
+            int state = ROOT;
+            for (int i = 0; i < padded.length(); i++) {
+                int column = classOf(padded.charAt(i));
+                Integer next = trie.get(state).get(column);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    own.add(-1);
+                    trie.get(state).put(column, next);
+                }
+                state = next;
+            }
+            if (own.get(state) < 0) {
+                own.set(state, index);
+            }
+            values.add(entry.getValue());
+            keywordLength[index++] = padded.length();
+        }
+
+        // BFS: failure links, folded straight into the transition table
+        int states = trie.size();
+        transitions = new int[states * columns];
+        output = new int[states];
+        int[] failure = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        output[ROOT] = -1;
+        for (int column = 0; column < columns; column++) {
+            Integer child = trie.get(ROOT).get(column);
+            if (child != null) {
+                transitions[column] = child;
+                failure[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] = longer(own.get(state), output[failure[state]]);
+            for (int column = 0; column < columns; column++) {
+                Integer child = trie.get(state).get(column);
+                int fallback = transitions[failure[state] * columns + column];
+                if (child != null) {
+                    transitions[state * columns + column] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                } else {
+                    transitions[state * columns + column] = fallback;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Value of the longest keyword in the text, or null if none occurs
+     */
+    public V findLongest(String text) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        int state = step(ROOT, ' ');
+        int best = output[state];
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            best = longer(best, output[state]);
+        }
+        state = step(state, ' ');
+        best = longer(best, output[state]);
+        return best < 0 ? null : values.get(best);
+    }
+
+    private int step(int state, char c) {
+        return transitions[state * columns + classOf(c)];
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClass[c];
+        }
+        Integer column = otherClass.get(c);
+        return column == null ? 0 : column;
+    }
+
+    /**
+     * The longer of two keyword matches (-1 = no match); ties keep the earlier keyword
+     */
+    private int longer(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        if (keywordLength[a] != keywordLength[b]) {
+            return keywordLength[a] > keywordLength[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+}
@@ -0,0 +1,115 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * METRICS: Fixed-size latency histogram (HDR-style log-linear buckets)
+ * Every power of two is split into 16 sub-buckets, so any value is kept with
+ * about 6% precision while the whole histogram is a single array of counters
+ *
+ * THREAD SAFETY: Recording is lock-free, so it is safe from the UI thread and background savers
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    // 64 powers of two cover any long value
+    private static final int BUCKETS = 64 * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucketIndex(nanos));
+        totalCount.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Values below 32 get their own bucket, larger values keep their top 5 bits
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS + 1;
+        // top 5 bits are 16..31, each power of two gets 16 buckets
+        int subBucket = (int) (value >>> shift) - HALF;
+        return (shift + 1) * HALF + subBucket;
+    }
+
+    /**
+     * Upper value of a bucket (what a percentile in that bucket is reported as)
+     */
+    private static long bucketUpperValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long subBucket = index % HALF + HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public double getMeanNanos() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Latency (in nanoseconds) below which the given percent of calls finished
+     */
+    public long getPercentileNanos(double percent) {
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percent / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(bucketUpperValue(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    /**
+     * One line summary in microseconds
+     */
+    public String summary() {
+        return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                getCount(),
+                getMeanNanos() / 1e3,
+                getPercentileNanos(50) / 1e3,
+                getPercentileNanos(99) / 1e3,
+                getPercentileNanos(99.9) / 1e3,
+                getMaxNanos() / 1e3);
+    }
+}
@@ -0,0 +1,287 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * SHARDING: Many accounts, one ledger (FinanceManager) per account
+ * Every account has its own storage folder (DataPersistenceService.forAccount),
+ * so accounts never block or overwrite each other.
+ *
+ * LAZY LOADING + LRU EVICTION: A ledger is loaded the first time it is used and
+ * stays in memory while it is used often. When more than maxResident ledgers
+ * are loaded, the least recently used idle one is saved and dropped, so memory
+ * stays bounded no matter how many accounts exist.
+ *
+ * USAGE: Always go through withLedger - the ledger cannot be evicted while the
+ * operation runs, and changes are saved in the background (one thread for all).
+ *
+ *   registry.withLedger("household-42", ledger -> { ledger.addTransaction(t); return null; });
+ *
+ * Settings: -Dfinance.ledgers.dir=ledgers  -Dfinance.ledgers.maxResident=64
+ */
+public class LedgerRegistry {
+
+    /**
+     * The work to do with one account's ledger
+     */
+    @FunctionalInterface
+    public interface LedgerOperation<T> {
+        T apply(FinanceManager ledger) throws InvalidTrasactionException, IOException;
+    }
+
+    /**
+     * One account: its storage, its ledger (null while not loaded) and a dirty flag
+     */
+    private final class Account implements FinanceChangeListener {
+        final String accountId;
+        final AtomicBoolean dirty = new AtomicBoolean(false);
+        DataPersistenceService dataService;
+        FinanceManager ledger;
+        // operations running right now - guarded by the registry lock
+        int users;
+
+        Account(String accountId) {
+            this.accountId = accountId;
+        }
+
+        @Override
+        public void onChange(FinanceChangeEvent event) {
+            dirty.set(true);
+        }
+
+        synchronized FinanceManager load() {
+            if (ledger == null) {
+                long start = FinanceMetrics.startTimer();
+                dataService = DataPersistenceService.forAccount(rootDirectory, accountId);
+                ledger = dataService.loadData();
+                ledger.addChangeListener(this);
+                FinanceMetrics.increment("ledgers.loads");
+                FinanceMetrics.stopTimer("ledgers.load", start);
+            }
+            return ledger;
+        }
+
+        /**
+         * Save if changed - the data service writes the summary sidecar with every save
+         * Returns false only if there was something to save and it failed
+         */
+        synchronized boolean saveIfDirty() {
+            if (ledger == null) {
+                return true;
+            }
+            if (!dataService.isAutoSaveEnabled()) {
+                // the stored data failed to load - keep the account loaded rather than write over it
+                return !dirty.get();
+            }
+            if (!dirty.getAndSet(false)) {
+                return true;
+            }
+            boolean saved = dataService.saveData(ledger);
+            if (!saved) {
+                dirty.set(true);
+            }
+            return saved;
+        }
+    }
+
+    private final String rootDirectory;
+    private final int maxResident;
+    // ACCESS ORDER: iteration starts at the least recently used account
+    private final LinkedHashMap<String, Account> resident = new LinkedHashMap<>(16, 0.75f, true);
+    // evicted but maybe not saved yet - a new request for the account takes it back
+    private final Map<String, Account> evicting = new HashMap<>();
+    private final ScheduledExecutorService saver;
+
+    public LedgerRegistry() {
+        this(System.getProperty("finance.ledgers.dir", "ledgers"),
+                Integer.getInteger("finance.ledgers.maxResident", 64));
+    }
+
+    public LedgerRegistry(String rootDirectory, int maxResident) {
+        if (maxResident <= 0) {
+            throw new IllegalArgumentException("maxResident must be positive");
+        }
+        this.rootDirectory = rootDirectory;
+        this.maxResident = maxResident;
+        new File(rootDirectory).mkdirs();
+        this.saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "finance-ledger-saver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long seconds = Long.getLong("finance.autosave.seconds", 30);
+        if (seconds > 0) {
+            saver.scheduleWithFixedDelay(this::saveAll, seconds, seconds, TimeUnit.SECONDS);
+        }
+        FinanceMetrics.registerGauge("ledgers.resident", this::getResidentCount);
+    }
+
+    /**
+     * Run an operation on one account's ledger (loaded on first use)
+     * Different accounts run fully in parallel - only the short map lookup is shared
+     */
+    public <T> T withLedger(String accountId, LedgerOperation<T> operation)
+            throws InvalidTrasactionException, IOException {
+        DataPersistenceService.accountFolder(rootDirectory, accountId); // validates the ID
+        Account account;
+        List<Account> evicted;
+        synchronized (this) {
+            account = resident.get(accountId);
+            if (account == null) {
+                account = evicting.remove(accountId);
+                if (account == null) {
+                    account = new Account(accountId);
+                }
+                resident.put(accountId, account);
+            }
+            account.users++;
+            evicted = pickEvictions();
+        }
+        evict(evicted);
+        try {
+            return operation.apply(account.load());
+        } finally {
+            synchronized (this) {
+                account.users--;
+            }
+        }
+    }
+
+    /**
+     * LRU: Take the least recently used idle accounts out of the map (caller holds the lock)
+     */
+    private List<Account> pickEvictions() {
+        List<Account> evicted = new ArrayList<>();
+        Iterator<Account> iterator = resident.values().iterator();
+        while (resident.size() > maxResident && iterator.hasNext()) {
+            Account account = iterator.next();
+            if (account.users == 0) {
+                iterator.remove();
+                evicting.put(account.accountId, account);
+                evicted.add(account);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Save and unload evicted accounts (outside the registry lock - this touches the disk)
+     * An account that failed to save, or was asked for again meanwhile, stays loaded
+     */
+    private void evict(List<Account> evicted) {
+        for (Account account : evicted) {
+            synchronized (account) {
+                boolean saved = account.saveIfDirty();
+                synchronized (this) {
+                    if (evicting.get(account.accountId) != account) {
+                        continue; // back in use
+                    }
+                    if (!saved) {
+                        evicting.remove(account.accountId);
+                        resident.put(account.accountId, account);
+                        continue;
+                    }
+                    evicting.remove(account.accountId);
+                }
+                if (account.ledger != null) {
+                    account.ledger.removeChangeListener(account);
+                    account.ledger = null;
+                    FinanceMetrics.increment("ledgers.evictions");
+                }
+            }
+        }
+    }
+
+    /**
+     * Save every loaded ledger that changed (runs periodically in the background)
+     */
+    public void saveAll() {
+        List<Account> accounts;
+        synchronized (this) {
+            accounts = new ArrayList<>(resident.values());
+            accounts.addAll(evicting.values());
+        }
+        for (Account account : accounts) {
+            account.saveIfDirty();
+        }
+    }
+
+    /**
+     * Final save of everything, then stop the background thread
+     */
+    public void shutdown() {
+        saver.shutdown();
+        try {
+            saver.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        saveAll();
+    }
+
+    // ========== CROSS-ACCOUNT ==========
+
+    /**
+     * All accounts that have a storage folder, sorted by ID
+     */
+    public List<String> listAccounts() {
+        List<String> accounts = new ArrayList<>();
+        File[] folders = new File(rootDirectory).listFiles(File::isDirectory);
+        if (folders != null) {
+            for (File folder : folders) {
+                if (DataPersistenceService.isValidAccountId(folder.getName())) {
+                    accounts.add(folder.getName());
+                }
+            }
+        }
+        Collections.sort(accounts);
+        return accounts;
+    }
+
+    /**
+     * Totals of one account: live if it is loaded, otherwise from its summary file
+     * (the ledger is only loaded if no summary was saved yet)
+     */
+    public LedgerSummary getSummary(String accountId) throws InvalidTrasactionException, IOException {
+        Account account;
+        synchronized (this) {
+            account = resident.get(accountId);
+        }
+        if (account == null) {
+            LedgerSummary summary = LedgerSummary.read(summaryFile(accountId));
+            if (summary != null) {
+                return summary;
+            }
+        }
+        return withLedger(accountId, LedgerSummary::of);
+    }
+
+    /**
+     * CROSS-ACCOUNT ROLLUP: Per-account summaries added together
+     */
+    public LedgerSummary getCombinedSummary() throws InvalidTrasactionException, IOException {
+        long start = FinanceMetrics.startTimer();
+        LedgerSummary combined = new LedgerSummary();
+        for (String accountId : listAccounts()) {
+            combined.add(getSummary(accountId));
+        }
+        FinanceMetrics.stopTimer("ledgers.combinedSummary", start);
+        return combined;
+    }
+
+    public synchronized int getResidentCount() {
+        return resident.size();
+    }
+
+    private Path summaryFile(String accountId) {
+        return DataPersistenceService.accountFolder(rootDirectory, accountId)
+                .resolve(DataPersistenceService.ACCOUNT_SUMMARY_FILE);
+    }
+}
@@ -0,0 +1,202 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * SNAPSHOT: One immutable version of the ledger's transactions
+ * Every change makes a new snapshot that shares almost all of its tree nodes
+ * with the previous one (see PersistentTreeMap). A report can keep reading an
+ * old snapshot for as long as it likes while edits carry on.
+ *
+ * Two trees over the same transactions:
+ * - by sequence number: the order they were added in
+ * - by (id, sequence): find a transaction by ID in O(log n)
+ */
+public final class LedgerSnapshot implements Iterable<Transaction> {
+
+    public static final LedgerSnapshot EMPTY = new LedgerSnapshot(
+            PersistentTreeMap.<Long, Transaction>empty(), PersistentTreeMap.<IdKey, Transaction>empty(), 0);
+
+    /**
+     * Index key: transaction ID, then sequence number (IDs are not guaranteed unique)
+     */
+    private static final class IdKey implements Comparable<IdKey> {
+        final String id;
+        final long sequence;
+
+        IdKey(String id, long sequence) {
+            this.id = id;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(IdKey other) {
+            int cmp = id.compareTo(other.id);
+            return cmp != 0 ? cmp : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final PersistentTreeMap<Long, Transaction> bySequence;
+    private final PersistentTreeMap<IdKey, Transaction> byId;
+    private final long nextSequence;
+
+    private LedgerSnapshot(PersistentTreeMap<Long, Transaction> bySequence,
+                           PersistentTreeMap<IdKey, Transaction> byId, long nextSequence) {
+        this.bySequence = bySequence;
+        this.byId = byId;
+        this.nextSequence = nextSequence;
+    }
+
+    public int size() {
+        return bySequence.size();
+    }
+
+    /**
+     * First transaction (in added order) with this ID, or null
+     */
+    public Transaction find(String id) {
+        Map.Entry<IdKey, Transaction> entry = byId.ceilingEntry(new IdKey(id, Long.MIN_VALUE));
+        return entry != null && entry.getKey().id.equals(id) ? entry.getValue() : null;
+    }
+
+    /**
+     * Position of find(id) in the added order (-1 if there is no such transaction)
+     */
+    long sequenceOf(String id) {
+        Map.Entry<IdKey, Transaction> entry = byId.ceilingEntry(new IdKey(id, Long.MIN_VALUE));
+        return entry != null && entry.getKey().id.equals(id) ? entry.getKey().sequence : -1;
+    }
+
+    /**
+     * Transaction at a position in the added order, or null
+     */
+    Transaction get(long sequence) {
+        return bySequence.get(sequence);
+    }
+
+    /**
+     * Position the next added transaction will get
+     */
+    long getNextSequence() {
+        return nextSequence;
+    }
+
+    // ========== NEW VERSIONS ==========
+
+    public LedgerSnapshot add(Transaction transaction) {
+        return insert(nextSequence, transaction);
+    }
+
+    public LedgerSnapshot addAll(Collection<Transaction> transactions) {
+        LedgerSnapshot snapshot = this;
+        for (Transaction transaction : transactions) {
+            snapshot = snapshot.add(transaction);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Put a transaction back at a given position (used by undo)
+     */
+    LedgerSnapshot insert(long sequence, Transaction transaction) {
+        return new LedgerSnapshot(
+                bySequence.put(sequence, transaction),
+                byId.put(new IdKey(transaction.getId(), sequence), transaction),
+                Math.max(nextSequence, sequence + 1));
+    }
+
+    /**
+     * Without the first transaction with this ID (this snapshot if there is none)
+     */
+    public LedgerSnapshot remove(String id) {
+        long sequence = sequenceOf(id);
+        if (sequence < 0) {
+            return this;
+        }
+        return new LedgerSnapshot(bySequence.remove(sequence), byId.remove(new IdKey(id, sequence)), nextSequence);
+    }
+
+    /**
+     * Swap the transaction at a position for a new version with the same ID
+     */
+    LedgerSnapshot replace(long sequence, Transaction transaction) {
+        Transaction old = bySequence.get(sequence);
+        if (old == null || !old.getId().equals(transaction.getId())) {
+            throw new IllegalArgumentException("No transaction " + transaction.getId() + " at " + sequence);
+        }
+        return new LedgerSnapshot(bySequence.put(sequence, transaction),
+                byId.put(new IdKey(transaction.getId(), sequence), transaction), nextSequence);
+    }
+
+    /**
+     * Without the transaction at this position
+     */
+    LedgerSnapshot remove(long sequence) {
+        Transaction transaction = bySequence.get(sequence);
+        if (transaction == null) {
+            return this;
+        }
+        return new LedgerSnapshot(bySequence.remove(sequence),
+                byId.remove(new IdKey(transaction.getId(), sequence)), nextSequence);
+    }
+
+    public LedgerSnapshot removeIf(Predicate<Transaction> filter) {
+        PersistentTreeMap<Long, Transaction> newBySequence = bySequence;
+        PersistentTreeMap<IdKey, Transaction> newById = byId;
+        for (Map.Entry<Long, Transaction> entry : bySequence) {
+            if (filter.test(entry.getValue())) {
+                newBySequence = newBySequence.remove(entry.getKey());
+                newById = newById.remove(new IdKey(entry.getValue().getId(), entry.getKey()));
+            }
+        }
+        return newBySequence == bySequence ? this : new LedgerSnapshot(newBySequence, newById, nextSequence);
+    }
+
+    // ========== READING ==========
+
+    /**
+     * Positions and transactions in the added order
+     */
+    Iterable<Map.Entry<Long, Transaction>> entries() {
+        return bySequence;
+    }
+
+    /**
+     * Transactions in the order they were added
+     */
+    @Override
+    public Iterator<Transaction> iterator() {
+        Iterator<Map.Entry<Long, Transaction>> entries = bySequence.iterator();
+        return new Iterator<Transaction>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public Transaction next() {
+                return entries.next().getValue();
+            }
+        };
+    }
+
+    public Stream<Transaction> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Spliterator<Transaction> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    public List<Transaction> toList() {
+        List<Transaction> list = new ArrayList<>(size());
+        for (Transaction transaction : this) {
+            list.add(transaction);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,153 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * AGGREGATE: The totals of one ledger, small enough to keep for every account
+ * Saved next to each account's data (summary.ser) so cross-account reports can
+ * add up summaries instead of loading every ledger.
+ * Amounts are in the ledger's base currency; add() converts when two accounts
+ * are kept in different currencies.
+ */
+public class LedgerSummary implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // null = summary written before currencies existed (the default currency)
+    private String currency;
+    private long transactionCount;
+    private double totalIncome;
+    private double totalExpenses;
+    // month -> {income, expenses}
+    private final TreeMap<YearMonth, double[]> monthlyTotals = new TreeMap<>();
+    private final Map<String, Double> expensesByCategory = new HashMap<>();
+
+    /**
+     * Build the summary from the manager's rollup (no scan of the transactions)
+     */
+    public static LedgerSummary of(FinanceManager financeManager) {
+        LedgerSummary summary = new LedgerSummary();
+        summary.currency = financeManager.getBaseCurrency();
+        synchronized (financeManager) {
+            MonthlyRollup rollup = financeManager.getMonthlyRollup();
+            summary.totalIncome = financeManager.calculateTotalIncome();
+            summary.totalExpenses = financeManager.calculateTotalExpenses();
+            for (YearMonth month : rollup.getMonths()) {
+                summary.monthlyTotals.put(month,
+                        new double[]{rollup.getTotalIncome(month), rollup.getTotalExpense(month)});
+                for (Map.Entry<String, MonthlyRollup.CategoryTotals> entry : rollup.getCategoryTotals(month).entrySet()) {
+                    MonthlyRollup.CategoryTotals totals = entry.getValue();
+                    summary.transactionCount += totals.getIncomeCount() + totals.getExpenseCount();
+                    if (totals.getExpenseCount() > 0) {
+                        summary.expensesByCategory.merge(entry.getKey(), totals.getExpense(), Double::sum);
+                    }
+                }
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * CROSS-ACCOUNT ROLLUP: Add another account's totals to this one
+     * An account in another currency is converted with the default rate table:
+     * each month at its month-end rate, the overall totals at today's rate.
+     * An empty summary takes the currency of the first one added.
+     */
+    public void add(LedgerSummary other) {
+        if (transactionCount == 0 && monthlyTotals.isEmpty()) {
+            currency = other.getCurrency();
+        }
+        String from = other.getCurrency();
+        String to = getCurrency();
+        ExchangeRateTable rates = ExchangeRateTable.getDefault();
+        long today = LocalDate.now().toEpochDay();
+
+        transactionCount += other.transactionCount;
+        totalIncome += rates.convert(other.totalIncome, from, to, today);
+        totalExpenses += rates.convert(other.totalExpenses, from, to, today);
+        for (Map.Entry<YearMonth, double[]> entry : other.monthlyTotals.entrySet()) {
+            long monthEnd = entry.getKey().atEndOfMonth().toEpochDay();
+            double[] totals = monthlyTotals.computeIfAbsent(entry.getKey(), m -> new double[2]);
+            totals[0] += rates.convert(entry.getValue()[0], from, to, monthEnd);
+            totals[1] += rates.convert(entry.getValue()[1], from, to, monthEnd);
+        }
+        for (Map.Entry<String, Double> entry : other.expensesByCategory.entrySet()) {
+            expensesByCategory.merge(entry.getKey(), rates.convert(entry.getValue(), from, to, today), Double::sum);
+        }
+    }
+
+    // ========== SIDECAR FILE ==========
+
+    public void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeObject(this);
+        }
+        SerializedFileBackend.moveAtomically(temp, file);
+    }
+
+    /**
+     * Returns null if there is no (readable) summary file
+     */
+    public static LedgerSummary read(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return (LedgerSummary) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println("Ignoring unreadable summary " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    //getters
+
+    public String getCurrency() {
+        return currency != null ? currency : ExchangeRateTable.normalize(System.getProperty("finance.currency", "USD"));
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public double getTotalIncome() {
+        return totalIncome;
+    }
+
+    public double getTotalExpenses() {
+        return totalExpenses;
+    }
+
+    public double getBalance() {
+        return totalIncome - totalExpenses;
+    }
+
+    public SortedSet<YearMonth> getMonths() {
+        return Collections.unmodifiableSortedSet(monthlyTotals.navigableKeySet());
+    }
+
+    public double getMonthlyIncome(YearMonth month) {
+        double[] totals = monthlyTotals.get(month);
+        return totals == null ? 0 : totals[0];
+    }
+
+    public double getMonthlyExpenses(YearMonth month) {
+        double[] totals = monthlyTotals.get(month);
+        return totals == null ? 0 : totals[1];
+    }
+
+    public Map<String, Double> getExpensesByCategory() {
+        return Collections.unmodifiableMap(expensesByCategory);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LedgerSummary{transactions=%d, income=%.2f, expenses=%.2f %s}",
+                transactionCount, totalIncome, totalExpenses, getCurrency());
+    }
+}
@@ -0,0 +1,28 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.util.Currency;
+import java.util.Locale;
+
+/**
+ * DISPLAY HELPER: Amounts with their currency symbol ("$12.50", "€12.50", "CHF12.50")
+ * Replaces the "$" that used to be written into every format string
+ */
+public final class Money {
+    private Money() {
+    }
+
+    public static String format(double amount, String currency) {
+        return String.format("%s%.2f", symbol(currency), amount);
+    }
+
+    /**
+     * Symbol for the default locale, or the code itself if there is none
+     */
+    public static String symbol(String currency) {
+        try {
+            return Currency.getInstance(currency).getSymbol(Locale.getDefault());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return currency == null ? "" : currency;
+        }
+    }
+}
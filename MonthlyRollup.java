@@ -0,0 +1,142 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.Serializable;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * AGGREGATE: Income and expense totals per month and category
+ * INCREMENTAL CONCEPT: Updated on every add/delete (add or subtract one transaction)
+ * so monthly summaries and forecasts never have to rescan the whole history
+ */
+public class MonthlyRollup implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Running totals for one category in one month
+     * Counts are kept so a category disappears cleanly once all its transactions are deleted
+     */
+    public static class CategoryTotals implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private double income;
+        private double expense;
+        private int incomeCount;
+        private int expenseCount;
+
+        public double getIncome() {
+            return income;
+        }
+
+        public double getExpense() {
+            return expense;
+        }
+
+        public int getIncomeCount() {
+            return incomeCount;
+        }
+
+        public int getExpenseCount() {
+            return expenseCount;
+        }
+
+        boolean isEmpty() {
+            return incomeCount == 0 && expenseCount == 0;
+        }
+    }
+
+    // TreeMap keeps months in calendar order
+    private final TreeMap<YearMonth, Map<String, CategoryTotals>> months = new TreeMap<>();
+
+    /**
+     * Add (sign = 1) or remove (sign = -1) one transaction's contribution
+     */
+    void apply(Transaction transaction, int sign) {
+        add(YearMonth.from(transaction.getLocalDate()), transaction.getCategory(), transaction.getType(),
+                sign * transaction.getBaseAmount(), sign);
+    }
+
+    /**
+     * Add the totals of several transactions of one month, category and type at once
+     * (e.g. a database sums up archived months instead of handing over their rows)
+     */
+    void add(YearMonth month, String category, TransactionType type, double amount, int count) {
+        Map<String, CategoryTotals> categories = months.computeIfAbsent(month, m -> new HashMap<>());
+        CategoryTotals totals = categories.computeIfAbsent(category, c -> new CategoryTotals());
+
+        if (type == TransactionType.INCOME) {
+            totals.income += amount;
+            totals.incomeCount += count;
+        } else {
+            totals.expense += amount;
+            totals.expenseCount += count;
+        }
+
+        if (totals.isEmpty()) {
+            categories.remove(category);
+            if (categories.isEmpty()) {
+                months.remove(month);
+            }
+        }
+    }
+
+    /**
+     * Deep copy, used when saving in the background
+     */
+    MonthlyRollup copy() {
+        MonthlyRollup copy = new MonthlyRollup();
+        for (Map.Entry<YearMonth, Map<String, CategoryTotals>> month : months.entrySet()) {
+            Map<String, CategoryTotals> categories = new HashMap<>();
+            for (Map.Entry<String, CategoryTotals> entry : month.getValue().entrySet()) {
+                CategoryTotals source = entry.getValue();
+                CategoryTotals totals = new CategoryTotals();
+                totals.income = source.income;
+                totals.expense = source.expense;
+                totals.incomeCount = source.incomeCount;
+                totals.expenseCount = source.expenseCount;
+                categories.put(entry.getKey(), totals);
+            }
+            copy.months.put(month.getKey(), categories);
+        }
+        return copy;
+    }
+
+    // ========== READ OPERATIONS ==========
+
+    public SortedSet<YearMonth> getMonths() {
+        return Collections.unmodifiableSortedSet(months.navigableKeySet());
+    }
+
+    public Map<String, CategoryTotals> getCategoryTotals(YearMonth month) {
+        Map<String, CategoryTotals> categories = months.get(month);
+        return categories == null ? Collections.emptyMap() : Collections.unmodifiableMap(categories);
+    }
+
+    public double getTotalIncome(YearMonth month) {
+        double sum = 0;
+        for (CategoryTotals totals : getCategoryTotals(month).values()) {
+            sum += totals.income;
+        }
+        return sum;
+    }
+
+    /**
+     * Rough heap size of the rollup (for the index memory gauge)
+     * About 150 bytes per month/category entry including map overhead
+     */
+    public long estimateMemoryBytes() {
+        long entries = 0;
+        for (Map<String, CategoryTotals> categories : months.values()) {
+            entries += categories.size();
+        }
+        return months.size() * 100L + entries * 150L;
+    }
+
+    public double getTotalExpense(YearMonth month) {
+        double sum = 0;
+        for (CategoryTotals totals : getCategoryTotals(month).values()) {
+            sum += totals.expense;
+        }
+        return sum;
+    }
+}
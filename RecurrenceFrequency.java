@@ -0,0 +1,50 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * ENUM CONCEPT: How often a recurring transaction repeats
+ * Combined with an interval (every N days/weeks/months/years) this covers
+ * custom schedules like "every 2 weeks" or "every 3 months"
+ */
+public enum RecurrenceFrequency {
+    DAILY("Daily", ChronoUnit.DAYS),
+    WEEKLY("Weekly", ChronoUnit.WEEKS),
+    MONTHLY("Monthly", ChronoUnit.MONTHS),
+    YEARLY("Yearly", ChronoUnit.YEARS);
+
+    private final String displayName;
+    private final ChronoUnit unit;
+
+    RecurrenceFrequency(String displayName, ChronoUnit unit) {
+        this.displayName = displayName;
+        this.unit = unit;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Date of the n-th step after start
+     * Why always from start? Stepping month by month from the 31st would
+     * drift to the 28th after February, computing from start does not
+     */
+    public LocalDate step(LocalDate start, long steps) {
+        return start.plus(steps, unit);
+    }
+
+    /**
+     * Number of whole steps between two dates (used to jump straight to a
+     * date range instead of walking every occurrence before it)
+     */
+    public long stepsBetween(LocalDate start, LocalDate end) {
+        return unit.between(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,168 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ENTITY: Template for a transaction that repeats (salary, rent, subscriptions)
+ * Only the template is stored - each occurrence is computed from the start date,
+ * so future occurrences can be queried without saving a row for every one of them
+ */
+public class RecurringTransaction implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private double amount;
+    private String category;
+    private String description;
+    private TransactionType type;
+    private RecurrenceFrequency frequency;
+    private int interval;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    // how many occurrences have already been added to the ledger
+    private int materializedCount;
+
+    public RecurringTransaction(String id, double amount, String category, String description,
+                                TransactionType type, RecurrenceFrequency frequency, int interval,
+                                LocalDate startDate, LocalDate endDate) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.id = id;
+        this.amount = amount;
+        this.category = category;
+        this.description = description;
+        this.type = type;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.materializedCount = 0;
+    }
+
+    /**
+     * Date of the n-th occurrence (0 = start date)
+     */
+    public LocalDate getOccurrenceDate(int n) {
+        return frequency.step(startDate, (long) n * interval);
+    }
+
+    /**
+     * VIRTUAL QUERY: All occurrence dates inside [from, to]
+     * Jumps directly to the first candidate instead of walking from the start date
+     */
+    public List<LocalDate> getOccurrencesBetween(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate last = (endDate != null && endDate.isBefore(to)) ? endDate : to;
+        int n = 0;
+        if (from.isAfter(startDate)) {
+            n = (int) (frequency.stepsBetween(startDate, from) / interval);
+        }
+        LocalDate date = getOccurrenceDate(n);
+        while (!date.isAfter(last)) {
+            if (!date.isBefore(from)) {
+                dates.add(date);
+            }
+            n++;
+            date = getOccurrenceDate(n);
+        }
+        return dates;
+    }
+
+    /**
+     * Occurrences that are due up to (and including) today but not yet in the ledger
+     * Does not move the cursor - call markMaterialized once they are stored
+     */
+    public List<Transaction> getDueTransactions(LocalDate today) {
+        List<Transaction> due = new ArrayList<>();
+        LocalDate last = (endDate != null && endDate.isBefore(today)) ? endDate : today;
+        int n = materializedCount;
+        LocalDate date = getOccurrenceDate(n);
+        while (!date.isAfter(last)) {
+            due.add(toTransaction(date));
+            n++;
+            date = getOccurrenceDate(n);
+        }
+        return due;
+    }
+
+    public void markMaterialized(int count) {
+        this.materializedCount += count;
+    }
+
+    /**
+     * Independent copy (the cursor keeps moving in the original)
+     */
+    public RecurringTransaction copy() {
+        RecurringTransaction copy = new RecurringTransaction(id, amount, category, description, type,
+                frequency, interval, startDate, endDate);
+        copy.materializedCount = materializedCount;
+        return copy;
+    }
+
+    /**
+     * Build the concrete transaction for one occurrence
+     * ID is derived from the template and date so the same occurrence always gets the same ID
+     */
+    public Transaction toTransaction(LocalDate date) {
+        return new Transaction(
+                id + "_" + date,
+                amount,
+                category,
+                java.sql.Date.valueOf(date),
+                description,
+                type
+        );
+    }
+
+    //getters
+
+    public String getId() {
+        return id;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public int getMaterializedCount() {
+        return materializedCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RecurringTransaction{id=%s, amount=%.2f, category=%s, every %d %s}",
+                id, amount, category, interval, frequency);
+    }
+}
@@ -0,0 +1,68 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * SERVICE: Turns recurring templates into real transactions when they become due
+ * LAZY MATERIALIZATION: Occurrences are only created when the app starts or the
+ * clock moves past them - and all of them go into the ledger as ONE batch
+ */
+public class RecurringTransactionScheduler {
+    private final FinanceManager financeManager;
+
+    public RecurringTransactionScheduler(FinanceManager financeManager) {
+        this.financeManager = financeManager;
+    }
+
+    /**
+     * CATCH UP: Add every occurrence due up to today in a single batched insert
+     * Returns how many transactions were added
+     */
+    public int materializeDueTransactions(LocalDate today) throws InvalidTrasactionException {
+        // One lock for reading the cursors, inserting the rows and advancing the cursors:
+        // two overlapping calls can never add the same occurrences, and a background
+        // save never sees the rows without the cursors
+        synchronized (financeManager) {
+            List<RecurringTransaction> templates = financeManager.getAllRecurringTransactions();
+            List<Transaction> batch = new ArrayList<>();
+            int[] counts = new int[templates.size()];
+
+            for (int i = 0; i < templates.size(); i++) {
+                List<Transaction> due = templates.get(i).getDueTransactions(today);
+                counts[i] = due.size();
+                batch.addAll(due);
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            // Keep the ledger in date order even when several templates catch up together
+            batch.sort(Comparator.comparing(Transaction::getDate));
+            financeManager.addTransactions(batch, false);
+
+            // Only move the cursors once the batch is safely in the ledger
+            for (int i = 0; i < templates.size(); i++) {
+                templates.get(i).markMaterialized(counts[i]);
+            }
+            financeManager.recurringTransactionsAdvanced();
+            return batch.size();
+        }
+    }
+
+    /**
+     * FORECAST QUERY: Occurrences between two dates without storing them
+     */
+    public List<Transaction> getVirtualTransactions(LocalDate from, LocalDate to) {
+        List<Transaction> virtual = new ArrayList<>();
+        for (RecurringTransaction template : financeManager.getAllRecurringTransactions()) {
+            for (LocalDate date : template.getOccurrencesBetween(from, to)) {
+                virtual.add(template.toTransaction(date));
+            }
+        }
+        virtual.sort(Comparator.comparing(Transaction::getDate));
+        return virtual;
+    }
+}
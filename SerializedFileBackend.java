@@ -0,0 +1,196 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * STORAGE BACKEND: The original format - the whole FinanceManager serialized to one file
+ * SERIALIZATION: Converting objects to byte stream for storage
+ *
+ * CRASH SAFETY:
+ * 1. Write everything to a temp file next to the real one
+ * 2. Store the length and a CRC32 checksum in a small header
+ * 3. Force it to disk, then atomically rename it over the real file
+ * 4. Force the folder too, so the rename itself survives a power cut
+ * A crash at any point leaves either the old file or the new one - never half of each.
+ * Files from older versions (no header) can still be read.
+ * A file that fails its checksum is renamed to finance_data.ser.corrupt, never overwritten.
+ */
+public class SerializedFileBackend implements StorageBackend {
+    private static final int MAGIC = 0x46494E31; // "FIN1"
+    // magic + payload length + CRC32
+    private static final int HEADER_SIZE = 4 + 8 + 8;
+
+    private final Path file;
+    private final Path tempFile;
+    // checksum of the file last read or written (lets a journal check it belongs to this snapshot)
+    private long lastChecksum;
+
+    public SerializedFileBackend(String fileName) {
+        this.file = Paths.get(fileName);
+        this.tempFile = Paths.get(fileName + ".tmp");
+    }
+
+    @Override
+    public FinanceManager load() throws IOException {
+        if (!Files.exists(file)) {
+            return new FinanceManager();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is full or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                channel.position(0);
+                lastChecksum = 0;
+                return readObject(new BufferedInputStream(Channels.newInputStream(channel)));
+            }
+            long length = header.getLong();
+            long expectedChecksum = header.getLong();
+
+            CRC32 crc = new CRC32();
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(
+                    Channels.newInputStream(channel)), crc);
+            FinanceManager financeManager = readObject(checked);
+            // the checksum covers every payload byte, including any the object stream did not need
+            long read = channel.size() - HEADER_SIZE;
+            byte[] rest = new byte[8192];
+            while (checked.read(rest) > 0) {
+                // drain so the CRC sees the whole payload
+            }
+            if (read != length || crc.getValue() != expectedChecksum) {
+                throw new IOException("Checksum mismatch in " + file + " - file is damaged");
+            }
+            lastChecksum = expectedChecksum;
+            return financeManager;
+        }
+    }
+
+    private FinanceManager readObject(InputStream input) throws IOException {
+        try {
+            return (FinanceManager) new ObjectInputStream(input).readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown class in " + file, e);
+        }
+    }
+
+    /**
+     * SAVE: Snapshot the manager (briefly locked), then write it without holding any lock
+     */
+    @Override
+    public void save(FinanceManager financeManager) throws IOException {
+        writeSnapshot(financeManager.copyForSave());
+    }
+
+    /**
+     * ATOMIC WRITE: temp file + checksum + fsync + atomic rename
+     * Returns the checksum of what was written
+     */
+    synchronized long writeSnapshot(FinanceManager snapshot) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc)));
+            out.writeObject(snapshot);
+            out.flush();
+            long length = channel.position() - HEADER_SIZE;
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putLong(length).putLong(crc.getValue()).flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        moveAtomically(tempFile, file);
+        lastChecksum = crc.getValue();
+        return lastChecksum;
+    }
+
+    /**
+     * Rename over the target in one step (falls back to a plain replace where
+     * the file system cannot do atomic moves), then fsync the folder - the new
+     * name lives in the folder, not in the file that was already forced
+     */
+    static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * FSYNC A FOLDER: Makes renames and new files in it durable
+     * Windows cannot open a folder as a channel - there the rename is already
+     * journaled by the file system, so failing to open it is not an error
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Rename the damaged file to finance_data.ser.corrupt (.corrupt.1, .corrupt.2 ...
+     * if an older one is already there)
+     */
+    @Override
+    public String quarantine() throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Path target = quarantinePath(file);
+        moveAtomically(file, target);
+        return target.toString();
+    }
+
+    static Path quarantinePath(Path damaged) {
+        Path target = Paths.get(damaged + ".corrupt");
+        for (int n = 1; Files.exists(target); n++) {
+            target = Paths.get(damaged + ".corrupt." + n);
+        }
+        return target;
+    }
+
+    long getLastChecksum() {
+        return lastChecksum;
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.exists(file);
+    }
+
+    @Override
+    public boolean delete() {
+        try {
+            Files.deleteIfExists(tempFile);
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String describe() {
+        return file.toString();
+    }
+}
@@ -0,0 +1,152 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+
+/**
+ * SYNC TRANSPORT: A direct TCP connection between two running copies
+ * -Dfinance.sync.listen=7071 on one side, -Dfinance.sync.peer=7071 (or host:7071)
+ * on the other. The listener binds to 127.0.0.1 only - there is no login, so to
+ * reach another machine use an SSH tunnel or the folder transport.
+ *
+ * PROTOCOL (one round, client = the side with sync.peer):
+ *   client -> server   MAGIC, client node
+ *   server -> client   MAGIC, server node, how much of the client's log it has
+ *   client -> server   how much of the server's log it has, client frames from there
+ *   server -> client   server frames from what the client has
+ * Whoever sends second has already applied what it received, and each side
+ * only ever sends from the position the other one reported, so a round that
+ * breaks off half way is simply repeated next time.
+ */
+public class SocketSyncTransport implements SyncTransport {
+    private static final int MAGIC = 0x46535943; // "FSYC"
+    private static final int TIMEOUT_MILLIS = 30_000;
+
+    private final String host;
+    private final int port;
+
+    /**
+     * peer = "port" (this machine) or "host:port"
+     */
+    public SocketSyncTransport(String peer) {
+        int colon = peer.lastIndexOf(':');
+        this.host = colon < 0 ? InetAddress.getLoopbackAddress().getHostAddress() : peer.substring(0, colon);
+        this.port = Integer.parseInt(peer.substring(colon + 1).trim());
+    }
+
+    @Override
+    public void sync(SyncLog log) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), TIMEOUT_MILLIS);
+            socket.setSoTimeout(TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            out.writeInt(MAGIC);
+            out.writeUTF(log.getNodeId());
+            out.flush();
+            String peer = readHello(in);
+            long peerHas = in.readLong();
+
+            out.writeLong(log.getCursor(inCursor(peer)));
+            sendFrames(log, peer, peerHas, out);
+            out.flush();
+            receiveFrames(log, peer, in);
+        }
+    }
+
+    // ========== SERVER SIDE ==========
+
+    /**
+     * LISTENER: Answers sync rounds from the peer on a background thread
+     * afterRound runs once a round brought changes in (save the data, then the log)
+     */
+    public static Closeable listen(int port, SyncLog log, Runnable afterRound) throws IOException {
+        ServerSocket server = new ServerSocket();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        Thread thread = new Thread(() -> {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    socket.setSoTimeout(TIMEOUT_MILLIS);
+                    answer(log, socket);
+                    afterRound.run();
+                } catch (SocketException e) {
+                    if (!server.isClosed()) {
+                        System.err.println("Sync connection failed: " + e.getMessage());
+                    }
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Sync connection failed: " + e.getMessage());
+                    FinanceMetrics.increment("sync.errors");
+                }
+            }
+        }, "finance-sync-listener");
+        thread.setDaemon(true);
+        thread.start();
+        System.out.println("Listening for sync on 127.0.0.1:" + port);
+        return server;
+    }
+
+    private static void answer(SyncLog log, Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        String peer = readHello(in);
+        out.writeInt(MAGIC);
+        out.writeUTF(log.getNodeId());
+        out.writeLong(log.getCursor(inCursor(peer)));
+        out.flush();
+
+        long peerHas = in.readLong();
+        receiveFrames(log, peer, in);
+        sendFrames(log, peer, peerHas, out);
+        out.flush();
+    }
+
+    // ========== SHARED ==========
+
+    private static String readHello(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a finance tracker sync connection");
+        }
+        return in.readUTF();
+    }
+
+    private static String inCursor(String peer) {
+        return "peer-in:" + peer;
+    }
+
+    /**
+     * Our frames from the position the peer reported (which also confirms it has
+     * everything before it, so the log may be trimmed up to there)
+     */
+    private static void sendFrames(SyncLog log, String peer, long peerHas, DataOutputStream out) throws IOException {
+        log.setCursor(SyncLog.OUT + "peer:" + peer, peerHas);
+        byte[] frames = log.readLog(peerHas);
+        out.writeLong(peerHas);
+        out.writeInt(frames.length);
+        out.write(frames);
+        FinanceMetrics.add("sync.bytesSent", frames.length);
+    }
+
+    private static void receiveFrames(SyncLog log, String peer, DataInputStream in) throws IOException {
+        long from = in.readLong();
+        byte[] frames = new byte[in.readInt()];
+        in.readFully(frames);
+        if (from != log.getCursor(inCursor(peer))) {
+            throw new IOException("Sync peer " + peer + " sent changes from " + from + ", expected "
+                    + log.getCursor(inCursor(peer)));
+        }
+        int used = log.apply(peer, frames);
+        log.setCursor(inCursor(peer), from + used);
+        FinanceMetrics.add("sync.bytesReceived", used);
+    }
+
+    @Override
+    public String describe() {
+        return "peer " + host + ":" + port;
+    }
+}
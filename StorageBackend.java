@@ -0,0 +1,63 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.IOException;
+
+/**
+ * STRATEGY PATTERN: Where and how FinanceManager data is stored
+ * DataPersistenceService talks only to this interface, so the storage can be
+ * swapped (serialized file, append-only journal, embedded database) without
+ * touching the rest of the app
+ */
+public interface StorageBackend {
+
+    /**
+     * Read everything stored (a new, empty FinanceManager if nothing is stored yet)
+     */
+    FinanceManager load() throws IOException;
+
+    /**
+     * Persist the current state - backends that track changes only write what changed
+     */
+    void save(FinanceManager financeManager) throws IOException;
+
+    boolean exists();
+
+    boolean delete();
+
+    /**
+     * DAMAGED DATA: Move what failed to load out of the way, so a later save
+     * starts a new file instead of overwriting something that may still be recovered
+     * Returns where it was moved, or null if the backend cannot move it
+     */
+    default String quarantine() throws IOException {
+        return null;
+    }
+
+    /**
+     * Human readable location, used in log messages
+     */
+    String describe();
+
+    /**
+     * Called once the manager is in use, so backends can listen for changes
+     * Default: nothing to track, save() writes the whole state
+     */
+    default void attach(FinanceManager financeManager) {
+    }
+
+    /**
+     * Can old months be moved to a TransactionArchive next to this storage?
+     * Backends that already keep the ledger out of memory say no
+     */
+    default boolean supportsArchive() {
+        return true;
+    }
+
+    /**
+     * An archive the backend keeps itself (e.g. closed months stay in its database
+     * table), used instead of a TransactionArchive folder. Default: none
+     */
+    default ArchiveStore getArchiveStore() {
+        return null;
+    }
+}
@@ -0,0 +1,580 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * SYNC: Change log for keeping copies of the ledger on several machines in step
+ *
+ * INCREMENTAL SYNC CONCEPT: Every local change (transaction added, edited or
+ * deleted, budget set) is appended to a small log next to the data file. A peer
+ * remembers how far into our log it has read (a cursor), so each sync moves only
+ * the changes made since the last one - a few hundred bytes per edit, not the
+ * whole data file.
+ *
+ * CONFLICTS: Each record carries a HybridLogicalClock stamp. For every record key
+ * (one transaction ID, or one budget category + month) the log keeps the stamp of
+ * the change that set its current value. A change from a peer is applied only if
+ * its stamp is newer - last writer wins, ties broken by machine name, so every
+ * copy ends up with the same value whatever order the changes arrive in. A delete
+ * keeps its stamp too, so an older edit from another machine cannot bring the
+ * row back.
+ *
+ * FILES (next to the data file, -Dfinance.sync.state=finance_data.sync):
+ *   finance_data.sync.log  frames of records, [length][records][CRC32] like the journal
+ *   finance_data.sync      machine name, clock, cursors and stamps (rewritten on save)
+ * Positions in the log are logical: once every outgoing transport has passed the
+ * end, the file is emptied and logStart moves on, so it never grows without limit.
+ *
+ * Not synced: savings goals, recurring templates and categorization rules.
+ * Both machines must start from the same copy of the data file.
+ */
+public class SyncLog implements FinanceChangeListener {
+    private static final int MAGIC = 0x46535931; // "FSY1"
+    private static final String DEFAULT_STATE_FILE = "finance_data.sync";
+
+    // Record types
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    private static final byte BUDGET = 3;
+
+    // cursors for changes we send start with this - the log is trimmed once they all reach the end
+    static final String OUT = "out:";
+
+    private final FinanceManager financeManager;
+    private final Path stateFile;
+    private final Path logFile;
+    private final String nodeId;
+    private final HybridLogicalClock clock = new HybridLogicalClock();
+
+    // record key -> stamp of the change that set its current value
+    private final Map<String, Stamp> versions = new HashMap<>();
+    // transport cursor name -> logical log position
+    private final Map<String, Long> cursors = new TreeMap<>();
+    // local records not written to the log file yet
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+
+    private long logStart;
+    private long logLength;
+    private boolean applyingRemote;
+    private boolean stateChanged;
+    private int appliedSinceSave;
+
+    /**
+     * STAMP: Clock value + the machine that made the change (the tie breaker)
+     */
+    private static final class Stamp {
+        final long time;
+        final String origin;
+
+        Stamp(long time, String origin) {
+            this.time = time;
+            this.origin = origin;
+        }
+
+        boolean isNewerThan(Stamp other) {
+            return other == null || time > other.time
+                    || (time == other.time && origin.compareTo(other.origin) > 0);
+        }
+    }
+
+    /**
+     * Log for the default location (-Dfinance.sync.state) and machine name
+     * (-Dfinance.sync.node, otherwise the saved or a new random one)
+     */
+    public static SyncLog open(FinanceManager financeManager) throws IOException {
+        return new SyncLog(financeManager, Paths.get(System.getProperty("finance.sync.state", DEFAULT_STATE_FILE)),
+                System.getProperty("finance.sync.node"));
+    }
+
+    /**
+     * nodeId = this machine's name in the sync folder (null = keep the saved one)
+     */
+    public SyncLog(FinanceManager financeManager, Path stateFile, String nodeId) throws IOException {
+        this.financeManager = financeManager;
+        this.stateFile = stateFile;
+        this.logFile = Paths.get(stateFile + ".log");
+        String savedNode = loadState();
+        if (nodeId == null) {
+            nodeId = savedNode != null ? savedNode : UUID.randomUUID().toString();
+        }
+        if (!nodeId.matches("[A-Za-z0-9_-]{1,64}")) {
+            throw new IllegalArgumentException("Sync node name may only use letters, digits, _ and -: " + nodeId);
+        }
+        if (savedNode != null && !savedNode.equals(nodeId)) {
+            throw new IOException("Sync state " + stateFile + " belongs to node " + savedNode + ", not " + nodeId);
+        }
+        this.nodeId = nodeId;
+        recoverLogTail();
+        financeManager.addChangeListener(this);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // ========== RECORDING LOCAL CHANGES ==========
+
+    @Override
+    public void onChange(FinanceChangeEvent event) {
+        synchronized (this) {
+            if (applyingRemote) {
+                return; // a peer's change - it is already in the peer's log
+            }
+            try {
+                switch (event.getType()) {
+                    case TRANSACTIONS_ADDED:
+                    case TRANSACTIONS_UPDATED:
+                        for (Transaction t : event.getTransactions()) {
+                            pendingOut.writeLong(stamp(transactionKey(t.getId())));
+                            pendingOut.writeByte(UPSERT);
+                            JournalBackend.writeTransaction(pendingOut, t);
+                        }
+                        break;
+                    case TRANSACTIONS_REMOVED:
+                        for (Transaction t : event.getTransactions()) {
+                            pendingOut.writeLong(stamp(transactionKey(t.getId())));
+                            pendingOut.writeByte(DELETE);
+                            pendingOut.writeUTF(t.getId());
+                        }
+                        break;
+                    case BUDGET_CHANGED:
+                        Budget budget = event.getBudget();
+                        pendingOut.writeLong(stamp(budgetKey(budget.getCategory(), budget.getMonth())));
+                        pendingOut.writeByte(BUDGET);
+                        pendingOut.writeUTF(budget.getCategory());
+                        pendingOut.writeDouble(budget.getAllocatedAmount());
+                        pendingOut.writeLong(budget.getMonth().toEpochDay());
+                        pendingOut.writeUTF(budget.getCurrency() == null ? "" : budget.getCurrency());
+                        break;
+                    default:
+                        // goals, recurring templates, rules and archiving stay local
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // in-memory stream, cannot happen
+            }
+        }
+    }
+
+    private long stamp(String key) {
+        long time = clock.now();
+        versions.put(key, new Stamp(time, nodeId));
+        stateChanged = true;
+        return time;
+    }
+
+    private static String transactionKey(String id) {
+        return "T:" + id;
+    }
+
+    private static String budgetKey(String category, LocalDate month) {
+        return "B:" + category + "|" + month.withDayOfMonth(1);
+    }
+
+    // ========== READING THE LOCAL LOG (for transports) ==========
+
+    /**
+     * Logical position just past the last local change
+     */
+    public synchronized long getLogEnd() throws IOException {
+        flushPending();
+        return logStart + logLength;
+    }
+
+    public synchronized long getLogStart() {
+        return logStart;
+    }
+
+    /**
+     * Our frames from a logical position to the end (empty if there is nothing new)
+     */
+    public synchronized byte[] readLog(long from) throws IOException {
+        flushPending();
+        if (from < logStart) {
+            throw new IOException("Changes before position " + logStart + " were already trimmed from "
+                    + logFile + " - start the other copy again from this data file");
+        }
+        long end = logStart + logLength;
+        if (from > end) {
+            throw new IOException("Position " + from + " is past the end of " + logFile + " (" + end + ")");
+        }
+        ByteBuffer bytes = ByteBuffer.allocate((int) (end - from));
+        if (bytes.capacity() == 0) {
+            return bytes.array();
+        }
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long position = from - logStart;
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, position + bytes.position()) < 0) {
+                    throw new EOFException("Sync log " + logFile + " is shorter than its state says");
+                }
+            }
+        }
+        return bytes.array();
+    }
+
+    public synchronized long getCursor(String name) {
+        Long cursor = cursors.get(name);
+        return cursor != null ? cursor : 0;
+    }
+
+    public synchronized void setCursor(String name, long position) {
+        Long old = cursors.put(name, position);
+        if (old == null || old != position) {
+            stateChanged = true;
+        }
+    }
+
+    // ========== APPLYING A PEER'S CHANGES ==========
+
+    /**
+     * APPLY: Replay the complete frames at the start of data (a peer's log, from
+     * the position we had read up to) - last writer wins per record
+     * Returns how many bytes were used; a torn last frame is left for next time
+     */
+    public int apply(String origin, byte[] data) throws IOException {
+        int end = completeFrames(data, data.length);
+        if (end == 0) {
+            return 0;
+        }
+        synchronized (financeManager) {
+            synchronized (this) {
+                applyingRemote = true;
+                try {
+                    int offset = 0;
+                    while (offset < end) {
+                        int length = ByteBuffer.wrap(data, offset, 4).getInt();
+                        applyFrame(origin, new DataInputStream(new ByteArrayInputStream(data, offset + 4, length)));
+                        offset += 4 + length + 8;
+                    }
+                } finally {
+                    applyingRemote = false;
+                }
+            }
+        }
+        return end;
+    }
+
+    private void applyFrame(String origin, DataInputStream in) throws IOException {
+        // new rows are added in one batch (one change event, one repaint)
+        Map<String, Transaction> added = new LinkedHashMap<>();
+        boolean archiveInUse = !financeManager.getArchivedMonths().isEmpty();
+        while (true) {
+            long time;
+            try {
+                time = in.readLong();
+            } catch (EOFException e) {
+                break;
+            }
+            byte op = in.readByte();
+            Stamp stamp = new Stamp(time, origin);
+            clock.observe(time);
+            switch (op) {
+                case UPSERT: {
+                    Transaction t = JournalBackend.readTransaction(in, true);
+                    if (!accept(transactionKey(t.getId()), stamp)) {
+                        break;
+                    }
+                    if (added.containsKey(t.getId())) {
+                        added.put(t.getId(), t);
+                    } else if (financeManager.getSnapshot().find(t.getId()) != null || (archiveInUse
+                            && financeManager.findArchivedTransaction(t.getId(), YearMonth.from(t.getLocalDate())) != null)) {
+                        // only the archived month of the row's date is checked (one filter probe, at
+                        // most one partition) - anything not found there is a new row
+                        try {
+                            if (!financeManager.updateTransaction(t.getId(), TransactionPatch.from(t))) {
+                                added.put(t.getId(), t);
+                            }
+                        } catch (InvalidTrasactionException e) {
+                            System.err.println("Skipping synced change to " + t.getId() + ": " + e.getMessage());
+                        }
+                    } else {
+                        added.put(t.getId(), t);
+                    }
+                    break;
+                }
+                case DELETE: {
+                    String id = in.readUTF();
+                    if (accept(transactionKey(id), stamp) && added.remove(id) == null) {
+                        financeManager.deleteTransaction(id);
+                    }
+                    break;
+                }
+                case BUDGET: {
+                    String category = in.readUTF();
+                    double allocated = in.readDouble();
+                    LocalDate month = LocalDate.ofEpochDay(in.readLong());
+                    String currency = in.readUTF();
+                    if (accept(budgetKey(category, month), stamp)) {
+                        financeManager.restoreBudget(category, allocated, month, currency.isEmpty() ? null : currency);
+                    }
+                    break;
+                }
+                default:
+                    throw new IOException("Corrupt sync record type " + op);
+            }
+        }
+        addAll(added.values());
+    }
+
+    /**
+     * CONFLICT CHECK: Is this change newer than the one that set the current value?
+     */
+    private boolean accept(String key, Stamp stamp) {
+        if (!stamp.isNewerThan(versions.get(key))) {
+            return false;
+        }
+        versions.put(key, stamp);
+        stateChanged = true;
+        appliedSinceSave++;
+        return true;
+    }
+
+    private void addAll(Collection<Transaction> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            financeManager.addTransactions(new ArrayList<>(rows), false);
+        } catch (InvalidTrasactionException batchError) {
+            // one bad row must not hold back the others
+            for (Transaction t : rows) {
+                try {
+                    financeManager.addTransactions(Collections.singletonList(t), false);
+                } catch (InvalidTrasactionException e) {
+                    System.err.println("Skipping synced transaction " + t.getId() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Length of the complete, undamaged frames at the start of data
+     * (a peer may still be writing the last one)
+     */
+    static int completeFrames(byte[] data, int length) {
+        ByteBuffer buffer = ByteBuffer.wrap(data, 0, length);
+        int end = 0;
+        while (buffer.remaining() >= 4) {
+            int size = buffer.getInt();
+            if (size < 0 || buffer.remaining() < (long) size + 8) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, buffer.position(), size);
+            buffer.position(buffer.position() + size);
+            if (buffer.getLong() != crc.getValue()) {
+                break;
+            }
+            end = buffer.position();
+        }
+        return end;
+    }
+
+    // ========== SAVING ==========
+
+    /**
+     * Has a peer's change been applied since the last save? (then the data file
+     * must be saved before this state, or a crash would skip the change)
+     */
+    public synchronized boolean hasUnsavedRemoteChanges() {
+        return appliedSinceSave > 0;
+    }
+
+    /**
+     * SAVE: Write new local records to the log and the cursors and stamps to the
+     * state file; empty the log once every transport has sent all of it
+     * Call after the data file itself has been saved
+     */
+    public synchronized void save() throws IOException {
+        flushPending();
+        long end = logStart + logLength;
+        boolean sentEverywhere = false;
+        for (Map.Entry<String, Long> cursor : cursors.entrySet()) {
+            if (cursor.getKey().startsWith(OUT)) {
+                sentEverywhere = cursor.getValue() >= end;
+                if (!sentEverywhere) {
+                    break;
+                }
+            }
+        }
+        if (sentEverywhere && logLength > 0) {
+            // state first: a crash in between leaves a log the state already skips
+            logStart = end;
+            logLength = 0;
+            writeState();
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+                channel.truncate(0);
+                channel.force(true);
+            }
+        } else if (stateChanged) {
+            writeState();
+        }
+        stateChanged = false;
+        appliedSinceSave = 0;
+    }
+
+    private void flushPending() throws IOException {
+        if (pending.size() == 0) {
+            return;
+        }
+        byte[] records = pending.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(records, 0, records.length);
+        ByteBuffer frame = ByteBuffer.allocate(4 + records.length + 8);
+        frame.putInt(records.length).put(records).putLong(crc.getValue()).flip();
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.position(logLength);
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            channel.force(false);
+        }
+        pending.reset();
+        logLength += frame.limit();
+        stateChanged = true;
+    }
+
+    /**
+     * State file, written to a temp file and renamed (never half written)
+     * Machine names are written once and referred to by number
+     */
+    private void writeState() throws IOException {
+        Path temp = Paths.get(stateFile + ".tmp");
+        Map<String, Integer> origins = new LinkedHashMap<>();
+        for (Stamp stamp : versions.values()) {
+            origins.putIfAbsent(stamp.origin, origins.size());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeUTF(nodeId);
+            out.writeLong(clock.last());
+            out.writeLong(logStart);
+            out.writeLong(logLength);
+            out.writeInt(cursors.size());
+            for (Map.Entry<String, Long> cursor : cursors.entrySet()) {
+                out.writeUTF(cursor.getKey());
+                out.writeLong(cursor.getValue());
+            }
+            out.writeInt(origins.size());
+            for (String origin : origins.keySet()) {
+                out.writeUTF(origin);
+            }
+            out.writeInt(versions.size());
+            for (Map.Entry<String, Stamp> version : versions.entrySet()) {
+                out.writeUTF(version.getKey());
+                out.writeLong(version.getValue().time);
+                out.writeInt(origins.get(version.getValue().origin));
+            }
+        }
+        SerializedFileBackend.moveAtomically(temp, stateFile);
+    }
+
+    /**
+     * Returns the saved machine name (null = no state yet)
+     */
+    private String loadState() throws IOException {
+        if (!Files.exists(stateFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(stateFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a sync state file: " + stateFile);
+            }
+            String savedNode = in.readUTF();
+            clock.observe(in.readLong());
+            logStart = in.readLong();
+            logLength = in.readLong();
+            int cursorCount = in.readInt();
+            for (int i = 0; i < cursorCount; i++) {
+                cursors.put(in.readUTF(), in.readLong());
+            }
+            String[] origins = new String[in.readInt()];
+            for (int i = 0; i < origins.length; i++) {
+                origins[i] = in.readUTF();
+            }
+            int versionCount = in.readInt();
+            for (int i = 0; i < versionCount; i++) {
+                String key = in.readUTF();
+                long time = in.readLong();
+                versions.put(key, new Stamp(time, origins[in.readInt()]));
+            }
+            return savedNode;
+        }
+    }
+
+    /**
+     * RECOVERY: Frames appended after the last state save (crash before saving)
+     * still count - their stamps are read back; a torn last frame is cut off
+     */
+    private void recoverLogTail() throws IOException {
+        if (!Files.exists(logFile)) {
+            // deleted by hand: keep positions moving forward, peers get an error instead of wrong data
+            logStart += logLength;
+            logLength = 0;
+            return;
+        }
+        long size = Files.size(logFile);
+        if (size == logLength) {
+            return;
+        }
+        if (size < logLength) {
+            throw new IOException("Sync log " + logFile + " is shorter than its state says");
+        }
+        byte[] tail = new byte[(int) (size - logLength)];
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(tail);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, logLength + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            int complete = completeFrames(tail, tail.length);
+            readStamps(tail, complete);
+            if (complete < tail.length) {
+                System.err.println("Ignoring incomplete last frame in " + logFile);
+                channel.truncate(logLength + complete);
+            }
+            logLength += complete;
+        }
+        stateChanged = true;
+    }
+
+    private void readStamps(byte[] frames, int end) throws IOException {
+        int offset = 0;
+        while (offset < end) {
+            int length = ByteBuffer.wrap(frames, offset, 4).getInt();
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(frames, offset + 4, length));
+            while (in.available() > 0) {
+                long time = in.readLong();
+                byte op = in.readByte();
+                String key;
+                if (op == UPSERT) {
+                    key = transactionKey(JournalBackend.readTransaction(in, true).getId());
+                } else if (op == DELETE) {
+                    key = transactionKey(in.readUTF());
+                } else if (op == BUDGET) {
+                    String category = in.readUTF();
+                    in.readDouble();
+                    key = budgetKey(category, LocalDate.ofEpochDay(in.readLong()));
+                    in.readUTF();
+                } else {
+                    throw new IOException("Corrupt sync record type " + op);
+                }
+                clock.observe(time);
+                versions.put(key, new Stamp(time, nodeId));
+            }
+            offset += 4 + length + 8;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * SERVICE: Keeps this copy of the ledger in step with other machines
+ * Every interval a single background thread runs one round on each transport,
+ * then saves - first the data (so applied changes are on disk), then the sync
+ * state (so they are not asked for again). The UI never waits for the network.
+ *
+ * Settings (sync is off unless a folder, peer or listen port is given):
+ *   -Dfinance.sync.folder=/shared/finance     shared folder, any number of machines
+ *   -Dfinance.sync.peer=7071 or host:7071     connect to another running copy
+ *   -Dfinance.sync.listen=7071                accept connections from one
+ *   -Dfinance.sync.node=laptop                this machine's name (default: random, saved)
+ *   -Dfinance.sync.seconds=60                 interval (0 = only on syncNow)
+ */
+public class SyncService {
+    private final SyncLog log;
+    private final List<SyncTransport> transports;
+    private final int listenPort;
+    private final ScheduledExecutorService executor;
+    private AutoSaveService autoSaveService;
+    private Closeable listener;
+
+    public SyncService(SyncLog log, List<SyncTransport> transports, int listenPort) {
+        this.log = log;
+        this.transports = transports;
+        this.listenPort = listenPort;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "finance-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The service the -Dfinance.sync.* settings ask for, or null if sync is off
+     * Create it right after loading, so every later change is logged
+     */
+    public static SyncService fromSystemProperties(FinanceManager financeManager) throws IOException {
+        List<SyncTransport> transports = new ArrayList<>();
+        String folder = System.getProperty("finance.sync.folder");
+        if (folder != null && !folder.trim().isEmpty()) {
+            transports.add(new FolderSyncTransport(folder.trim()));
+        }
+        String peer = System.getProperty("finance.sync.peer");
+        if (peer != null && !peer.trim().isEmpty()) {
+            transports.add(new SocketSyncTransport(peer.trim()));
+        }
+        int listenPort = Integer.getInteger("finance.sync.listen", 0);
+        if (transports.isEmpty() && listenPort <= 0) {
+            return null;
+        }
+        return new SyncService(SyncLog.open(financeManager), transports, listenPort);
+    }
+
+    /**
+     * Start syncing; saving goes through the auto-save service so it never
+     * overlaps with the app's own saves
+     */
+    public void start(AutoSaveService autoSaveService) throws IOException {
+        this.autoSaveService = autoSaveService;
+        if (listenPort > 0) {
+            listener = SocketSyncTransport.listen(listenPort, log, () -> executor.submit(this::saveIfChanged));
+        }
+        long seconds = Long.getLong("finance.sync.seconds", 60);
+        if (seconds > 0 && !transports.isEmpty()) {
+            executor.scheduleWithFixedDelay(this::syncOnce, 0, seconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * SYNC NOW (e.g. a menu item): queued on the background thread
+     * The future completes with true if every transport got through
+     */
+    public Future<Boolean> syncNow() {
+        return executor.submit(this::syncOnce);
+    }
+
+    public SyncLog getLog() {
+        return log;
+    }
+
+    private boolean syncOnce() {
+        long start = FinanceMetrics.startTimer();
+        boolean ok = true;
+        for (SyncTransport transport : transports) {
+            try {
+                transport.sync(log);
+            } catch (IOException | RuntimeException e) {
+                // keep the thread alive and try again next time
+                System.err.println("Sync with " + transport.describe() + " failed: " + e.getMessage());
+                FinanceMetrics.increment("sync.errors");
+                ok = false;
+            }
+        }
+        ok &= saveIfChanged();
+        FinanceMetrics.stopTimer("sync.round", start);
+        return ok;
+    }
+
+    /**
+     * Data first, then the sync state - never the other way round
+     */
+    private boolean saveIfChanged() {
+        try {
+            if (log.hasUnsavedRemoteChanges() && autoSaveService != null
+                    && !autoSaveService.saveNow().get(30, TimeUnit.SECONDS)) {
+                return false; // the state waits until the data is on disk
+            }
+            log.save();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | IOException e) {
+            System.err.println("Saving sync state failed: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * SHUTDOWN: Stop listening and save the sync state
+     * Call before AutoSaveService.shutdown(), which then saves the data
+     */
+    public void shutdown() {
+        try {
+            if (listener != null) {
+                listener.close();
+            }
+            for (SyncTransport transport : transports) {
+                transport.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Closing sync failed: " + e.getMessage());
+        }
+        try {
+            executor.submit(this::saveIfChanged).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Final sync save failed: " + e.getMessage());
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,27 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * STRATEGY PATTERN: How change logs travel between two copies of the ledger
+ * SyncService only calls sync(), so a shared folder, a local socket or anything
+ * else that can move bytes can be plugged in
+ */
+public interface SyncTransport extends Closeable {
+
+    /**
+     * One round: send the local changes the other side has not got yet and
+     * apply the ones it has for us (only those - never the whole ledger)
+     */
+    void sync(SyncLog log) throws IOException;
+
+    /**
+     * Human readable location, used in log messages
+     */
+    String describe();
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,113 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+/**
+ * TIME SERIES: Points (x = epoch day, y = amount) in date order, ready to plot
+ * The arrays are shared, not copied - a series never changes once made
+ *
+ * DOWNSAMPLING CONCEPT: A chart 800 pixels wide cannot show 3,650 daily points;
+ * drawing them all just paints over the same pixels. downsample() keeps the points
+ * that matter for the shape of the line (Largest-Triangle-Three-Buckets, LTTB):
+ * - split the points into as many buckets as the chart has room for
+ * - from each bucket keep the point that makes the largest triangle with the point
+ *   kept before it and the average of the next bucket
+ * Peaks and dips survive, flat stretches collapse. One pass, no sorting.
+ */
+public final class TimeSeries {
+    private final String name;
+    private final double[] x;
+    private final double[] y;
+    private final int size;
+    private final double minY;
+    private final double maxY;
+
+    public TimeSeries(String name, double[] x, double[] y) {
+        this.name = name;
+        this.x = x;
+        this.y = y;
+        this.size = x.length;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, y[i]);
+            max = Math.max(max, y[i]);
+        }
+        this.minY = min;
+        this.maxY = max;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * LTTB: At most maxPoints points with the same overall shape
+     * The first and last points are always kept; returns this series if it is already small enough
+     */
+    public TimeSeries downsample(int maxPoints) {
+        if (maxPoints >= size || maxPoints < 3) {
+            return this;
+        }
+        double[] sampledX = new double[maxPoints];
+        double[] sampledY = new double[maxPoints];
+        sampledX[0] = x[0];
+        sampledY[0] = y[0];
+
+        // the points between first and last are split into maxPoints - 2 buckets
+        double bucketSize = (double) (size - 2) / (maxPoints - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            // average of the NEXT bucket (the last bucket looks at the last point)
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            // point of this bucket with the largest triangle (area x2 - only compared)
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double largestArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[previous] - averageX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (averageY - y[previous]));
+                if (area > largestArea) {
+                    largestArea = area;
+                    chosen = i;
+                }
+            }
+            sampledX[bucket + 1] = x[chosen];
+            sampledY[bucket + 1] = y[chosen];
+            previous = chosen;
+        }
+
+        sampledX[maxPoints - 1] = x[size - 1];
+        sampledY[maxPoints - 1] = y[size - 1];
+        return new TimeSeries(name, sampledX, sampledY);
+    }
+}
@@ -0,0 +1,173 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Path2D;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CHART: Line chart of one or more time series, drawn with plain Java2D
+ *
+ * PERFORMANCE CONCEPT: Every series is downsampled (LTTB) to the width of the
+ * plot before drawing, so a repaint costs about one point per pixel column -
+ * whether the series has 30 points or 30 years of days. The downsampled copies
+ * are kept until the series or the width change.
+ */
+public class TimeSeriesChart extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private static final Color[] PALETTE = {
+            new Color(70, 130, 180), new Color(220, 20, 60), new Color(34, 139, 34),
+            new Color(255, 140, 0), new Color(128, 0, 128), new Color(0, 139, 139)
+    };
+    private static final DateTimeFormatter DATE_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final int LEFT = 80, RIGHT = 20, TOP = 30, BOTTOM = 25;
+
+    private final String title;
+    // symbol on the amount axis
+    private String currencySymbol = "$";
+    private List<TimeSeries> series = Collections.emptyList();
+    // downsampled for drawnWidth pixels
+    private List<TimeSeries> drawn;
+    private int drawnWidth = -1;
+
+    public TimeSeriesChart(String title) {
+        this.title = title;
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
+        setPreferredSize(new Dimension(400, 200));
+    }
+
+    public void setCurrency(String currency) {
+        this.currencySymbol = Money.symbol(currency);
+    }
+
+    /**
+     * Show new data (repaints; the series are not copied, they never change)
+     */
+    public void setSeries(List<TimeSeries> series) {
+        this.series = series;
+        drawn = null;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        super.paintComponent(graphics);
+        long start = FinanceMetrics.startTimer();
+        Graphics2D g = (Graphics2D) graphics.create();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        g.setColor(Color.DARK_GRAY);
+        g.drawString(title, 10, 18);
+        int titleWidth = g.getFontMetrics().stringWidth(title);
+
+        int width = getWidth() - LEFT - RIGHT;
+        int height = getHeight() - TOP - BOTTOM;
+        List<TimeSeries> points = downsampled(width);
+        if (width < 10 || height < 10 || points.isEmpty() || points.get(0).size() == 0) {
+            g.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+            g.drawString("No transactions yet", LEFT, TOP + 20);
+            g.dispose();
+            return;
+        }
+
+        // Ranges: all series share the axes; 0 is always shown
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minY = 0, maxY = 0;
+        for (TimeSeries s : points) {
+            if (s.size() > 0) {
+                minX = Math.min(minX, s.getX(0));
+                maxX = Math.max(maxX, s.getX(s.size() - 1));
+                minY = Math.min(minY, s.getMinY());
+                maxY = Math.max(maxY, s.getMaxY());
+            }
+        }
+        if (maxX == minX) {
+            maxX = minX + 1;
+        }
+        if (maxY == minY) {
+            maxY = minY + 1;
+        }
+
+        drawAxes(g, width, height, minX, maxX, minY, maxY);
+
+        // Lines
+        g.setStroke(new BasicStroke(1.5f));
+        for (int i = 0; i < points.size(); i++) {
+            TimeSeries s = points.get(i);
+            Path2D.Double line = new Path2D.Double();
+            for (int p = 0; p < s.size(); p++) {
+                double px = LEFT + (s.getX(p) - minX) / (maxX - minX) * width;
+                double py = TOP + (maxY - s.getY(p)) / (maxY - minY) * height;
+                if (p == 0) {
+                    line.moveTo(px, py);
+                } else {
+                    line.lineTo(px, py);
+                }
+            }
+            g.setColor(PALETTE[i % PALETTE.length]);
+            g.draw(line);
+        }
+
+        // Legend (only needed for more than one line)
+        if (points.size() > 1) {
+            g.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+            int x = 10 + titleWidth + 20;
+            for (int i = 0; i < points.size(); i++) {
+                g.setColor(PALETTE[i % PALETTE.length]);
+                g.fillRect(x, 9, 10, 10);
+                g.setColor(Color.DARK_GRAY);
+                g.drawString(points.get(i).getName(), x + 14, 18);
+                x += g.getFontMetrics().stringWidth(points.get(i).getName()) + 30;
+            }
+        }
+        g.dispose();
+        FinanceMetrics.stopTimer("ui.chart.paint", start);
+    }
+
+    private void drawAxes(Graphics2D g, int width, int height, double minX, double maxX, double minY, double maxY) {
+        g.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        FontMetrics metrics = g.getFontMetrics();
+
+        // Horizontal grid lines with amounts
+        int lines = 4;
+        for (int i = 0; i <= lines; i++) {
+            double value = minY + (maxY - minY) * i / lines;
+            int y = TOP + (int) Math.round((maxY - value) / (maxY - minY) * height);
+            g.setColor(new Color(230, 230, 230));
+            g.drawLine(LEFT, y, LEFT + width, y);
+            String label = String.format("%s%,.0f", currencySymbol, value);
+            g.setColor(Color.GRAY);
+            g.drawString(label, LEFT - 6 - metrics.stringWidth(label), y + metrics.getAscent() / 2);
+        }
+
+        // Zero line (0 is always inside the range)
+        int zero = TOP + (int) Math.round(maxY / (maxY - minY) * height);
+        g.setColor(Color.GRAY);
+        g.drawLine(LEFT, zero, LEFT + width, zero);
+
+        // Dates: first, middle and last
+        for (int i = 0; i <= 2; i++) {
+            double day = minX + (maxX - minX) * i / 2;
+            String label = LocalDate.ofEpochDay(Math.round(day)).format(DATE_LABEL);
+            int x = LEFT + width * i / 2 - metrics.stringWidth(label) * i / 2;
+            g.drawString(label, x, TOP + height + metrics.getAscent() + 4);
+        }
+    }
+
+    private List<TimeSeries> downsampled(int width) {
+        if (drawn == null || drawnWidth != width) {
+            List<TimeSeries> result = new ArrayList<>();
+            for (TimeSeries s : series) {
+                result.add(s.downsample(Math.max(width, 3)));
+            }
+            drawn = result;
+            drawnWidth = width;
+        }
+        return drawn;
+    }
+}
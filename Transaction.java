@@ -1,27 +1,45 @@
 package com.laiba.BeginnerProjects.PersonalFileTracker;
 
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Date;
 /**
  * CORE ENTITY: Represents a single financial transaction
  * OOP CONCEPT: Encapsulation - we keep data private and provide public methods to access it
  */
-public class Transaction {
+public class Transaction implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String id;
     private double amount;
     private String category;
     private Date date;
     private String Description;
     private TransactionType type;
+    // CURRENCY: null = the ledger's base currency (also every row saved before currencies existed)
+    private String currency;
+    // base currency units per unit of this currency, booked by FinanceManager when the
+    // row is added (0 = not booked yet, i.e. already in the base currency)
+    private double exchangeRate;
 
     public Transaction(String Id,double amount, String category, Date date, String description, TransactionType type) {
         this.amount = amount;
         this.category = category;
         this.date = date;
         this.Description = description;
-        this.id = id;
+        this.id = Id;
         this.type = type;
     }
 
+    /**
+     * Transaction in a given currency (ISO code like "EUR", null = base currency)
+     */
+    public Transaction(String Id,double amount, String currency, String category, Date date, String description, TransactionType type) {
+        this(Id, amount, category, date, description, type);
+        this.currency = currency == null ? null : ExchangeRateTable.normalize(currency);
+    }
+
     public double getAmount() {
         return amount;
     }
@@ -34,6 +52,17 @@ public class Transaction {
         return date;
     }
 
+    /**
+     * Date as LocalDate for the Java 8 Date API
+     * java.sql.Date does not support toInstant(), plain java.util.Date does
+     */
+    public LocalDate getLocalDate() {
+        if (date instanceof java.sql.Date) {
+            return ((java.sql.Date) date).toLocalDate();
+        }
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
     public String getDescription() {
         return Description;
     }
@@ -46,6 +75,25 @@ public class Transaction {
         return type;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public double getExchangeRate() {
+        return exchangeRate;
+    }
+
+    /**
+     * Amount in the ledger's base currency, at the rate booked for this row
+     * All totals, budgets and reports add up this value
+     */
+    public double getBaseAmount() {
+        return exchangeRate == 0 ? amount : amount * exchangeRate;
+    }
+
+    // NOTE: The setters change this object only - FinanceManager's totals, budgets
+    // and indexes do not see it. For a stored transaction use
+    // FinanceManager.updateTransaction(id, patch) instead.
     public void setAmount(double amount) {
         if(amount>=0)        this.amount = amount;
         else {
@@ -73,9 +121,17 @@ public class Transaction {
         this.type = type;
     }
 
+    public void setCurrency(String currency) {
+        this.currency = currency == null ? null : ExchangeRateTable.normalize(currency);
+    }
+
+    public void setExchangeRate(double exchangeRate) {
+        this.exchangeRate = exchangeRate;
+    }
+
     @Override
     public String toString() {
-        return String.format("Transaction{id=%s, amount=%.2f, category=%s, type=%s}",
-                id, amount, category, type);
+        return String.format("Transaction{id=%s, amount=%.2f%s, category=%s, type=%s}",
+                id, amount, currency == null ? "" : " " + currency, category, type);
     }
 }
@@ -0,0 +1,220 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * STORAGE: Frozen, compressed monthly partitions of old transactions
+ * Each closed month is one file (e.g. finance_archive/2023-04.part) so old
+ * history does not have to stay in memory; a partition is read back only
+ * when a query's date range touches that month.
+ *
+ * COLUMNAR ENCODING: All ids, then all amounts, then all dates, ... instead of
+ * row by row. Similar values sit next to each other, categories and descriptions
+ * are stored once in a dictionary, and GZIP (Deflate + CRC32) compresses the rest.
+ * FAR2 adds a currency column (dictionary index, -1 = base) and the booked rates;
+ * FAR1 partitions written before currencies existed are still read.
+ */
+public class TransactionArchive implements ArchiveStore {
+    private static final int MAGIC = 0x46415232; // "FAR2"
+    private static final int MAGIC_V1 = 0x46415231; // "FAR1", no currency columns
+    // partitions kept decoded in memory (least recently used are dropped)
+    private static final int CACHED_PARTITIONS = 4;
+
+    private final Path directory;
+    private final Map<YearMonth, List<Transaction>> cache =
+            new LinkedHashMap<YearMonth, List<Transaction>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<YearMonth, List<Transaction>> eldest) {
+                    return size() > CACHED_PARTITIONS;
+                }
+            };
+
+    public TransactionArchive(String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    private Path partitionFile(YearMonth month) {
+        return directory.resolve(month + ".part");
+    }
+
+    /**
+     * READ: Transactions of one archived month (decoded once, then cached)
+     */
+    @Override
+    public synchronized List<Transaction> readPartition(YearMonth month) throws IOException {
+        List<Transaction> cached = cache.get(month);
+        if (cached != null) {
+            return cached;
+        }
+        long start = FinanceMetrics.startTimer();
+        List<Transaction> transactions = decode(partitionFile(month));
+        cache.put(month, Collections.unmodifiableList(transactions));
+        FinanceMetrics.stopTimer("archive.readPartition", start);
+        return cache.get(month);
+    }
+
+    /**
+     * WRITE: Freeze one month (replaces any earlier file for that month)
+     * Written to a temp file, forced to disk and renamed (the rename forces the
+     * folder too), so a crash never leaves half a partition - and once this
+     * returns the rows are on disk and may leave memory
+     */
+    @Override
+    public synchronized void writePartition(YearMonth month, List<Transaction> transactions) throws IOException {
+        long start = FinanceMetrics.startTimer();
+        if (!Files.isDirectory(directory)) {
+            Files.createDirectories(directory);
+            SerializedFileBackend.syncDirectory(directory.toAbsolutePath().getParent());
+        }
+        Path temp = directory.resolve(month + ".part.tmp");
+        encode(temp, transactions);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        SerializedFileBackend.moveAtomically(temp, partitionFile(month));
+        cache.remove(month);
+        FinanceMetrics.stopTimer("archive.writePartition", start);
+    }
+
+    public synchronized int getCachedPartitionCount() {
+        return cache.size();
+    }
+
+    public boolean deleteAll() {
+        try {
+            if (!Files.isDirectory(directory)) {
+                return false;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.part")) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            synchronized (this) {
+                cache.clear();
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // ========== COLUMNAR FORMAT ==========
+
+    private static void encode(Path file, List<Transaction> transactions) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024)))) {
+            int count = transactions.size();
+            out.writeInt(MAGIC);
+            out.writeInt(count);
+
+            // dictionary for categories and descriptions (they repeat a lot)
+            Map<String, Integer> dictionary = new LinkedHashMap<>();
+            for (Transaction t : transactions) {
+                dictionary.putIfAbsent(t.getCategory(), dictionary.size());
+                dictionary.putIfAbsent(t.getDescription() == null ? "" : t.getDescription(), dictionary.size());
+                if (t.getCurrency() != null) {
+                    dictionary.putIfAbsent(t.getCurrency(), dictionary.size());
+                }
+            }
+            out.writeInt(dictionary.size());
+            for (String word : dictionary.keySet()) {
+                out.writeUTF(word);
+            }
+
+            for (Transaction t : transactions) {
+                out.writeUTF(t.getId());
+            }
+            for (Transaction t : transactions) {
+                out.writeDouble(t.getAmount());
+            }
+            // day of month is enough - the month is the file name
+            for (Transaction t : transactions) {
+                out.writeByte(t.getLocalDate().getDayOfMonth());
+            }
+            for (Transaction t : transactions) {
+                out.writeByte(t.getType().ordinal());
+            }
+            for (Transaction t : transactions) {
+                out.writeInt(dictionary.get(t.getCategory()));
+            }
+            for (Transaction t : transactions) {
+                out.writeInt(dictionary.get(t.getDescription() == null ? "" : t.getDescription()));
+            }
+            for (Transaction t : transactions) {
+                out.writeInt(t.getCurrency() == null ? -1 : dictionary.get(t.getCurrency()));
+            }
+            for (Transaction t : transactions) {
+                out.writeDouble(t.getExchangeRate());
+            }
+        }
+    }
+
+    private static List<Transaction> decode(Path file) throws IOException {
+        YearMonth month = YearMonth.parse(file.getFileName().toString().replace(".part", ""));
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), 64 * 1024)))) {
+            int magic = in.readInt();
+            if (magic != MAGIC && magic != MAGIC_V1) {
+                throw new IOException("Not an archive partition: " + file);
+            }
+            int count = in.readInt();
+            String[] dictionary = new String[in.readInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = in.readUTF();
+            }
+
+            String[] ids = new String[count];
+            double[] amounts = new double[count];
+            byte[] days = new byte[count];
+            byte[] types = new byte[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = in.readUTF();
+            }
+            for (int i = 0; i < count; i++) {
+                amounts[i] = in.readDouble();
+            }
+            in.readFully(days);
+            in.readFully(types);
+            int[] categories = new int[count];
+            for (int i = 0; i < count; i++) {
+                categories[i] = in.readInt();
+            }
+            int[] descriptions = new int[count];
+            for (int i = 0; i < count; i++) {
+                descriptions[i] = in.readInt();
+            }
+            int[] currencies = new int[count];
+            double[] rates = new double[count];
+            if (magic == MAGIC) {
+                for (int i = 0; i < count; i++) {
+                    currencies[i] = in.readInt();
+                }
+                for (int i = 0; i < count; i++) {
+                    rates[i] = in.readDouble();
+                }
+            } else {
+                Arrays.fill(currencies, -1);
+            }
+
+            TransactionType[] typeValues = TransactionType.values();
+            List<Transaction> transactions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                LocalDate date = month.atDay(days[i]);
+                Transaction transaction = new Transaction(ids[i], amounts[i],
+                        currencies[i] < 0 ? null : dictionary[currencies[i]], dictionary[categories[i]],
+                        java.sql.Date.valueOf(date), dictionary[descriptions[i]], typeValues[types[i]]);
+                transaction.setExchangeRate(rates[i]);
+                transactions.add(transaction);
+            }
+            return transactions;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * AUTOMATIC CATEGORIZATION: Suggests a category from a transaction's description
+ * Picking a category by hand does not work for a statement with thousands of rows.
+ *
+ * Two sources, tried in this order:
+ * 1. RULES: keyword -> category, set by the user (FinanceManager.setCategoryRule),
+ *    e.g. "uber eats" -> Food, "uber" -> Transport. All rules are compiled into one
+ *    KeywordMatcher, so a description is scanned once however many rules there are;
+ *    the longest matching keyword wins.
+ * 2. LEARNED: a naive Bayes model over the words of every description already in
+ *    the ledger. P(category | words) ~ P(category) * product of P(word | category),
+ *    with add-one smoothing so an unseen word does not zero a category out. Kept
+ *    separately for income and expenses, since they use different categories.
+ *
+ * INCREMENTAL: The model is trained once from the whole ledger (archived months
+ * included) and then follows change events - an added row adds its word counts,
+ * a deleted one takes them away, an edit does both. Nothing is retrained.
+ *
+ * PARALLEL: categorize() splits a batch over all cores; the model is only read
+ * (under a read lock), so the workers never wait for each other.
+ */
+public class TransactionCategorizer implements FinanceChangeListener {
+    // learned suggestions below this probability are left to the caller's fallback
+    public static final double DEFAULT_MIN_CONFIDENCE = 0.5;
+
+    /**
+     * A suggested category and where it came from
+     */
+    public static final class Suggestion {
+        private final String category;
+        private final boolean fromRule;
+        private final double confidence;
+
+        Suggestion(String category, boolean fromRule, double confidence) {
+            this.category = category;
+            this.fromRule = fromRule;
+            this.confidence = confidence;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public boolean isFromRule() {
+            return fromRule;
+        }
+
+        /**
+         * 1.0 for a rule, otherwise the model's probability for this category
+         */
+        public double getConfidence() {
+            return confidence;
+        }
+    }
+
+    /**
+     * Word counts for one transaction type
+     */
+    private static final class Model {
+        final Map<String, Integer> categoryIndex = new HashMap<>();
+        final List<String> categories = new ArrayList<>();
+        int[] rowCount = new int[4];
+        long[] wordTotal = new long[4];
+        // word -> count per category (indexed like categories)
+        final Map<String, int[]> wordCounts = new HashMap<>();
+        long rows;
+
+        int indexOf(String category) {
+            Integer index = categoryIndex.get(category);
+            if (index == null) {
+                index = categories.size();
+                categories.add(category);
+                categoryIndex.put(category, index);
+                if (index == rowCount.length) {
+                    rowCount = Arrays.copyOf(rowCount, index * 2);
+                    wordTotal = Arrays.copyOf(wordTotal, index * 2);
+                }
+            }
+            return index;
+        }
+
+        void learn(String category, List<String> words, int sign) {
+            int c = indexOf(category);
+            rowCount[c] += sign;
+            rows += sign;
+            wordTotal[c] += sign * words.size();
+            for (String word : words) {
+                int[] counts = wordCounts.get(word);
+                if (counts == null) {
+                    counts = new int[categories.size()];
+                    wordCounts.put(word, counts);
+                } else if (counts.length <= c) {
+                    counts = Arrays.copyOf(counts, categories.size());
+                    wordCounts.put(word, counts);
+                }
+                counts[c] += sign;
+            }
+        }
+    }
+
+    /**
+     * Per-call constants of the formula (log priors and denominators)
+     * Worked out once per batch, not once per row
+     */
+    private static final class Scorer {
+        final Model model;
+        final double[] logPrior;
+        final double[] logDenominator;
+
+        Scorer(Model model) {
+            this.model = model;
+            int categories = model.categories.size();
+            logPrior = new double[categories];
+            logDenominator = new double[categories];
+            double vocabulary = model.wordCounts.size();
+            for (int c = 0; c < categories; c++) {
+                logPrior[c] = model.rowCount[c] > 0
+                        ? Math.log(model.rowCount[c] / (double) model.rows) : Double.NEGATIVE_INFINITY;
+                logDenominator[c] = Math.log(model.wordTotal[c] + vocabulary + 1);
+            }
+        }
+
+        Suggestion score(List<String> words) {
+            if (model.rows <= 0) {
+                return null;
+            }
+            double[] scores = logPrior.clone();
+            for (String word : words) {
+                int[] counts = model.wordCounts.get(word);
+                for (int c = 0; c < scores.length; c++) {
+                    int count = counts != null && c < counts.length ? counts[c] : 0;
+                    scores[c] += Math.log(count + 1) - logDenominator[c];
+                }
+            }
+            int best = 0;
+            for (int c = 1; c < scores.length; c++) {
+                if (scores[c] > scores[best]) {
+                    best = c;
+                }
+            }
+            // probability of the best category (softmax over the log scores)
+            double sum = 0;
+            for (double score : scores) {
+                sum += Math.exp(score - scores[best]);
+            }
+            return new Suggestion(model.categories.get(best), false, 1 / sum);
+        }
+    }
+
+    private final FinanceManager financeManager;
+    private final double minConfidence;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Model[] models = new Model[TransactionType.values().length];
+    // RULES VERSION: bumped by every rule change; the compiled matcher carries the
+    // version it was built from and is recompiled once that is no longer current
+    private final AtomicLong rulesVersion = new AtomicLong();
+    private volatile CompiledRules rules;
+
+    /**
+     * A matcher and the rules version it was compiled from
+     */
+    private static final class CompiledRules {
+        final long version;
+        final KeywordMatcher<String> matcher;
+
+        CompiledRules(long version, KeywordMatcher<String> matcher) {
+            this.version = version;
+            this.matcher = matcher;
+        }
+    }
+
+    public TransactionCategorizer(FinanceManager financeManager) {
+        this(financeManager, DEFAULT_MIN_CONFIDENCE);
+    }
+
+    public TransactionCategorizer(FinanceManager financeManager, double minConfidence) {
+        this.financeManager = financeManager;
+        this.minConfidence = minConfidence;
+        for (int i = 0; i < models.length; i++) {
+            models[i] = new Model();
+        }
+        // under the ledger's lock, so no change slips in between training and the listener
+        synchronized (financeManager) {
+            long start = FinanceMetrics.startTimer();
+            for (Transaction transaction : financeManager.getSnapshot()) {
+                learn(transaction, 1);
+            }
+            financeManager.visitArchive(financeManager.getArchivedMonths(), transaction -> true,
+                    transaction -> learn(transaction, 1));
+            financeManager.addChangeListener(this);
+            FinanceMetrics.stopTimer("categorizer.train", start);
+        }
+    }
+
+    // ========== SUGGESTING ==========
+
+    /**
+     * Best category for one description, or null if no rule matches and the
+     * model is not confident enough
+     */
+    public Suggestion suggest(String description, TransactionType type) {
+        lock.readLock().lock();
+        try {
+            return suggest(description, type, getRules(), new Scorer(models[type.ordinal()]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BATCH: Suggestions for many rows at once, in the same order (null = no suggestion)
+     */
+    public List<Suggestion> suggestAll(List<Transaction> batch) {
+        long start = FinanceMetrics.startTimer();
+        lock.readLock().lock();
+        try {
+            KeywordMatcher<String> matcher = getRules();
+            Scorer[] scorers = new Scorer[models.length];
+            for (int i = 0; i < models.length; i++) {
+                scorers[i] = new Scorer(models[i]);
+            }
+            Suggestion[] result = new Suggestion[batch.size()];
+            // each worker writes only its own slots of the array
+            IntStream.range(0, batch.size()).parallel().forEach(i -> {
+                Transaction transaction = batch.get(i);
+                result[i] = suggest(transaction.getDescription(), transaction.getType(),
+                        matcher, scorers[transaction.getType().ordinal()]);
+            });
+            FinanceMetrics.add("categorizer.rows", batch.size());
+            return Arrays.asList(result);
+        } finally {
+            lock.readLock().unlock();
+            FinanceMetrics.stopTimer("categorizer.suggestAll", start);
+        }
+    }
+
+    /**
+     * IMPORT: Fill in the category of every row that has none
+     * Only for rows not yet in the ledger (stored rows are changed with
+     * FinanceManager.updateTransaction). Returns how many rows got a suggestion;
+     * the others get the fallback category.
+     */
+    public int categorize(List<Transaction> batch, String fallbackCategory) {
+        List<Transaction> missing = new ArrayList<>();
+        for (Transaction transaction : batch) {
+            if (transaction.getCategory() == null || transaction.getCategory().trim().isEmpty()) {
+                missing.add(transaction);
+            }
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        List<Suggestion> suggestions = suggestAll(missing);
+        int suggested = 0;
+        for (int i = 0; i < missing.size(); i++) {
+            Suggestion suggestion = suggestions.get(i);
+            if (suggestion != null) {
+                missing.get(i).setCategory(suggestion.getCategory());
+                suggested++;
+            } else {
+                missing.get(i).setCategory(fallbackCategory);
+            }
+        }
+        return suggested;
+    }
+
+    private Suggestion suggest(String description, TransactionType type, KeywordMatcher<String> matcher, Scorer scorer) {
+        String text = DuplicateDetector.normalize(description);
+        String ruleCategory = matcher.findLongest(text);
+        if (ruleCategory != null) {
+            return new Suggestion(ruleCategory, true, 1.0);
+        }
+        Suggestion learned = scorer.score(words(text));
+        return learned != null && learned.getConfidence() >= minConfidence ? learned : null;
+    }
+
+    /**
+     * The version is read before the rules: a change that lands while compiling
+     * bumps it, so the matcher is already stale when published and the next
+     * call compiles again - an invalidation can never be lost
+     */
+    private KeywordMatcher<String> getRules() {
+        long version = rulesVersion.get();
+        CompiledRules compiled = rules;
+        if (compiled != null && compiled.version == version) {
+            return compiled.matcher;
+        }
+        Map<String, String> normalized = new LinkedHashMap<>();
+        for (Map.Entry<String, String> rule : financeManager.getCategoryRules().entrySet()) {
+            normalized.putIfAbsent(DuplicateDetector.normalize(rule.getKey()), rule.getValue());
+        }
+        normalized.remove("");
+        KeywordMatcher<String> matcher = new KeywordMatcher<>(normalized);
+        rules = new CompiledRules(version, matcher);
+        return matcher;
+    }
+
+    // ========== LEARNING ==========
+
+    @Override
+    public void onChange(FinanceChangeEvent event) {
+        switch (event.getType()) {
+            case TRANSACTIONS_ADDED:
+                learnAll(event.getTransactions(), 1);
+                break;
+            case TRANSACTIONS_REMOVED:
+                learnAll(event.getTransactions(), -1);
+                break;
+            case TRANSACTIONS_UPDATED:
+                learnAll(event.getPreviousTransactions(), -1);
+                learnAll(event.getTransactions(), 1);
+                break;
+            case CATEGORY_RULES_CHANGED:
+                rulesVersion.incrementAndGet();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void learnAll(List<Transaction> transactions, int sign) {
+        lock.writeLock().lock();
+        try {
+            for (Transaction transaction : transactions) {
+                learn(transaction, sign);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void learn(Transaction transaction, int sign) {
+        models[transaction.getType().ordinal()].learn(transaction.getCategory(),
+                words(DuplicateDetector.normalize(transaction.getDescription())), sign);
+    }
+
+    /**
+     * Distinct words of two letters or more (a word counts once per description)
+     */
+    private static List<String> words(String normalized) {
+        List<String> words = new ArrayList<>();
+        for (String word : normalized.split(" ")) {
+            if (word.length() > 1 && !words.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,103 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * VALUE OBJECT: The fields to change in one transaction (unset fields stay as they are)
+ * Used with FinanceManager.updateTransaction, which swaps in a new Transaction
+ * object and fixes totals, budgets and rollups - the stored object is never
+ * changed in place.
+ *
+ *   financeManager.updateTransaction(id, new TransactionPatch().amount(42.5).category("Groceries"));
+ */
+public class TransactionPatch {
+    private Double amount;
+    private String category;
+    private LocalDate date;
+    private String description;
+    private TransactionType type;
+    private String currency;
+    private boolean currencySet;
+    // booked rate to carry over as is (journal replay); otherwise the ledger books one
+    private Double exchangeRate;
+
+    public TransactionPatch amount(double amount) {
+        this.amount = amount;
+        return this;
+    }
+
+    public TransactionPatch category(String category) {
+        this.category = category;
+        return this;
+    }
+
+    public TransactionPatch date(LocalDate date) {
+        this.date = date;
+        return this;
+    }
+
+    public TransactionPatch description(String description) {
+        this.description = description;
+        return this;
+    }
+
+    public TransactionPatch type(TransactionType type) {
+        this.type = type;
+        return this;
+    }
+
+    /**
+     * New currency code (null = back to the ledger's base currency)
+     */
+    public TransactionPatch currency(String currency) {
+        this.currency = currency == null ? null : ExchangeRateTable.normalize(currency);
+        this.currencySet = true;
+        return this;
+    }
+
+    /**
+     * Patch that sets every field to the values of the given transaction
+     */
+    public static TransactionPatch from(Transaction transaction) {
+        TransactionPatch patch = new TransactionPatch()
+                .amount(transaction.getAmount())
+                .category(transaction.getCategory())
+                .date(transaction.getLocalDate())
+                .description(transaction.getDescription())
+                .type(transaction.getType())
+                .currency(transaction.getCurrency());
+        patch.exchangeRate = transaction.getExchangeRate();
+        return patch;
+    }
+
+    public boolean isEmpty() {
+        return amount == null && category == null && date == null && description == null && type == null
+                && !currencySet;
+    }
+
+    /**
+     * New transaction with the same ID and the patched fields
+     * The booked exchange rate is kept unless the currency or the date changes
+     * (then the ledger books the rate of the new day)
+     */
+    public Transaction applyTo(Transaction original) {
+        Transaction updated = new Transaction(
+                original.getId(),
+                amount != null ? amount : original.getAmount(),
+                currencySet ? currency : original.getCurrency(),
+                category != null ? category : original.getCategory(),
+                date != null ? java.sql.Date.valueOf(date) : original.getDate(),
+                description != null ? description : original.getDescription(),
+                type != null ? type : original.getType()
+        );
+        boolean sameCurrency = !currencySet || Objects.equals(currency, original.getCurrency());
+        boolean sameDay = date == null || date.equals(original.getLocalDate());
+        if (exchangeRate != null) {
+            updated.setExchangeRate(exchangeRate);
+        } else if (sameCurrency && sameDay) {
+            updated.setExchangeRate(original.getExchangeRate());
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,221 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UI MODEL: Table model that holds Transaction objects directly
+ * Why not DefaultTableModel? That builds a formatted row for every transaction up front.
+ * Here cells are formatted only when JTable paints them (visible rows only),
+ * and single rows can be added or removed without rebuilding the table
+ *
+ * INDEX CONCEPT: Rows keep the slot they were added in, and an ID -> slot map
+ * finds them without a scan. A removed row leaves an empty slot behind (so no
+ * other row moves), and a Fenwick tree counting the filled slots turns a table
+ * row number into its slot and back in O(log n). Empty slots are squeezed out
+ * once they outnumber the rows, so every change stays cheap whatever the size
+ * of the history.
+ */
+public class TransactionTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNS = {"ID", "Date", "Type", "Category", "Amount", "Description"};
+
+    // slot -> transaction (null = removed), in the order they were added
+    private final List<Transaction> slots = new ArrayList<>();
+    private final Map<String, Integer> slotById = new HashMap<>();
+    // FENWICK TREE: tree[i] = filled slots in (i - lowbit(i), i], 1-based
+    private int[] tree = new int[16];
+    private int rowCount;
+    // currency of rows without one (the ledger's base currency)
+    private String baseCurrency = "USD";
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+        fireTableDataChanged();
+    }
+
+    /**
+     * FULL RELOAD: Replace every row (startup and the manual Refresh button)
+     */
+    public void setTransactions(Collection<Transaction> transactions) {
+        rebuild(new ArrayList<>(transactions));
+        fireTableDataChanged();
+    }
+
+    /**
+     * DELTA: Append new rows at the bottom
+     */
+    public void addTransactions(Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        int first = rowCount;
+        for (Transaction transaction : transactions) {
+            append(transaction);
+        }
+        fireTableRowsInserted(first, rowCount - 1);
+    }
+
+    /**
+     * DELTA: Remove one row by transaction ID
+     */
+    public void removeTransaction(String transactionId) {
+        Integer slot = slotById.remove(transactionId);
+        if (slot == null) {
+            return;
+        }
+        int row = rowOf(slot);
+        slots.set(slot, null);
+        addToTree(slot + 1, -1);
+        rowCount--;
+        fireTableRowsDeleted(row, row);
+        if (slots.size() - rowCount > Math.max(rowCount, 1024)) {
+            compact();
+        }
+    }
+
+    /**
+     * DELTA: Swap edited transactions into their rows (matched by ID)
+     */
+    public void updateTransactions(Collection<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            Integer slot = slotById.get(transaction.getId());
+            if (slot != null) {
+                slots.set(slot, transaction);
+                int row = rowOf(slot);
+                fireTableRowsUpdated(row, row);
+            }
+        }
+    }
+
+    public Transaction getTransactionAt(int row) {
+        return slots.get(slotOf(row));
+    }
+
+    // ========== SLOT INDEX ==========
+
+    private void append(Transaction transaction) {
+        int slot = slots.size();
+        slots.add(transaction);
+        slotById.put(transaction.getId(), slot);
+        int index = slot + 1;
+        if (index >= tree.length) {
+            tree = Arrays.copyOf(tree, tree.length * 2);
+        }
+        // the new node covers (index - lowbit, index]: this slot plus the ones before it in that range
+        tree[index] = 1 + prefix(index - 1) - prefix(index - (index & -index));
+        rowCount++;
+    }
+
+    /**
+     * SQUEEZE: Drop the empty slots (rows keep their order, so the table does not change)
+     */
+    private void compact() {
+        List<Transaction> live = new ArrayList<>(rowCount);
+        for (Transaction transaction : slots) {
+            if (transaction != null) {
+                live.add(transaction);
+            }
+        }
+        rebuild(live);
+    }
+
+    private void rebuild(List<Transaction> transactions) {
+        slots.clear();
+        slotById.clear();
+        slots.addAll(transactions);
+        int size = transactions.size();
+        tree = new int[Math.max(16, Integer.highestOneBit(size + 1) * 2)];
+        for (int slot = 0; slot < size; slot++) {
+            slotById.put(transactions.get(slot).getId(), slot);
+            // linear-time build: every node passes its count on to its parent
+            int index = slot + 1;
+            tree[index] += 1;
+            int parent = index + (index & -index);
+            if (parent <= size) {
+                tree[parent] += tree[index];
+            }
+        }
+        rowCount = size;
+    }
+
+    private void addToTree(int index, int delta) {
+        for (int size = slots.size(); index <= size; index += index & -index) {
+            tree[index] += delta;
+        }
+    }
+
+    /**
+     * Filled slots among the first count slots
+     */
+    private int prefix(int count) {
+        int sum = 0;
+        for (int index = count; index > 0; index -= index & -index) {
+            sum += tree[index];
+        }
+        return sum;
+    }
+
+    private int rowOf(int slot) {
+        return prefix(slot + 1) - 1;
+    }
+
+    /**
+     * Slot of the row-th filled slot (binary search down the tree)
+     */
+    private int slotOf(int row) {
+        int size = slots.size();
+        int position = 0;
+        int remaining = row + 1;
+        for (int step = Integer.highestOneBit(Math.max(size, 1)); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= size && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position; // 0-based slot = 1-based index - 1
+    }
+
+    // ========== TABLE MODEL ==========
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false; // Read-only table
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Transaction transaction = getTransactionAt(row);
+        switch (column) {
+            case 0: return transaction.getId();
+            case 1: return transaction.getDate();
+            case 2: return transaction.getType().getDisplayName();
+            case 3: return transaction.getCategory();
+            case 4: return Money.format(transaction.getAmount(),
+                    transaction.getCurrency() != null ? transaction.getCurrency() : baseCurrency);
+            case 5: return transaction.getDescription();
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LOAD TEST: Many clients hitting the JSON API at once
+ * Without a URL it starts a server in this process on a free port with a
+ * throw-away ledgers folder, so real data is never touched.
+ *
+ * Mix per client: 60% account summary, 20% transaction list (last 30 days),
+ * 20% batch POST of 10 transactions, spread over a set of accounts.
+ *
+ *   javac -d out *.java benchmarks/*.java
+ *   java -cp out com.laiba.BeginnerProjects.PersonalFileTracker.ApiLoadTest [clients] [seconds] [accounts] [baseUrl]
+ *   e.g. ApiLoadTest 32 20 100 http://127.0.0.1:8080/api
+ */
+public class ApiLoadTest {
+    private static final String[] CATEGORIES = {"Food", "Rent", "Transport", "Fun", "Bills"};
+
+    private final String baseUrl;
+    private final int accounts;
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong errors = new AtomicLong();
+
+    public ApiLoadTest(String baseUrl, int accounts) {
+        this.baseUrl = baseUrl;
+        this.accounts = accounts;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int accounts = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        FinanceApiServer server = null;
+        String baseUrl;
+        PrintStream report = System.out;
+        if (args.length > 3) {
+            baseUrl = args[3];
+        } else {
+            // the services print on every save/load - keep the report readable
+            System.setOut(new PrintStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+            }));
+            File folder = Files.createTempDirectory("finance_api_load").toFile();
+            server = new FinanceApiServer(new LedgerRegistry(folder.getPath(), accounts), 0);
+            server.start();
+            baseUrl = "http://127.0.0.1:" + server.getPort() + "/api";
+        }
+
+        ApiLoadTest test = new ApiLoadTest(baseUrl, accounts);
+        report.printf("Load test: %d clients, %d s, %d accounts against %s%n", clients, seconds, accounts, baseUrl);
+        test.seed();
+        test.run(clients, 2, false); // warm-up
+        test.run(clients, seconds, true);
+        test.report(report, seconds);
+
+        if (server != null) {
+            server.stop();
+        }
+        System.setOut(report);
+    }
+
+    /**
+     * A few transactions per account, so summaries and lists have data
+     */
+    private void seed() throws IOException {
+        for (int a = 0; a < accounts; a++) {
+            request("seed", "POST", "/accounts/acct" + a + "/transactions", batch(new Random(a), 20));
+        }
+    }
+
+    private void run(int clients, int seconds, boolean record) throws InterruptedException {
+        latencies.clear();
+        errors.set(0);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            final long seed = c;
+            pool.execute(() -> {
+                Random random = new Random(seed);
+                while (System.nanoTime() < end) {
+                    String account = "/accounts/acct" + random.nextInt(accounts);
+                    int pick = random.nextInt(10);
+                    try {
+                        if (pick < 6) {
+                            request("GET summary", "GET", account + "/summary", null);
+                        } else if (pick < 8) {
+                            request("GET transactions", "GET", account + "/transactions?from="
+                                    + LocalDate.now().minusDays(30) + "&limit=100", null);
+                        } else {
+                            request("POST batch(10)", "POST", account + "/transactions", batch(random, 10));
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        if (!record) {
+            latencies.clear();
+        }
+    }
+
+    /**
+     * One HTTP call; the body is read to the end so the connection is reused (keep-alive)
+     */
+    private void request(String name, String method, String path, String body) throws IOException {
+        long start = System.nanoTime();
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in != null) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // drain
+            }
+            in.close();
+        }
+        if (status >= 400) {
+            errors.incrementAndGet();
+        }
+        latencies.computeIfAbsent(name, n -> new LatencyHistogram()).record(System.nanoTime() - start);
+    }
+
+    private static String batch(Random random, int size) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            boolean income = random.nextInt(5) == 0;
+            sb.append(String.format(Locale.ROOT,
+                    "{\"amount\":%.2f,\"category\":\"%s\",\"type\":\"%s\",\"date\":\"%s\",\"description\":\"load test\"}",
+                    5 + random.nextDouble() * 200,
+                    income ? "Salary" : CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    income ? "INCOME" : "EXPENSE",
+                    LocalDate.now().minusDays(random.nextInt(60))));
+        }
+        return sb.append(']').toString();
+    }
+
+    private void report(PrintStream report, int seconds) {
+        long total = 0;
+        report.printf("%-20s %12s %10s %10s %10s %10s%n", "Request", "req/s", "p50 us", "p99 us", "p99.9 us", "max us");
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(latencies).entrySet()) {
+            LatencyHistogram h = entry.getValue();
+            total += h.getCount();
+            report.printf("%-20s %,12.0f %10.1f %10.1f %10.1f %10.1f%n", entry.getKey(),
+                    h.getCount() / (double) seconds,
+                    h.getPercentileNanos(50) / 1000.0, h.getPercentileNanos(99) / 1000.0,
+                    h.getPercentileNanos(99.9) / 1000.0, h.getMaxNanos() / 1000.0);
+        }
+        report.printf("%-20s %,12.0f   (errors: %d)%n", "TOTAL", total / (double) seconds, errors.get());
+    }
+}
@@ -0,0 +1,240 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * BENCHMARK: Baseline numbers for FinanceManager and DataPersistenceService
+ * For every ledger size it reports throughput, latency percentiles and
+ * allocation per operation, so changes can be compared before/after
+ *
+ * Compile and run (from the project folder):
+ *   javac -d out *.java benchmarks/*.java
+ *   java -cp out com.laiba.BeginnerProjects.PersonalFileTracker.FinanceBenchmark 1000,100000
+ * Sizes of 10^6 and above need a bigger heap, e.g. -Xmx8g
+ * This is the quick check without extra libraries - the same operations run
+ * under JMH in jmh/ (mvn -B package, then java -jar benchmarks/target/benchmarks.jar)
+ */
+public class FinanceBenchmark {
+    private static final long WARMUP_NANOS = 500_000_000L;
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+    private static final int MIN_ITERATIONS = 5;
+    private static final int MAX_SAMPLES = 1_000_000;
+
+    // Results are folded in here so the JIT cannot remove the benchmarked calls
+    private static volatile long sink;
+
+    /**
+     * One benchmarked operation, i = iteration number
+     */
+    interface Operation {
+        Object run(int i) throws Exception;
+    }
+
+    /**
+     * Untimed work before each call (e.g. putting back the row the last call deleted)
+     */
+    interface Preparation {
+        void run(int i) throws Exception;
+    }
+
+    private final PrintStream report;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    public FinanceBenchmark(PrintStream report) {
+        this.report = report;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {1_000, 10_000, 100_000};
+        if (args.length > 0) {
+            String[] parts = args[0].split(",");
+            sizes = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                sizes[i] = Integer.parseInt(parts[i].trim());
+            }
+        }
+
+        // The services print on every save/load - keep the report readable
+        PrintStream report = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+
+        FinanceBenchmark benchmark = new FinanceBenchmark(report);
+        for (int size : sizes) {
+            benchmark.runAll(size);
+        }
+        System.setOut(report);
+    }
+
+    /**
+     * Run every benchmark against a ledger with the given number of rows
+     */
+    public void runAll(int size) throws Exception {
+        LedgerGenerator generator = new LedgerGenerator(42);
+        FinanceManager financeManager = generator.generateManager(size);
+        LocalDate today = generator.getToday();
+
+        report.println();
+        report.printf("=== Ledger size: %,d rows ===%n", size);
+        report.printf("%-32s %14s %10s %10s %10s %10s %10s %12s%n",
+                "Benchmark", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us", "alloc B/op");
+
+        // addTransaction grows a copy so the other benchmarks keep the same ledger
+        FinanceManager growing = generator.generateManager(size);
+        LedgerGenerator extra = new LedgerGenerator(7);
+        measure("addTransaction", i -> {
+            growing.addTransaction(extra.nextTransaction(size + i));
+            return null;
+        });
+
+        measure("getAllTransactions", i -> financeManager.getAllTransactions().size());
+        measure("getTransactionsByType", i ->
+                financeManager.getTransactionsByType(i % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE).size());
+        measure("getTransactionsByCategory", i ->
+                financeManager.getTransactionsByCategory(LedgerGenerator.EXPENSE_CATEGORIES[i % LedgerGenerator.EXPENSE_CATEGORIES.length]).size());
+        measure("getTransactionsByDateRange(30d)", i ->
+                financeManager.getTransactionsByDateRange(today.minusDays(30 + i % 365), today.minusDays(i % 365)).size());
+        measure("calculateTotalIncome", i -> financeManager.calculateTotalIncome());
+        measure("calculateTotalExpenses", i -> financeManager.calculateTotalExpenses());
+        measure("calculateCurrentBalance", i -> financeManager.calculateCurrentBalance());
+        measure("getMonthlyExpenseByCategory", i ->
+                financeManager.getMonthlyExpenseByCategory(today.minusMonths(i % 60)).size());
+
+        // Delete a random row; the previous one is put back untimed, so the ledger size stays the same
+        List<Transaction> all = financeManager.getAllTransactions();
+        Random random = new Random(1);
+        Transaction[] victim = new Transaction[1];
+        measure("deleteTransaction", i -> {
+            if (victim[0] != null) {
+                financeManager.addTransaction(victim[0]);
+            }
+            victim[0] = all.get(random.nextInt(all.size()));
+        }, i -> financeManager.deleteTransaction(victim[0].getId()));
+        financeManager.addTransaction(victim[0]);
+
+        // Import check: half of the batch re-imports existing rows, half is new
+        DuplicateDetector detector = financeManager.getDuplicateDetector();
+        List<Transaction> importBatch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            importBatch.add(i % 2 == 0 ? all.get(random.nextInt(all.size())) : extra.nextTransaction(i));
+        }
+        measure("findDuplicates(1k batch)", i -> detector.findDuplicates(importBatch).size());
+
+        TransactionCategorizer categorizer = financeManager.getCategorizer();
+        measure("suggestAll(1k batch)", i -> categorizer.suggestAll(importBatch).size());
+
+        // Dashboard chart: the series is precomputed, a repaint only downsamples it
+        CashFlowSeries series = financeManager.getCashFlowSeries();
+        measure("dailyBalance+LTTB(800px)", i -> series.getDailyBalance().downsample(800).size());
+
+        // Reporting currency: ten years of daily EUR rates, totals converted per day
+        ExchangeRateTable rates = new ExchangeRateTable(financeManager.getBaseCurrency());
+        Random rateNoise = new Random(3);
+        for (LocalDate day = today.minusYears(10); !day.isAfter(today); day = day.plusDays(1)) {
+            rates.addRate("EUR", day, 1.05 + rateNoise.nextDouble() * 0.1);
+        }
+        financeManager.setExchangeRates(rates);
+        measure("calculateTotalExpenses(EUR)", i -> financeManager.calculateTotalExpenses("EUR"));
+
+        File dataFile = File.createTempFile("finance_bench", ".ser");
+        dataFile.deleteOnExit();
+        new File(dataFile.getPath() + ".summary").deleteOnExit();
+        DataPersistenceService dataService = new DataPersistenceService(dataFile.getPath());
+        measure("saveData", i -> {
+            dataService.saveData(financeManager);
+            return null;
+        });
+        measure("loadData", i -> dataService.loadData());
+        report.printf("%-32s %,d bytes%n", "serialized file size", dataFile.length());
+        dataFile.delete();
+    }
+
+    private void measure(String name, Operation operation) throws Exception {
+        measure(name, null, operation);
+    }
+
+    /**
+     * MEASUREMENT LOOP: Warm up, then time every single call
+     * preparation (may be null) runs before each call and is neither timed nor
+     * counted in the allocation figure
+     */
+    private void measure(String name, Preparation preparation, Operation operation) throws Exception {
+        // Warm-up lets the JIT compile the code path before we time it
+        long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+        int i = 0;
+        while (System.nanoTime() < warmupEnd || i < MIN_ITERATIONS) {
+            if (preparation != null) {
+                preparation.run(i);
+            }
+            consume(operation.run(i++));
+        }
+
+        long[] samples = new long[1024];
+        int count = 0;
+        long preparationAllocated = 0;
+        long elapsed = 0;
+        long allocatedBefore = allocatedBytes();
+        long end = System.nanoTime() + MEASURE_NANOS;
+        long now = System.nanoTime();
+        while ((now < end || count < MIN_ITERATIONS) && count < MAX_SAMPLES) {
+            if (preparation != null) {
+                long preparationStart = allocatedBytes();
+                preparation.run(i);
+                preparationAllocated += allocatedBytes() - preparationStart;
+                now = System.nanoTime();
+            }
+            long before = now;
+            consume(operation.run(i++));
+            now = System.nanoTime();
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count] = now - before;
+            elapsed += samples[count++];
+        }
+        // -1 from the JVM means it cannot count allocations (the difference would read as 0)
+        String allocated = allocatedBefore < 0 ? "n/a"
+                : String.format("%,d", (allocatedBytes() - allocatedBefore - preparationAllocated) / count);
+
+        Arrays.sort(samples, 0, count);
+        report.printf("%-32s %,14.1f %10.1f %10.1f %10.1f %10.1f %10.1f %12s%n",
+                name,
+                count * 1e9 / elapsed,
+                percentile(samples, count, 50) / 1e3,
+                percentile(samples, count, 90) / 1e3,
+                percentile(samples, count, 99) / 1e3,
+                percentile(samples, count, 99.9) / 1e3,
+                samples[count - 1] / 1e3,
+                allocated);
+    }
+
+    private static long percentile(long[] sorted, int count, double percent) {
+        int index = (int) Math.ceil(percent / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * Bytes allocated by this thread so far (-1 if the JVM cannot tell us)
+     */
+    private long allocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static void consume(Object result) {
+        if (result != null) {
+            sink += result.hashCode();
+        }
+    }
+}
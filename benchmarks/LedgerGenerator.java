@@ -0,0 +1,73 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BENCHMARK HELPER: Builds synthetic ledgers of any size
+ * Same seed = same ledger, so runs can be compared with each other
+ */
+public class LedgerGenerator {
+    static final String[] EXPENSE_CATEGORIES = {"Food", "Transport", "Entertainment", "Bills",
+            "Shopping", "Healthcare", "Other"};
+    static final String[] INCOME_CATEGORIES = {"Salary", "Investment"};
+    static final String[] DESCRIPTIONS = {"Groceries", "Bus ticket", "Cinema", "Electricity bill",
+            "New shoes", "Pharmacy", "Monthly salary", "Dividend", "Coffee", "Taxi"};
+
+    // Ledger covers the last five years
+    static final int HISTORY_DAYS = 5 * 365;
+
+    private final Random random;
+    private final LocalDate today;
+
+    public LedgerGenerator(long seed) {
+        this.random = new Random(seed);
+        this.today = LocalDate.now();
+    }
+
+    /**
+     * One random transaction - about 85% expenses, like a real ledger
+     */
+    public Transaction nextTransaction(int index) {
+        boolean income = random.nextInt(100) < 15;
+        String category = income
+                ? INCOME_CATEGORIES[random.nextInt(INCOME_CATEGORIES.length)]
+                : EXPENSE_CATEGORIES[random.nextInt(EXPENSE_CATEGORIES.length)];
+        double amount = income
+                ? 500 + random.nextInt(300000) / 100.0
+                : 1 + random.nextInt(20000) / 100.0;
+        LocalDate date = today.minusDays(random.nextInt(HISTORY_DAYS));
+
+        return new Transaction(
+                "TXN_" + index,
+                amount,
+                category,
+                java.sql.Date.valueOf(date),
+                DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)],
+                income ? TransactionType.INCOME : TransactionType.EXPENSE
+        );
+    }
+
+    public List<Transaction> generate(int rows) {
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            transactions.add(nextTransaction(i));
+        }
+        return transactions;
+    }
+
+    /**
+     * FinanceManager pre-filled with the given number of rows
+     */
+    public FinanceManager generateManager(int rows) throws InvalidTrasactionException {
+        FinanceManager financeManager = new FinanceManager();
+        financeManager.addTransactions(generate(rows));
+        return financeManager;
+    }
+
+    public LocalDate getToday() {
+        return today;
+    }
+}
@@ -0,0 +1,193 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH BENCHMARK: FinanceManager operations on synthetic ledgers of each size
+ * SampleTime mode reports the latency percentiles (p50 ... p99.9); add
+ * -prof gc for bytes allocated per operation:
+ *   java -jar benchmarks/target/benchmarks.jar FinanceManagerBenchmark -prof gc
+ * Sizes of 10^6 and above need a bigger heap: -p size=1000000 -jvmArgs -Xmx8g
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FinanceManagerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private FinanceManager financeManager;
+    private LocalDate today;
+    private List<Transaction> all;
+    private List<Transaction> importBatch;
+    private DuplicateDetector detector;
+    private TransactionCategorizer categorizer;
+    private CashFlowSeries series;
+    // varies the arguments from call to call
+    private int i;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        LedgerGenerator generator = new LedgerGenerator(42);
+        financeManager = generator.generateManager(size);
+        today = generator.getToday();
+        all = financeManager.getAllTransactions();
+
+        // Import check: half of the batch re-imports existing rows, half is new
+        LedgerGenerator extra = new LedgerGenerator(7);
+        Random random = new Random(1);
+        importBatch = new ArrayList<>();
+        for (int n = 0; n < 1000; n++) {
+            importBatch.add(n % 2 == 0 ? all.get(random.nextInt(all.size())) : extra.nextTransaction(n));
+        }
+        detector = financeManager.getDuplicateDetector();
+        categorizer = financeManager.getCategorizer();
+        series = financeManager.getCashFlowSeries();
+
+        // Reporting currency: ten years of daily EUR rates, totals converted per day
+        ExchangeRateTable rates = new ExchangeRateTable(financeManager.getBaseCurrency());
+        Random rateNoise = new Random(3);
+        for (LocalDate day = today.minusYears(10); !day.isAfter(today); day = day.plusDays(1)) {
+            rates.addRate("EUR", day, 1.05 + rateNoise.nextDouble() * 0.1);
+        }
+        financeManager.setExchangeRates(rates);
+    }
+
+    // ========== QUERIES ==========
+
+    @Benchmark
+    public int getAllTransactions() {
+        return financeManager.getAllTransactions().size();
+    }
+
+    @Benchmark
+    public int getTransactionsByType() {
+        return financeManager.getTransactionsByType(i++ % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE).size();
+    }
+
+    @Benchmark
+    public int getTransactionsByCategory() {
+        String[] categories = LedgerGenerator.EXPENSE_CATEGORIES;
+        return financeManager.getTransactionsByCategory(categories[i++ % categories.length]).size();
+    }
+
+    @Benchmark
+    public int getTransactionsByDateRange30d() {
+        int daysBack = i++ % 365;
+        return financeManager.getTransactionsByDateRange(today.minusDays(30 + daysBack), today.minusDays(daysBack)).size();
+    }
+
+    @Benchmark
+    public double calculateTotalIncome() {
+        return financeManager.calculateTotalIncome();
+    }
+
+    @Benchmark
+    public double calculateTotalExpenses() {
+        return financeManager.calculateTotalExpenses();
+    }
+
+    @Benchmark
+    public double calculateTotalExpensesEur() {
+        return financeManager.calculateTotalExpenses("EUR");
+    }
+
+    @Benchmark
+    public double calculateCurrentBalance() {
+        return financeManager.calculateCurrentBalance();
+    }
+
+    @Benchmark
+    public int getMonthlyExpenseByCategory() {
+        return financeManager.getMonthlyExpenseByCategory(today.minusMonths(i++ % 60)).size();
+    }
+
+    @Benchmark
+    public int findDuplicates1k() {
+        return detector.findDuplicates(importBatch).size();
+    }
+
+    @Benchmark
+    public int suggestAll1k() {
+        return categorizer.suggestAll(importBatch).size();
+    }
+
+    /**
+     * Dashboard chart: the series is precomputed, a repaint only downsamples it
+     */
+    @Benchmark
+    public int dailyBalanceLttb800px() {
+        return series.getDailyBalance().downsample(800).size();
+    }
+
+    // ========== CHANGES ==========
+
+    /**
+     * A copy of the ledger that the add benchmark grows (fresh every iteration,
+     * so it does not grow without limit and the other benchmarks keep their size)
+     */
+    @State(Scope.Benchmark)
+    public static class GrowingLedger {
+        FinanceManager financeManager;
+        LedgerGenerator extra;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(FinanceManagerBenchmark benchmark) throws Exception {
+            financeManager = new LedgerGenerator(42).generateManager(benchmark.size);
+            extra = new LedgerGenerator(7);
+            next = benchmark.size;
+        }
+    }
+
+    @Benchmark
+    public void addTransaction(GrowingLedger ledger) throws Exception {
+        ledger.financeManager.addTransaction(ledger.extra.nextTransaction(ledger.next++));
+    }
+
+    /**
+     * Rows the delete benchmark removes: picked, and the previous batch put back,
+     * outside the timed call - so only the deletes are measured
+     */
+    @State(Scope.Thread)
+    public static class Victims {
+        static final int BATCH = 100;
+        final List<Transaction> rows = new ArrayList<>(BATCH);
+        final Random random = new Random(1);
+
+        @Setup(Level.Invocation)
+        public void pick(FinanceManagerBenchmark benchmark) throws Exception {
+            if (!rows.isEmpty()) {
+                benchmark.financeManager.addTransactions(rows);
+                rows.clear();
+            }
+            Set<Integer> picked = new HashSet<>();
+            while (picked.size() < BATCH) {
+                int index = random.nextInt(benchmark.all.size());
+                if (picked.add(index)) {
+                    rows.add(benchmark.all.get(index));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Victims.BATCH)
+    public int deleteTransaction(Victims victims) {
+        int deleted = 0;
+        for (Transaction victim : victims.rows) {
+            if (financeManager.deleteTransaction(victim.getId())) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,63 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH BENCHMARK: Saving and loading the serialized data file
+ *   java -jar benchmarks/target/benchmarks.jar PersistenceBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private FinanceManager financeManager;
+    private DataPersistenceService dataService;
+    private File dataFile;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        financeManager = new LedgerGenerator(42).generateManager(size);
+        dataFile = File.createTempFile("finance_bench", ".ser");
+        dataService = new DataPersistenceService(dataFile.getPath());
+        dataService.saveData(financeManager);
+
+        // The services print on every save/load - keep the report readable
+        console = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+        System.out.printf("serialized file size: %,d bytes%n", dataFile.length());
+        dataFile.delete();
+        new File(dataFile.getPath() + ".summary").delete();
+    }
+
+    @Benchmark
+    public boolean saveData() {
+        return dataService.saveData(financeManager);
+    }
+
+    @Benchmark
+    public FinanceManager loadData() {
+        return dataService.loadData();
+    }
+}
@@ -0,0 +1,40 @@
+package com.laiba.BeginnerProjects.PersonalFileTracker;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * OPTIONAL JFR BRIDGE: Turns every timed FinanceMetrics operation into a Flight Recorder event
+ * Needs JDK 11+, so it is compiled separately:
+ *   javac -d out *.java jfr/*.java
+ * and switched on with -Dfinance.metrics=true -Dfinance.metrics.jfr=true
+ */
+public class FinanceJfrEvents implements FinanceMetrics.EventSink {
+
+    @Name("com.laiba.financetracker.Operation")
+    @Label("Finance Operation")
+    @Category("Finance Tracker")
+    @Description("A timed FinanceManager, persistence or UI refresh call")
+    static class OperationEvent extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long durationNanos;
+    }
+
+    @Override
+    public void operation(String name, long nanos) {
+        OperationEvent event = new OperationEvent();
+        if (event.isEnabled()) {
+            event.operation = name;
+            event.durationNanos = nanos;
+            event.commit();
+        }
+    }
+}